@@ -0,0 +1,55 @@
+plugins {
+    id("java")
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+}
+
+// Fixed, published classfiles to run the benchmarks against, so that
+// results from different commits measure the same work.
+val corpus by configurations.creating {
+    isTransitive = false
+}
+val previousCorpus by configurations.creating {
+    isTransitive = false
+}
+
+dependencies {
+    jmhImplementation(project(":lib"))
+    jmhImplementation(testFixtures(project(":lib")))
+    jmhImplementation(libs.oro)
+
+    jmhRuntimeOnly(libs.log4j.core)
+
+    corpus(libs.ant)
+    previousCorpus(libs.ant.previous)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+
+    includes = listOfNotNull(findProperty("jmh.includes") as String?)
+
+    // Allocation rates per operation next to the timings.
+    profilers = listOf("gc")
+
+    // Machine-readable, so runs from different commits can be compared.
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+
+    jvmArgsAppend.addAll(provider {
+        listOf(
+                "-Ddependencyfinder.benchmarks.corpus=${corpus.asPath}",
+                "-Ddependencyfinder.benchmarks.previous-corpus=${previousCorpus.asPath}",
+                "-Ddependencyfinder.benchmarks.metrics-configuration=${rootProject.file("etc/MetricsConfig.xml")}",
+        )
+    })
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(17))
+    }
+}
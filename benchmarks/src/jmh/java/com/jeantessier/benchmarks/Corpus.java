@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.benchmarks;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+import java.util.zip.*;
+
+import com.jeantessier.classreader.*;
+import com.jeantessier.dependency.*;
+
+/**
+ *  <p>The classfiles the benchmarks work on.  The Gradle build points the
+ *  system properties below at published artifacts, so that every commit
+ *  is measured against the same input.</p>
+ *
+ *  <ul>
+ *      <li><code>dependencyfinder.benchmarks.corpus</code></li>
+ *      <li><code>dependencyfinder.benchmarks.previous-corpus</code>, an
+ *          earlier release of the same code, for comparisons</li>
+ *      <li><code>dependencyfinder.benchmarks.metrics-configuration</code></li>
+ *  </ul>
+ */
+public final class Corpus {
+    public static final String CORPUS = "dependencyfinder.benchmarks.corpus";
+    public static final String PREVIOUS_CORPUS = "dependencyfinder.benchmarks.previous-corpus";
+    public static final String METRICS_CONFIGURATION = "dependencyfinder.benchmarks.metrics-configuration";
+
+    private Corpus() {
+    }
+
+    public static List<String> files(String property) {
+        var value = System.getProperty(property);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("System property " + property + " is not set, run the benchmarks with \"gradlew :benchmarks:jmh\"");
+        }
+
+        return List.of(value.split(File.pathSeparator));
+    }
+
+    public static String file(String property) {
+        return files(property).get(0);
+    }
+
+    /**
+     *  @return the raw bytes of every <code>.class</code> file, so that
+     *          parsing can be measured without any I/O.
+     */
+    public static List<byte[]> classfileBytes(List<String> filenames) throws IOException {
+        var result = new ArrayList<byte[]>();
+
+        for (var filename : filenames) {
+            var path = Paths.get(filename);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> paths = Files.walk(path)) {
+                    for (var file : paths.filter(p -> p.toString().endsWith(".class")).sorted().toList()) {
+                        result.add(Files.readAllBytes(file));
+                    }
+                }
+            } else {
+                try (var zipfile = new ZipFile(filename)) {
+                    for (var entry : Collections.list(zipfile.entries())) {
+                        if (entry.getName().endsWith(".class")) {
+                            try (var in = zipfile.getInputStream(entry)) {
+                                result.add(in.readAllBytes());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public static AggregatingClassfileLoader classfiles(List<String> filenames) {
+        var loader = new AggregatingClassfileLoader();
+        loader.load(filenames);
+        return loader;
+    }
+
+    public static PackageMapper packages(List<String> filenames) {
+        var packages = new PackageMapper();
+
+        var loader = new AggregatingClassfileLoader();
+        loader.addLoadListener(packages);
+        loader.load(filenames);
+
+        return packages;
+    }
+
+    public static NodeFactory graph(List<String> filenames) {
+        var factory = new NodeFactory();
+
+        var loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory)));
+        loader.load(filenames);
+
+        return factory;
+    }
+}
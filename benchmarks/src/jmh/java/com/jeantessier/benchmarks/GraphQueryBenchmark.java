@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.benchmarks;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jeantessier.dependency.*;
+
+/**
+ *  Runs the queries from the dependency tools over the corpus's dependency
+ *  graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphQueryBenchmark {
+    /**
+     *  Classes the closure starts from.
+     */
+    private static final String START = "/^org.apache.tools.ant.Project$/";
+
+    private static final int MAXIMUM_CYCLE_LENGTH = 4;
+
+    @State(Scope.Benchmark)
+    public static class Graph {
+        private NodeFactory factory;
+        private NodeFactory packages;
+        private String xml;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            factory = Corpus.graph(Corpus.files(Corpus.CORPUS));
+
+            var summarizer = new GraphSummarizer(packagesOnly(), packagesOnly());
+            summarizer.traverseNodes(factory.getPackages().values());
+            packages = summarizer.getScopeFactory();
+
+            var out = new StringWriter();
+            try (var writer = new PrintWriter(out)) {
+                new XMLPrinter(writer).traverseNodes(factory.getPackages().values());
+            }
+            xml = out.toString();
+        }
+    }
+
+    /**
+     *  A graph for queries that modify it, reloaded before each call.
+     */
+    @State(Scope.Thread)
+    public static class FreshGraph {
+        private NodeFactory factory;
+
+        @Setup(Level.Invocation)
+        public void setUp(Graph graph) throws Exception {
+            factory = new NodeLoader(new NodeFactory(), false).load(new StringReader(graph.xml));
+        }
+    }
+
+    @Benchmark
+    public NodeFactory transitiveClosure(Graph graph) {
+        var startCriteria = new RegularExpressionSelectionCriteria(START);
+        var stopCriteria = new RegularExpressionSelectionCriteria("");
+
+        var engine = new TransitiveClosureEngine(graph.factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        engine.computeAllLayers();
+
+        return engine.getFactory();
+    }
+
+    /**
+     *  On the package-level graph, like <code>DependencyCycles</code> on the
+     *  output of <code>c2p</code>.
+     */
+    @Benchmark
+    public int cycleDetector(Graph graph) {
+        var detector = new CycleDetector();
+        detector.setMaximumCycleLength(MAXIMUM_CYCLE_LENGTH);
+        detector.traverseNodes(graph.packages.getPackages().values());
+
+        return detector.getCycles().size();
+    }
+
+    @Benchmark
+    public NodeFactory graphSummarizer(Graph graph) {
+        var summarizer = new GraphSummarizer(packagesOnly(), packagesOnly());
+        summarizer.traverseNodes(graph.factory.getPackages().values());
+
+        return summarizer.getScopeFactory();
+    }
+
+    @Benchmark
+    public NodeFactory linkMaximizer(FreshGraph graph) {
+        new LinkMaximizer().traverseNodes(graph.factory.getPackages().values());
+
+        return graph.factory;
+    }
+
+    private static RegularExpressionSelectionCriteria packagesOnly() {
+        var result = new RegularExpressionSelectionCriteria("//");
+        result.setMatchingClasses(false);
+        result.setMatchingFeatures(false);
+        return result;
+    }
+}
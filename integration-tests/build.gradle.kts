@@ -27,10 +27,33 @@ testing {
                 implementation(libs.jmock.junit4)
                 implementation(libs.jmock.imposters)
 
+                implementation(testFixtures(project(":lib")))
+
                 implementation(project("jarjardiff"))
                 implementation(project("metrics"))
             }
         }
+
+        // Time and memory budgets on large generated codebases.  Not part
+        // of "check"; run with "gradlew :integration-tests:scalingTest",
+        // and add "-PscalingTest.large=true" for the 500,000-class case.
+        val scalingTest by registering(JvmTestSuite::class) {
+            useJUnitJupiter()
+
+            dependencies {
+                implementation(project(":lib"))
+                implementation(testFixtures(project(":lib")))
+            }
+
+            targets {
+                all {
+                    testTask.configure {
+                        maxHeapSize = "6g"
+                        systemProperty("scalingTest.large", providers.gradleProperty("scalingTest.large").getOrElse("false"))
+                    }
+                }
+            }
+        }
     }
 }
 
@@ -0,0 +1,199 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.jeantessier.classreader.LoadListenerVisitorAdapter;
+import com.jeantessier.classreader.SyntheticCorpus;
+import com.jeantessier.classreader.TransientClassfileLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *  Extracts, queries, and searches for cycles in generated codebases of
+ *  increasing size.  Rather than fixed time budgets, which depend on the
+ *  machine, each step may only grow {@link #TIME_MARGIN} times faster than
+ *  the number of classes from one size to the next.  The heap that the
+ *  graph retains gets a budget per class, since it does not depend on the
+ *  machine.
+ *
+ *  <p>The 500,000-class case needs several gigabytes of heap and runs only
+ *  when the <code>scalingTest.large</code> system property is
+ *  <code>true</code>.</p>
+ */
+public class TestScaling {
+    /** Measured with 10,000 and 100,000 classes. */
+    private static final long MEASURED_BYTES_PER_CLASS = 4_900;
+
+    /** Retained heap may be 25% over the measured figure. */
+    private static final double HEAP_MARGIN = 1.25;
+
+    /** With 10 times the classes, a step may take up to 15 times as long. */
+    private static final double TIME_MARGIN = 1.5;
+
+    private static final int NB_CYCLES = 10;
+    private static final int DEPENDENCY_REACH = 500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void from10kTo100kClasses(TestReporter reporter) throws IOException, InterruptedException {
+        var small = measure(10_000, reporter);
+        var large = measure(100_000, reporter);
+
+        assertScales(small, large);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "scalingTest.large", matches = "true")
+    void from100kTo500kClasses(TestReporter reporter) throws IOException, InterruptedException {
+        var small = measure(100_000, reporter);
+        var large = measure(500_000, reporter);
+
+        assertScales(small, large);
+    }
+
+    private Measurement measure(int nbClasses, TestReporter reporter) throws IOException, InterruptedException {
+        var corpus = new SyntheticCorpus();
+        corpus.setNbClasses(nbClasses);
+        corpus.setNbCycles(NB_CYCLES);
+        corpus.setDependencyReach(DEPENDENCY_REACH);
+        var jarfile = corpus.generate(tempDir.resolve("corpus-" + nbClasses + ".jar"));
+
+        // Extraction
+        var heapBefore = usedHeap();
+        var start = System.nanoTime();
+
+        var factory = new NodeFactory();
+        var loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory)));
+        loader.load(List.of(jarfile.toString()));
+
+        var extractionNanos = System.nanoTime() - start;
+        assertEquals(nbClasses * corpus.getMethodsPerClass(), factory.getFeatures().size(), "features");
+
+        var retained = usedHeap() - heapBefore;
+        var budget = (long) (nbClasses * MEASURED_BYTES_PER_CLASS * HEAP_MARGIN);
+        reporter.publishEntry(nbClasses + " classes, retained bytes per class", String.valueOf(retained / nbClasses));
+        assertTrue(retained <= budget, "retained heap of " + retained / 1024 + " KB is over budget of " + budget / 1024 + " KB");
+
+        // Closure, from the class with the most upstream classes
+        var startCriteria = new RegularExpressionSelectionCriteria("/^" + corpus.getClassName(nbClasses - 1).replace(".", "\\.") + "\\./");
+        start = System.nanoTime();
+
+        var engine = new TransitiveClosureEngine(factory.getPackages().values(), startCriteria, new RegularExpressionSelectionCriteria(), new ClosureOutboundSelector());
+        engine.computeAllLayers();
+
+        var closureNanos = System.nanoTime() - start;
+        assertTrue(engine.getFactory().getFeatures().size() > corpus.getMethodsPerClass(), "closure went beyond the start class");
+
+        // Package cycles
+        start = System.nanoTime();
+
+        var summarizer = new GraphSummarizer(packagesOnly(), packagesOnly());
+        summarizer.traverseNodes(factory.getPackages().values());
+
+        var detector = new CycleDetector();
+        detector.setMaximumCycleLength(2);
+        detector.traverseNodes(summarizer.getScopeFactory().getPackages().values());
+
+        var cyclesNanos = System.nanoTime() - start;
+        assertFalse(detector.getCycles().isEmpty(), "injected cycles");
+        assertTrue(detector.getCycles().size() <= NB_CYCLES, "no more than the injected cycles");
+
+        var result = new Measurement(nbClasses, extractionNanos, closureNanos, cyclesNanos);
+        reporter.publishEntry(nbClasses + " classes, milliseconds", result.toString());
+        return result;
+    }
+
+    private static void assertScales(Measurement small, Measurement large) {
+        var limit = TIME_MARGIN * large.nbClasses() / small.nbClasses();
+
+        assertRatio("extraction", small.extractionNanos(), large.extractionNanos(), limit);
+        assertRatio("closure", small.closureNanos(), large.closureNanos(), limit);
+        assertRatio("cycle detection", small.cyclesNanos(), large.cyclesNanos(), limit);
+    }
+
+    private static void assertRatio(String step, long smallNanos, long largeNanos, double limit) {
+        var ratio = (double) largeNanos / smallNanos;
+        assertTrue(ratio <= limit, String.format("%s took %.1f times as long, more than the limit of %.1f", step, ratio, limit));
+    }
+
+    private static RegularExpressionSelectionCriteria packagesOnly() {
+        var result = new RegularExpressionSelectionCriteria("//");
+        result.setMatchingClasses(false);
+        result.setMatchingFeatures(false);
+        return result;
+    }
+
+    /**
+     *  Collects until the used heap stops shrinking, so that garbage left
+     *  over from an earlier step does not count against the graph.
+     */
+    private static long usedHeap() throws InterruptedException {
+        var memory = ManagementFactory.getMemoryMXBean();
+
+        var result = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            memory.gc();
+            Thread.sleep(50);
+
+            var used = memory.getHeapMemoryUsage().getUsed();
+            if (used >= result) {
+                break;
+            }
+            result = used;
+        }
+
+        return result;
+    }
+
+    private record Measurement(int nbClasses, long extractionNanos, long closureNanos, long cyclesNanos) {
+        public String toString() {
+            return String.format("extraction %d, closure %d, cycle detection %d", extractionNanos / 1_000_000, closureNanos / 1_000_000, cyclesNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.lang.ref.*;
+import java.nio.file.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestAggregatingClassfileLoaderWithSkeletons extends TestCase {
+    private static final Path CLASSES_DIR = Paths.get("build/classes/java/main");
+
+    private AggregatingClassfileLoader fullLoader;
+    private AggregatingClassfileLoader skeletonLoader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        fullLoader = new AggregatingClassfileLoader();
+        fullLoader.load(Collections.singleton(CLASSES_DIR.toString()));
+
+        skeletonLoader = new AggregatingClassfileLoader();
+        skeletonLoader.setSkeletonMode(true);
+        skeletonLoader.setRehydrationCacheSize(2);
+        skeletonLoader.load(Collections.singleton(CLASSES_DIR.toString()));
+    }
+
+    public void testKeepsSkeletons() {
+        assertEquals("class names", new ArrayList<>(fullLoader.getAllClassNames()), new ArrayList<>(skeletonLoader.getAllClassNames()));
+
+        skeletonLoader.getAllClassfiles().forEach(classfile -> assertTrue(classfile.getClassName(), classfile instanceof ClassfileSkeleton));
+    }
+
+    public void testSkeletonMatchesClassfile() {
+        for (var expected : fullLoader.getAllClassfiles()) {
+            var actual = skeletonLoader.getClassfile(expected.getClassName());
+
+            assertEquals("class name", expected.getClassName(), actual.getClassName());
+            assertEquals(expected.getClassName() + " package name", expected.getPackageName(), actual.getPackageName());
+            assertEquals(expected.getClassName() + " simple name", expected.getSimpleName(), actual.getSimpleName());
+            assertEquals(expected.getClassName() + " access flags", expected.getAccessFlags(), actual.getAccessFlags());
+            assertEquals(expected.getClassName() + " superclass", expected.getSuperclassName(), actual.getSuperclassName());
+            assertEquals(expected.getClassName() + " inner class", expected.isInnerClass(), actual.isInnerClass());
+            assertEquals(expected.getClassName() + " anonymous class", expected.isAnonymousClass(), actual.isAnonymousClass());
+            assertEquals(expected.getClassName() + " deprecated", expected.isDeprecated(), actual.isDeprecated());
+            assertEquals(expected.getClassName() + " generic", expected.isGeneric(), actual.isGeneric());
+            assertEquals(expected.getClassName() + " declaration", expected.getDeclaration(), actual.getDeclaration());
+            assertEquals(expected.getClassName() + " methods", expected.getAllMethods().size(), ((ClassfileSkeleton) actual).getMethods().size());
+            assertEquals(expected.getClassName() + " fields", expected.getAllFields().size(), ((ClassfileSkeleton) actual).getFields().size());
+        }
+    }
+
+    public void testRehydratesOnDemand() {
+        var skeleton = (ClassfileSkeleton) skeletonLoader.getClassfile("test");
+
+        var classfile = skeleton.getClassfile();
+
+        assertFalse("rehydrated", classfile instanceof ClassfileSkeleton);
+        assertSame("cached", classfile, skeleton.getClassfile());
+        assertSame("loader", skeletonLoader, classfile.getLoader());
+        assertEquals("methods", skeleton.getMethods().size(), skeleton.getAllMethods().size());
+    }
+
+    public void testBoundedCache() {
+        var skeleton = (ClassfileSkeleton) skeletonLoader.getClassfile("test");
+        var classfile = skeleton.getClassfile();
+
+        skeletonLoader.getAllClassfiles().stream()
+                .map(ClassfileSkeleton.class::cast)
+                .forEach(ClassfileSkeleton::getClassfile);
+
+        assertNotSame("evicted", classfile, skeleton.getClassfile());
+    }
+
+    public void testLocateDoesNotKeepRehydratedClassfiles() throws InterruptedException {
+        var skeleton = (ClassfileSkeleton) skeletonLoader.getClassfile("test");
+        var signature = fullLoader.getClassfile("test").getAllMethods().iterator().next().getSignature();
+        var classfile = new WeakReference<>(skeleton.locateMethod(signature).getClassfile());
+
+        skeletonLoader.getAllClassfiles().stream()
+                .map(ClassfileSkeleton.class::cast)
+                .forEach(ClassfileSkeleton::getClassfile);
+
+        for (int i = 0; i < 10 && classfile.get() != null; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        assertNull("rehydrated classfile still reachable", classfile.get());
+        assertEquals("located again", signature, skeleton.locateMethod(signature).getSignature());
+    }
+
+    public void testRejectsOtherDataInputs() throws IOException {
+        var loader = new AggregatingClassfileLoader();
+        loader.setSkeletonMode(true);
+
+        try (var in = new RandomAccessFile(CLASSES_DIR.resolve("test.class").toFile(), "r")) {
+            loader.load(in);
+            fail("Kept a skeleton from a RandomAccessFile");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+
+        assertNull("test", loader.getClassfile("test"));
+    }
+}
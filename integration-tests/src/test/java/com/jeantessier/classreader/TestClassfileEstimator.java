@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestClassfileEstimator extends TestCase {
+    private static final Path TEST_DIR = Paths.get("jarjardiff/old/build/archives");
+    public static final String TEST_FILENAME = Paths.get("build/classes/java/main/test.class").toString();
+    public static final String TEST_DIRNAME = Paths.get("build/classes/java/main/testpackage").toString();
+
+    private ClassfileEstimator estimator;
+    private ClassfileScanner scanner;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        estimator = new ClassfileEstimator();
+        scanner = new ClassfileScanner();
+    }
+
+    public void testOneFile() {
+        String filename = TEST_FILENAME;
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        estimator.scan(Collections.singleton(filename));
+
+        assertEquals("Number of files", 1, estimator.getNbFiles());
+        assertEquals("Number of classes", 1, estimator.getNbClasses());
+    }
+
+    public void testDirectory() {
+        assertSameAsScanner(TEST_DIRNAME);
+    }
+
+    public void testOneLevelZip() {
+        assertSameAsScanner(TEST_DIR.resolve("onelevel.zip").toString());
+    }
+
+    public void testOneLevelJar() {
+        assertSameAsScanner(TEST_DIR.resolve("onelevel.jar").toString());
+    }
+
+    public void testOneLevelMiscellaneous() {
+        assertSameAsScanner(TEST_DIR.resolve("onelevel.mis").toString());
+    }
+
+    public void testTwoLevelZip() {
+        assertNestedArchivesCountAsFiles(TEST_DIR.resolve("twolevel.zip").toString());
+    }
+
+    public void testTwoLevelJar() {
+        assertNestedArchivesCountAsFiles(TEST_DIR.resolve("twolevel.jar").toString());
+    }
+
+    public void testTwoLevelMiscellaneous() {
+        assertNestedArchivesCountAsFiles(TEST_DIR.resolve("twolevel.mis").toString());
+    }
+
+    public void testMissingFile() {
+        estimator.scan(Collections.singleton(Paths.get("build/classes/java/main/bogus/test.class").toString()));
+
+        assertEquals("Number of files", 0, estimator.getNbFiles());
+        assertEquals("Number of classes", 0, estimator.getNbClasses());
+    }
+
+    private void assertSameAsScanner(String filename) {
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        estimator.scan(Collections.singleton(filename));
+        scanner.load(Collections.singleton(filename));
+
+        assertEquals("Number of files", scanner.getNbFiles(), estimator.getNbFiles());
+        assertEquals("Number of classes", scanner.getNbClasses(), estimator.getNbClasses());
+    }
+
+    private void assertNestedArchivesCountAsFiles(String filename) {
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        estimator.scan(Collections.singleton(filename));
+        scanner.load(Collections.singleton(filename));
+
+        assertTrue("Number of files", estimator.getNbFiles() > 0);
+        assertTrue("Number of files", estimator.getNbFiles() < scanner.getNbFiles());
+        assertEquals("Number of classes", 0, estimator.getNbClasses());
+    }
+}
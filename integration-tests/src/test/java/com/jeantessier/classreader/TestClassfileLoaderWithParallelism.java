@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+public class TestClassfileLoaderWithParallelism extends TestClassfileLoaderBase {
+    private AggregatingClassfileLoader loader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        loader = new AggregatingClassfileLoader();
+        loader.setParallelism(4);
+        loader.addLoadListener(this);
+    }
+
+    public void testDefaultParallelism() {
+        assertEquals("parallelism", 1, new TransientClassfileLoader().getParallelism());
+    }
+
+    public void testInvalidParallelism() {
+        try {
+            loader.setParallelism(0);
+            fail("Accepted parallelism of 0");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testTwoLevelJar() {
+        String filename = TWOLEVEL_JAR;
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        loader.load(Collections.singleton(filename));
+
+        assertEquals("Begin Session",    1, getBeginSessionEvents().size());
+        assertEquals("Begin Group",      3, getBeginGroupEvents().size());
+        assertEquals("Begin File",      35, getBeginFileEvents().size());
+        assertEquals("Begin Classfile", 14, getBeginClassfileEvents().size());
+        assertEquals("End Classfile",   14, getEndClassfileEvents().size());
+        assertEquals("End File",        35, getEndFileEvents().size());
+        assertEquals("End Group",        3, getEndGroupEvents().size());
+        assertEquals("End Session",      1, getEndSessionEvents().size());
+
+        assertEquals("Classfiles", 14, loader.getAllClassfiles().size());
+    }
+
+    public void testSameOrderAsSequentialLoading() {
+        String filename = ONELEVEL_JAR;
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        var sequentialLoader = new AggregatingClassfileLoader();
+        var sequentialEvents = new LinkedList<LoadEvent>();
+        sequentialLoader.addLoadListener(new LoadListener() {
+            public void endClassfile(LoadEvent event) {
+                sequentialEvents.add(event);
+            }
+        });
+        sequentialLoader.load(Collections.singleton(filename));
+
+        loader.load(Collections.singleton(filename));
+
+        assertEquals("End Classfile", sequentialEvents.size(), getEndClassfileEvents().size());
+        for (int i = 0; i < sequentialEvents.size(); i++) {
+            var expected = sequentialEvents.get(i);
+            var actual = getEndClassfileEvents().get(i);
+
+            assertEquals("group of event " + i, expected.getGroupName(), actual.getGroupName());
+            assertEquals("filename of event " + i, expected.getFilename(), actual.getFilename());
+            assertEquals("class of event " + i, expected.getClassfile().getClassName(), actual.getClassfile().getClassName());
+        }
+    }
+
+    public void testClassfileIsRegisteredBeforeListenersAreCalled() {
+        String filename = ONELEVEL_JAR;
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        var unregistered = new LinkedList<String>();
+        loader.addLoadListener(new LoadListener() {
+            public void endClassfile(LoadEvent event) {
+                if (loader.getClassfile(event.getClassfile().getClassName()) != event.getClassfile()) {
+                    unregistered.add(event.getClassfile().getClassName());
+                }
+            }
+        });
+
+        loader.load(Collections.singleton(filename));
+
+        assertTrue("Not registered: " + unregistered, unregistered.isEmpty());
+    }
+}
@@ -98,6 +98,25 @@ public class TestDeprecationPrinter extends TestCase {
         assertEquals("Classpath " + entries, 8, entries.size());
     }
 
+    public void testListenerBehaviorWithPrefilter() throws IOException {
+        var classfiles = new ArrayList<String>();
+
+        var prefilteringLoader = new TransientClassfileLoader();
+        prefilteringLoader.setPrefilter(DeprecationPrinter.PREFILTER);
+        prefilteringLoader.addLoadListener(new LoadListenerVisitorAdapter(printer));
+        prefilteringLoader.addLoadListener(new LoadListenerBase() {
+            public void endClassfile(LoadEvent event) {
+                classfiles.add(event.getClassfile().getClassName());
+            }
+        });
+        prefilteringLoader.load(NEW_CLASSPATH);
+
+        var entries = parse(writer.toString());
+
+        assertEquals("Classpath " + entries, 8, entries.size());
+        assertEquals("Parsed classes", Set.of("ModifiedPackage.DeprecatedClass", "ModifiedPackage.DeprecatedInterface", "ModifiedPackage.ModifiedClass", "ModifiedPackage.ModifiedInterface"), new HashSet<>(classfiles));
+    }
+
     private Collection<String> parse(String text) {
         return Set.of(text.split("\n"));
     }
@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.util.*;
 
 public class TestJarClassfileLoader extends TestClassfileLoaderBase {
     private ClassfileLoader loader;
@@ -116,4 +117,30 @@ public class TestJarClassfileLoader extends TestClassfileLoaderBase {
 
         assertEquals("Group size", 32, getBeginGroupEvents().getFirst().getSize());
     }
+
+    public void testLoadInputStreamOnlyKeepsContentOfLoadedEntries() throws IOException {
+        String filename = ONELEVEL_JAR;
+        assertTrue(filename + " missing", new File(filename).exists());
+
+        var contentLengths = new HashMap<String, Integer>();
+        ClassfileLoader eventSource = new TransientClassfileLoader() {
+            protected void load(String entryName, InputStream in) {
+                try {
+                    var bytes = in.readAllBytes();
+                    contentLengths.put(entryName, bytes.length);
+                    super.load(entryName, new ByteArrayInputStream(bytes));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+        eventSource.addLoadListener(this);
+
+        new JarClassfileLoader(eventSource).load(filename, new FileInputStream(filename));
+
+        assertEquals("End Classfile", 14, getEndClassfileEvents().size());
+        assertTrue("class content", contentLengths.get("ModifiedPackage/ModifiedClass.class") > 0);
+        assertEquals("manifest content", 0, (int) contentLengths.get("META-INF/MANIFEST.MF"));
+        assertEquals("source content", 0, (int) contentLengths.get("ModifiedPackage/DeprecatedClass.java"));
+    }
 }
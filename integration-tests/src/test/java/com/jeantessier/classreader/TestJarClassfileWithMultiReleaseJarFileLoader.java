@@ -127,6 +127,42 @@ public class TestJarClassfileWithMultiReleaseJarFileLoader extends TestClassfile
         assertEvents("test.class");
     }
 
+    public void testInputStreamNoTargetJDK_loadsHighestVersionAvailable() throws IOException {
+        ClassfileLoader eventSource = new TransientClassfileLoader();
+        eventSource.addLoadListener(this);
+        var loader = new JarClassfileLoader(eventSource);
+
+        try (var in = new FileInputStream(multiReleaseJarFileName)) {
+            loader.load(multiReleaseJarFileName, in);
+        }
+
+        assertEvents("META-INF/versions/22/test.class");
+    }
+
+    public void testInputStreamWithTargetJDK_loadsUpToThatVersion() throws IOException {
+        ClassfileLoader eventSource = new TransientClassfileLoader();
+        eventSource.addLoadListener(this);
+        var loader = new JarClassfileLoader(eventSource, 19);
+
+        try (var in = new FileInputStream(multiReleaseJarFileName)) {
+            loader.load(multiReleaseJarFileName, in);
+        }
+
+        assertEvents("META-INF/versions/17/test.class");
+    }
+
+    public void testInputStreamWithAbsentTargetJDK_loadsDefaultVersion() throws IOException {
+        ClassfileLoader eventSource = new TransientClassfileLoader();
+        eventSource.addLoadListener(this);
+        var loader = new JarClassfileLoader(eventSource, 8);
+
+        try (var in = new FileInputStream(multiReleaseJarFileName)) {
+            loader.load(multiReleaseJarFileName, in);
+        }
+
+        assertEvents("test.class");
+    }
+
     private void assertEvents(String expectedClassfileFilename) {
         assertEquals("Begin Session", 0, getBeginSessionEvents().size());
         assertEquals("End Session", 0, getEndSessionEvents().size());
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+
+public class TestRuntimeImageClassfileLoader extends TestClassfileLoaderBase {
+    private AggregatingClassfileLoader eventSource;
+    private ClassfileLoader loader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        eventSource = new AggregatingClassfileLoader();
+        eventSource.addLoadListener(this);
+        loader = new RuntimeImageClassfileLoader(eventSource);
+    }
+
+    public void testLoadModule() {
+        loader.load("jrt:/java.compiler");
+
+        assertEquals("Begin Group", 1, getBeginGroupEvents().size());
+        assertEquals("Group name", "jrt:/java.compiler", getBeginGroupEvents().getFirst().getGroupName());
+        assertEquals("Group size", -1, getBeginGroupEvents().getFirst().getSize());
+        assertEquals("End Group", 1, getEndGroupEvents().size());
+
+        assertTrue("Begin Classfile", getBeginClassfileEvents().size() > 0);
+        assertEquals("End Classfile", getBeginClassfileEvents().size(), getEndClassfileEvents().size());
+        assertEquals("End File", getBeginFileEvents().size(), getEndFileEvents().size());
+
+        assertNotNull("javax.lang.model.element.Element", eventSource.getClassfile("javax.lang.model.element.Element"));
+        assertEquals("Classfile name", "jrt:/java.compiler/javax/lang/model/element/Element.class", getEndClassfileEvents().stream().filter(event -> event.getClassfile().getClassName().equals("javax.lang.model.element.Element")).findAny().orElseThrow().getFilename());
+    }
+
+    public void testLoadUnknownModule() {
+        loader.load("jrt:/no.such.module");
+
+        assertEquals("Begin Group",     0, getBeginGroupEvents().size());
+        assertEquals("Begin Classfile", 0, getBeginClassfileEvents().size());
+    }
+
+    public void testLoadThroughEventSource() {
+        eventSource.load(List.of("jrt:/java.base"));
+
+        assertEquals("Begin Session", 1, getBeginSessionEvents().size());
+        assertEquals("Group name", "jrt:/java.base", getBeginGroupEvents().getFirst().getGroupName());
+        assertNotNull("java.lang.Object", eventSource.getClassfile("java.lang.Object"));
+        assertEquals("End Session", 1, getEndSessionEvents().size());
+    }
+
+    public void testLoadThroughEventSourceWithParallelism() {
+        eventSource.setParallelism(4);
+
+        eventSource.load(List.of("jrt:/java.compiler"));
+
+        assertEquals("Group name", "jrt:/java.compiler", getBeginGroupEvents().getFirst().getGroupName());
+        assertEquals("End Classfile", getBeginClassfileEvents().size(), getEndClassfileEvents().size());
+        assertNotNull("javax.lang.model.element.Element", eventSource.getClassfile("javax.lang.model.element.Element"));
+    }
+}
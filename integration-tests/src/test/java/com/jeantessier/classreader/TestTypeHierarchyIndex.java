@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.nio.file.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestTypeHierarchyIndex extends TestCase {
+    public static final String TEST_DIRNAME = Paths.get("build/classes/java/main/sloc").toString();
+    public static final String OTHER_FILENAME = Paths.get("build/classes/java/main/test.class").toString();
+
+    private ClassfileLoader loader;
+    private TypeHierarchyIndex sut;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        loader = new AggregatingClassfileLoader();
+        loader.load(Collections.singleton(TEST_DIRNAME));
+
+        sut = loader.getTypeHierarchy();
+    }
+
+    public void testSupertypes() {
+        assertEquals("sloc.TestClass", List.of("sloc.TestAbstractClass"), sut.getSupertypes("sloc.TestClass"));
+        assertEquals("sloc.TestAbstractClass", List.of("java.lang.Object", "sloc.TestInterface"), sut.getSupertypes("sloc.TestAbstractClass"));
+        assertEquals("unknown class", List.of(), sut.getSupertypes("java.lang.Object"));
+    }
+
+    public void testSubtypes() {
+        assertEquals("sloc.TestAbstractClass", List.of("sloc.TestClass", "sloc.TestSuperClass"), new ArrayList<>(sut.getSubtypes("sloc.TestAbstractClass")));
+        assertEquals("sloc.TestInterface", List.of("sloc.TestAbstractClass"), new ArrayList<>(sut.getSubtypes("sloc.TestInterface")));
+        assertTrue("sloc.TestClass", sut.getSubtypes("sloc.TestClass").isEmpty());
+    }
+
+    public void testDepthOfInheritance() {
+        assertEquals("sloc.TestClass", 3, sut.getDepthOfInheritance("sloc.TestClass"));
+        assertEquals("sloc.TestAbstractClass", 2, sut.getDepthOfInheritance("sloc.TestAbstractClass"));
+        assertEquals("unknown class", 1, sut.getDepthOfInheritance("java.lang.Object"));
+    }
+
+    public void testLocateMethodFromSuperclass() {
+        var method = sut.locateMethod("sloc.TestClass", "method1()");
+
+        assertNotNull("method1()", method);
+        assertEquals("declaring class", "sloc.TestAbstractClass", method.getClassfile().getClassName());
+    }
+
+    public void testLocateMethodFromInterface() {
+        var method = sut.locateMethod("sloc.TestSuperClass", "method2()");
+
+        assertNotNull("method2()", method);
+        assertEquals("declaring class", "sloc.TestInterface", method.getClassfile().getClassName());
+    }
+
+    public void testLocateMissingMethod() {
+        assertNull("missing method", sut.locateMethod("sloc.TestClass", "method3()"));
+        assertNull("unknown class", sut.locateMethod("java.lang.Object", "toString()"));
+    }
+
+    public void testLocateMethodIsRemembered() {
+        var classfile = loader.getClassfile("sloc.TestClass");
+
+        assertSame("same answer", sut.locateMethod(classfile, "method1()"), sut.locateMethod(classfile, "method1()"));
+        assertSame("through Classfile", sut.locateMethod(classfile, "method1()"), classfile.locateMethod("method1()"));
+    }
+
+    public void testSharedUntilLoaderChanges() {
+        assertSame("same loader", sut, loader.getTypeHierarchy());
+
+        loader.load(Collections.singleton(OTHER_FILENAME));
+
+        assertNotSame("after loading more classes", sut, loader.getTypeHierarchy());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.nio.file.*;
+import java.util.*;
+
+import junit.framework.TestCase;
+
+import com.jeantessier.classreader.*;
+
+import static com.jeantessier.dependency.GraphDescription.*;
+
+public class TestCachingDependencyCollector extends TestCase {
+    private static final Path CLASSES_DIR = Paths.get("build/classes/java/main");
+
+    private Path cacheFile;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        cacheFile = Files.createTempFile(getName(), ".cache");
+        Files.delete(cacheFile);
+    }
+
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(cacheFile);
+
+        super.tearDown();
+    }
+
+    public void testColdAndWarmCacheMatchCollector() throws Exception {
+        var filterCriteria = new RegularExpressionSelectionCriteria("//");
+        filterCriteria.setGlobalExcludes("/^java.util/");
+
+        var expectedFactory = new NodeFactory();
+        var loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(expectedFactory, filterCriteria)));
+        loader.load(Collections.singleton(CLASSES_DIR.toString()));
+
+        var coldCounter = new CachedClassfileCounter();
+        var coldFactory = loadWithCache(filterCriteria, coldCounter, 1);
+        assertEquals("cached classfiles on cold cache", 0, coldCounter.cached);
+        assertTrue("parsed classfiles on cold cache", coldCounter.parsed > 0);
+        assertGraphs(expectedFactory, coldFactory);
+
+        var warmCounter = new CachedClassfileCounter();
+        var warmFactory = loadWithCache(filterCriteria, warmCounter, 1);
+        assertEquals("parsed classfiles on warm cache", 0, warmCounter.parsed);
+        assertEquals("cached classfiles on warm cache", coldCounter.parsed, warmCounter.cached);
+        assertGraphs(expectedFactory, warmFactory);
+
+        var parallelCounter = new CachedClassfileCounter();
+        var parallelFactory = loadWithCache(filterCriteria, parallelCounter, 4);
+        assertEquals("cached classfiles with parallelism", coldCounter.parsed, parallelCounter.cached);
+        assertGraphs(expectedFactory, parallelFactory);
+    }
+
+    public void testCacheIsIndependentOfFilter() throws Exception {
+        loadWithCache(new RegularExpressionSelectionCriteria("//"), new CachedClassfileCounter(), 1);
+
+        var filterCriteria = new RegularExpressionSelectionCriteria("//");
+        filterCriteria.setMatchingFeatures(false);
+
+        var expectedFactory = new NodeFactory();
+        var loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(expectedFactory, filterCriteria)));
+        loader.load(Collections.singleton(CLASSES_DIR.toString()));
+
+        var counter = new CachedClassfileCounter();
+        var actualFactory = loadWithCache(filterCriteria, counter, 1);
+        assertEquals("parsed classfiles", 0, counter.parsed);
+        assertGraphs(expectedFactory, actualFactory);
+    }
+
+    private NodeFactory loadWithCache(SelectionCriteria filterCriteria, LoadListener listener, int parallelism) throws Exception {
+        var cache = new DependencyCache(cacheFile);
+        var factory = new NodeFactory();
+
+        var loader = new TransientClassfileLoader();
+        loader.setParallelism(parallelism);
+        loader.setClassfileCache(cache);
+        loader.addLoadListener(new CachingDependencyCollector(factory, filterCriteria, cache));
+        loader.addLoadListener(listener);
+        loader.load(Collections.singleton(CLASSES_DIR.toString()));
+
+        cache.save();
+
+        return factory;
+    }
+
+    private void assertGraphs(NodeFactory expectedFactory, NodeFactory actualFactory) {
+        assertEquals("packages", describe(expectedFactory.getPackages()), describe(actualFactory.getPackages()));
+        assertEquals("classes", describe(expectedFactory.getClasses()), describe(actualFactory.getClasses()));
+        assertEquals("features", describe(expectedFactory.getFeatures()), describe(actualFactory.getFeatures()));
+    }
+
+    private static class CachedClassfileCounter implements LoadListener {
+        private int parsed = 0;
+        private int cached = 0;
+
+        public void endClassfile(LoadEvent event) {
+            parsed++;
+        }
+
+        public void cachedClassfile(LoadEvent event) {
+            cached++;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+import junit.framework.TestCase;
+
+import com.jeantessier.classreader.*;
+
+import static com.jeantessier.dependency.GraphDescription.*;
+
+public class TestConstantPoolDependencyCollector extends TestCase {
+    private static final Path CLASSES_DIR = Paths.get("build/classes/java/main");
+
+    public void testParityWithPackageAndClassFilter() {
+        assertParity(() -> {
+            var filterCriteria = new RegularExpressionSelectionCriteria("//");
+            filterCriteria.setMatchingFeatures(false);
+            return filterCriteria;
+        });
+    }
+
+    public void testParityWithPackageFilter() {
+        assertParity(() -> {
+            var filterCriteria = new RegularExpressionSelectionCriteria("//");
+            filterCriteria.setMatchingClasses(false);
+            filterCriteria.setMatchingFeatures(false);
+            return filterCriteria;
+        });
+    }
+
+    public void testParityWithExcludes() {
+        assertParity(() -> {
+            var filterCriteria = new RegularExpressionSelectionCriteria("//");
+            filterCriteria.setMatchingFeatures(false);
+            filterCriteria.setGlobalExcludes("/^java.util/");
+            return filterCriteria;
+        });
+    }
+
+    public void testParityWithFeatureFilter() {
+        assertParity(() -> new RegularExpressionSelectionCriteria("//"));
+    }
+
+    private void assertParity(Supplier<SelectionCriteria> filterCriteriaSupplier) {
+        var expectedFactory = new NodeFactory();
+        load(new CodeDependencyCollector(expectedFactory, filterCriteriaSupplier.get()));
+
+        var actualFactory = new NodeFactory();
+        load(new ConstantPoolDependencyCollector(actualFactory, filterCriteriaSupplier.get()));
+
+        assertTrue("Empty graph", expectedFactory.getClasses().size() > 1);
+
+        assertEquals("packages", describe(expectedFactory.getPackages()), describe(actualFactory.getPackages()));
+        assertEquals("classes", describe(expectedFactory.getClasses()), describe(actualFactory.getClasses()));
+        assertEquals("features", describe(expectedFactory.getFeatures()), describe(actualFactory.getFeatures()));
+    }
+
+    private void load(CodeDependencyCollector collector) {
+        var loader = new TransientClassfileLoader(AttributeParsingProfile.DEPENDENCIES);
+        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+        loader.load(Collections.singleton(CLASSES_DIR.toString()));
+    }
+}
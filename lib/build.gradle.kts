@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("java-test-fixtures")
     id("jvm-test-suite")
     id("jacoco")
 }
@@ -35,15 +35,30 @@ package com.jeantessier.classreader;
 import com.jeantessier.classreader.impl.DefaultClassfileFactory;
 
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
 public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
+    public static final int DEFAULT_REHYDRATION_CACHE_SIZE = 1_000;
+
     private final Map<String, Classfile> classfiles = new TreeMap<>();
 
+    private boolean skeletonMode;
+    private int rehydrationCacheSize = DEFAULT_REHYDRATION_CACHE_SIZE;
+    private final Map<Classfile, byte[]> pendingContents = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<ClassfileSkeleton, Classfile> rehydratedClassfiles = new LinkedHashMap<>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<ClassfileSkeleton, Classfile> eldest) {
+            return size() > rehydrationCacheSize;
+        }
+    };
+
     public AggregatingClassfileLoader() {
         this(new DefaultClassfileFactory());
     }
@@ -52,14 +67,51 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
         super(factory);
     }
 
+    public AggregatingClassfileLoader(AttributeParsingProfile profile) {
+        this(new DefaultClassfileFactory(profile));
+    }
+
     public AggregatingClassfileLoader(ClassfileLoaderDispatcher dispatcher) {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public AggregatingClassfileLoader(AttributeParsingProfile profile, ClassfileLoaderDispatcher dispatcher) {
+        this(new DefaultClassfileFactory(profile), dispatcher);
+    }
+
     private AggregatingClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
 
+    public boolean isSkeletonMode() {
+        return skeletonMode;
+    }
+
+    /**
+     *  <p>When on, the loader only keeps a {@link ClassfileSkeleton} of each
+     *  class instead of the fully parsed {@link Classfile}.  Listeners still
+     *  get the full classfile as it is loaded.</p>
+     *
+     *  <p>Skeletons parse their class again whenever something needs more
+     *  than names and access flags.  The last few classfiles parsed this way
+     *  are cached; see {@link #setRehydrationCacheSize(int)}.</p>
+     */
+    public void setSkeletonMode(boolean skeletonMode) {
+        this.skeletonMode = skeletonMode;
+    }
+
+    public int getRehydrationCacheSize() {
+        return rehydrationCacheSize;
+    }
+
+    public void setRehydrationCacheSize(int rehydrationCacheSize) {
+        if (rehydrationCacheSize < 1) {
+            throw new IllegalArgumentException("rehydration cache size must be at least 1, got " + rehydrationCacheSize);
+        }
+
+        this.rehydrationCacheSize = rehydrationCacheSize;
+    }
+
     public Classfile getClassfile(String name) {
         return classfiles.get(name);
     }
@@ -73,10 +125,82 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
     }
 
     protected Classfile load(DataInput in) throws IOException {
-        var result = getFactory().create(this, in);
+        var result = parse(in);
+
+        if (result != null) {
+            register(result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  In skeleton mode, also holds on to the bytecode so the classfile
+     *  can be turned into a skeleton once it is registered.  This needs a
+     *  {@link ByteBufferDataInput} or a {@link DataInputStream}, which is
+     *  what the loaders pass in.
+     *
+     *  @throws IllegalArgumentException in skeleton mode, for any other
+     *          kind of {@link DataInput}.
+     */
+    protected Classfile parse(DataInput in) throws IOException {
+        if (!isSkeletonMode()) {
+            return super.parse(in);
+        }
+
+        byte[] content;
+        if (in instanceof ByteBufferDataInput byteBufferDataInput) {
+            var remaining = byteBufferDataInput.remaining();
+            content = new byte[remaining.remaining()];
+            remaining.get(content);
+        } else if (in instanceof DataInputStream dataInputStream) {
+            content = dataInputStream.readAllBytes();
+        } else {
+            throw new IllegalArgumentException("Cannot keep a skeleton from a " + in.getClass().getName() + ", only from a ByteBufferDataInput or a DataInputStream");
+        }
 
-        classfiles.put(result.getClassName(), result);
+        var result = super.parse(new ByteBufferDataInput(content));
+        if (result != null) {
+            pendingContents.put(result, content);
+        }
 
         return result;
     }
+
+    protected void register(Classfile classfile) {
+        var content = pendingContents.remove(classfile);
+        if (content != null) {
+            classfiles.put(classfile.getClassName(), new ClassfileSkeleton(this, classfile, content));
+        } else {
+            classfiles.put(classfile.getClassName(), classfile);
+        }
+
+        invalidateTypeHierarchy();
+    }
+
+    /**
+     *  Parses outside the lock, so threads can rehydrate different classes
+     *  at the same time.  If two threads race on the same class, the first
+     *  one to finish wins and both get its classfile.
+     */
+    Classfile rehydrate(ClassfileSkeleton skeleton) {
+        synchronized (rehydratedClassfiles) {
+            var result = rehydratedClassfiles.get(skeleton);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        Classfile classfile;
+        try {
+            classfile = getFactory().create(this, new ByteBufferDataInput(skeleton.getContent()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot parse " + skeleton.getClassName() + " again", ex);
+        }
+
+        synchronized (rehydratedClassfiles) {
+            var result = rehydratedClassfiles.putIfAbsent(skeleton, classfile);
+            return result != null ? result : classfile;
+        }
+    }
 }
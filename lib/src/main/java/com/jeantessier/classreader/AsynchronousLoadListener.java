@@ -0,0 +1,228 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.concurrent.*;
+
+/**
+ *  <p>Hands events to another listener on a thread of its own, so that a
+ *  slow listener does not hold up loading.  Events go through a bounded
+ *  queue: when the listener falls too far behind, the loading thread waits
+ *  for it to catch up.</p>
+ *
+ *  <p>The decorated listener still gets every event in the order it was
+ *  fired, so groups, files, and classfiles stay properly nested.  Loading
+ *  only ends once it has processed everything, since
+ *  {@link #endSession(LoadEvent)} waits for the queue to drain.</p>
+ *
+ *  <p>If the decorated listener throws an exception, it gets no more events
+ *  and the exception is thrown back on the loading thread, wrapped in a
+ *  {@link CompletionException}, by the next event, by {@link #flush()}, or
+ *  at the latest by {@link #endSession(LoadEvent)}.</p>
+ *
+ *  <p>Classfiles are shared with the loading thread and with any other
+ *  asynchronous listener, so listeners should only read them.</p>
+ */
+public class AsynchronousLoadListener extends LoadListenerDecorator {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private Thread worker;
+    private volatile Throwable failure;
+    private boolean reported;
+
+    public AsynchronousLoadListener(LoadListener delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public AsynchronousLoadListener(LoadListener delegate, int capacity) {
+        super(delegate);
+
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public void beginSession(LoadEvent event) {
+        // Starts afresh if the previous session was cut short by a failure.
+        stop();
+        failure = null;
+        reported = false;
+
+        submit(() -> super.beginSession(event));
+    }
+
+    public void beginGroup(LoadEvent event) {
+        submit(() -> super.beginGroup(event));
+    }
+
+    public void beginFile(LoadEvent event) {
+        submit(() -> super.beginFile(event));
+    }
+
+    public void beginClassfile(LoadEvent event) {
+        submit(() -> super.beginClassfile(event));
+    }
+
+    public void endClassfile(LoadEvent event) {
+        submit(() -> super.endClassfile(event));
+    }
+
+    public void cachedClassfile(LoadEvent event) {
+        submit(() -> super.cachedClassfile(event));
+    }
+
+    public void endFile(LoadEvent event) {
+        submit(() -> super.endFile(event));
+    }
+
+    public void endGroup(LoadEvent event) {
+        submit(() -> super.endGroup(event));
+    }
+
+    public void endSession(LoadEvent event) {
+        submit(() -> super.endSession(event));
+        stop();
+        checkFailure();
+    }
+
+    /**
+     *  Waits until the decorated listener has processed every event so far.
+     *
+     *  @throws CompletionException if the decorated listener failed
+     */
+    public synchronized void flush() {
+        if (worker != null) {
+            var marker = new Marker(false);
+            put(marker);
+            marker.await();
+        }
+
+        checkFailure();
+    }
+
+    private synchronized void submit(Runnable delivery) {
+        checkFailure();
+
+        if (worker == null) {
+            worker = new Thread(this::deliverEvents, "AsynchronousLoadListener");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        put(delivery);
+    }
+
+    private synchronized void stop() {
+        if (worker != null) {
+            var marker = new Marker(true);
+            put(marker);
+            marker.await();
+            worker = null;
+        }
+    }
+
+    private void deliverEvents() {
+        while (true) {
+            Runnable delivery;
+            try {
+                delivery = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+
+            if (delivery instanceof Marker marker) {
+                marker.run();
+                if (marker.isLast()) {
+                    return;
+                }
+            } else if (failure == null) {
+                try {
+                    delivery.run();
+                } catch (Throwable ex) {
+                    failure = ex;
+                }
+            }
+        }
+    }
+
+    private void put(Runnable delivery) {
+        try {
+            queue.put(delivery);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     *  Each failure is only thrown once.  The decorated listener gets no
+     *  more events until the next session.
+     */
+    private void checkFailure() {
+        if (failure != null && !reported) {
+            reported = true;
+            throw new CompletionException(failure);
+        }
+    }
+
+    /**
+     *  Lets the loading thread wait until the worker reaches a given point
+     *  in the queue.  Markers are processed even after a failure.
+     */
+    private static class Marker implements Runnable {
+        private final boolean last;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        Marker(boolean last) {
+            this.last = last;
+        }
+
+        boolean isLast() {
+            return last;
+        }
+
+        public void run() {
+            latch.countDown();
+        }
+
+        void await() {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+
+import static com.jeantessier.classreader.AttributeType.*;
+
+/**
+ *  <p>Tells the parser how much of each attribute to read.  Tools that only
+ *  look at part of a classfile can avoid decoding the rest.</p>
+ *
+ *  <p>A <i>deferred</i> attribute is still created, but keeps its raw bytes
+ *  and only decodes them the first time its content is accessed.  A
+ *  <i>skipped</i> attribute is not created at all.</p>
+ */
+public enum AttributeParsingProfile {
+    /**
+     *  Decodes everything, for tools like ClassReader that show it all.
+     */
+    FULL(EnumSet.noneOf(AttributeType.class), EnumSet.noneOf(AttributeType.class)),
+
+    /**
+     *  Keeps every attribute so they can be counted, but defers the debugging
+     *  tables whose content metrics never look at.
+     */
+    METRICS(EnumSet.of(STACK_MAP_TABLE, LINE_NUMBER_TABLE, LOCAL_VARIABLE_TABLE, LOCAL_VARIABLE_TYPE_TABLE), EnumSet.noneOf(AttributeType.class)),
+
+    /**
+     *  Skips the debugging attributes, which never contribute dependencies.
+     *  Stack map frames name classes, so they are still parsed.
+     */
+    DEPENDENCIES(EnumSet.noneOf(AttributeType.class), EnumSet.of(SOURCE_DEBUG_EXTENSION, LINE_NUMBER_TABLE, LOCAL_VARIABLE_TABLE, LOCAL_VARIABLE_TYPE_TABLE));
+
+    private final Set<AttributeType> deferredAttributeTypes;
+    private final Set<AttributeType> skippedAttributeTypes;
+
+    AttributeParsingProfile(Set<AttributeType> deferredAttributeTypes, Set<AttributeType> skippedAttributeTypes) {
+        this.deferredAttributeTypes = deferredAttributeTypes;
+        this.skippedAttributeTypes = skippedAttributeTypes;
+    }
+
+    public boolean isDeferred(AttributeType attributeType) {
+        return deferredAttributeTypes.contains(attributeType);
+    }
+
+    public boolean isSkipped(AttributeType attributeType) {
+        return skippedAttributeTypes.contains(attributeType);
+    }
+}
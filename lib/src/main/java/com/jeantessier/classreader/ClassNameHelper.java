@@ -32,13 +32,16 @@
 
 package com.jeantessier.classreader;
 
-import org.apache.oro.text.perl.*;
+import com.jeantessier.text.*;
 
+/**
+ * Converts internal class names and type descriptors to Java names.  The
+ * results go through {@link SymbolTable#getInstance()}, so equal names in use
+ * at the same time are the same <code>String</code> instance.
+ */
 public class ClassNameHelper {
-    public static final Perl5Util perl = new Perl5Util();
-
     public static String path2ClassName(String path) {
-        return perl.substitute("s/\\//./g", path);
+        return SymbolTable.getInstance().intern(path.replace('/', '.'));
     }
 
     public static String convertClassName(String type) {
@@ -47,7 +50,7 @@ public class ClassNameHelper {
         if (type.charAt(0) == 'L' && type.indexOf(';') > 0) {
             result = path2ClassName(type.substring(1, type.indexOf(';')));
         } else if (type.charAt(0) == '[') {
-            result = convertClassName(type.substring(1)) + "[]";
+            result = SymbolTable.getInstance().intern(convertClassName(type.substring(1)) + "[]");
         } else {
             result = path2ClassName(type);
         }
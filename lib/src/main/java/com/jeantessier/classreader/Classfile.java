@@ -62,11 +62,15 @@ public interface Classfile extends Deprecatable, Visitable, Comparable<Classfile
 
     Collection<? extends Field_info> getAllFields();
     Field_info getField(Predicate<Field_info> filter);
+    Field_info getField(String name);
     Field_info locateField(Predicate<Field_info> filter);
+    Field_info locateField(String name);
 
     Collection<? extends Method_info> getAllMethods();
     Method_info getMethod(Predicate<Method_info> filter);
+    Method_info getMethod(String signature);
     Method_info locateMethod(Predicate<Method_info> filter);
+    Method_info locateMethod(String signature);
     Collection<? extends Method_info> locateMethodDeclarations(Predicate<Method_info> filter);
 
     Collection<? extends Attribute_info> getAttributes();
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ *  <p>Quickly estimates what a {@link ClassfileScanner} would count, without
+ *  reading any <code>.class</code> file.  Directories are only listed and
+ *  archives are only sized from their central directory, so nothing gets
+ *  inflated.</p>
+ *
+ *  <p>Archives nested inside other inputs are counted as single files.
+ *  Listeners can find out how big they really are from the size of the
+ *  group they start during loading.</p>
+ */
+public class ClassfileEstimator {
+    private final ClassfileLoaderDispatcher dispatcher;
+
+    private int nbFiles;
+    private int nbClasses;
+
+    public ClassfileEstimator() {
+        this(ClassfileLoaderEventSource.DEFAULT_DISPATCHER);
+    }
+
+    public ClassfileEstimator(ClassfileLoaderDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public int getNbFiles() {
+        return nbFiles;
+    }
+
+    public int getNbClasses() {
+        return nbClasses;
+    }
+
+    public void scan(Collection<String> filenames) {
+        filenames.forEach(this::scan);
+    }
+
+    public void scan(String filename) {
+        switch (dispatcher.dispatch(filename)) {
+            case CLASS, DIRECTORY -> scanPath(filename);
+            case ZIP, JAR -> scanArchive(filename);
+            case RUNTIME_IMAGE -> scanRuntimeImage(filename);
+            default -> LogManager.getLogger(getClass()).debug("Ignoring \"{}\"", filename);
+        }
+    }
+
+    private void scanPath(String filename) {
+        DirectoryExplorer.explore(Paths.get(filename), 1, (path, attributes) -> count(path.toString()));
+    }
+
+    private void scanArchive(String filename) {
+        try (var zipfile = new ZipFile(filename)) {
+            zipfile.stream().forEach(entry -> count(entry.getName()));
+        } catch (IOException ex) {
+            LogManager.getLogger(getClass()).debug("Cannot read central directory of \"{}\"", filename, ex);
+        }
+    }
+
+    private void scanRuntimeImage(String filename) {
+        try {
+            for (var module : RuntimeImageClassfileLoader.modules(FileSystems.getFileSystem(URI.create(RuntimeImageClassfileLoader.PREFIX)), filename)) {
+                DirectoryExplorer.explore(module, 1, (path, attributes) -> count(path.toString()));
+            }
+        } catch (IOException | ProviderNotFoundException ex) {
+            LogManager.getLogger(getClass()).debug("Cannot list runtime image \"{}\"", filename, ex);
+        }
+    }
+
+    private void count(String name) {
+        nbFiles++;
+
+        if (name.endsWith(".class")) {
+            nbClasses++;
+        }
+    }
+}
@@ -33,7 +33,21 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.util.function.*;
 
 public interface ClassfileFactory {
     Classfile create(ClassfileLoader loader, DataInput in) throws IOException;
+
+    /**
+     *  Only reads the rest of the class if the prefilter accepts its
+     *  constant pool.  Implementations should stop right after the pool
+     *  when it does not; this one parses the whole class regardless.
+     *
+     *  @return the classfile, or <code>null</code> if the prefilter
+     *          rejected it.
+     */
+    default Classfile create(ClassfileLoader loader, DataInput in, Predicate<? super ConstantPool> prefilter) throws IOException {
+        var result = create(loader, in);
+        return prefilter.test(result.getConstantPool()) ? result : null;
+    }
 }
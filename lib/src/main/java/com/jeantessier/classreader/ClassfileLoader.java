@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.attribute.*;
 import java.util.*;
 
 /**
@@ -43,11 +44,36 @@ import java.util.*;
  *  @see ClassfileLoaderDecorator
  */
 public abstract class ClassfileLoader {
+    private volatile TypeHierarchyIndex typeHierarchy;
+
     // Main methods
     public abstract Classfile getClassfile(String name);
     public abstract Collection<Classfile> getAllClassfiles();
     public abstract Collection<String> getAllClassNames();
 
+    /**
+     *  @return an index over the hierarchy of the classes loaded so far,
+     *          shared by everyone who asks until new classes come in.
+     */
+    public TypeHierarchyIndex getTypeHierarchy() {
+        var result = typeHierarchy;
+
+        if (result == null) {
+            result = new TypeHierarchyIndex(this);
+            typeHierarchy = result;
+        }
+
+        return result;
+    }
+
+    /**
+     *  Subclasses call this when the set of classes they hold changes, so
+     *  the next call to {@link #getTypeHierarchy()} starts over.
+     */
+    protected void invalidateTypeHierarchy() {
+        typeHierarchy = null;
+    }
+
     public void load(Collection<String> filenames) {
         fireBeginSession();
 
@@ -61,6 +87,31 @@ public abstract class ClassfileLoader {
     protected abstract void load(String filename, InputStream in);
     protected abstract Classfile load(DataInput in) throws IOException;
 
+    /**
+     *  Loads a file that was found on the file system, whose attributes have
+     *  already been read.  By default, it is treated like any other stream.
+     */
+    protected void load(String filename, BasicFileAttributes attributes, InputStream in) {
+        load(filename, in);
+    }
+
+    /**
+     *  Whether loading an entry of an archive would read its content, so
+     *  decorators that have to buffer entries can skip the others.  By
+     *  default, any entry might be read.
+     */
+    protected boolean isLoadingEntry(String entryName) {
+        return true;
+    }
+
+    /**
+     *  How many threads this loader uses, so decorators can spread their own
+     *  work, such as exploring directories, over as many.
+     */
+    protected int getParallelism() {
+        return 1;
+    }
+
     // Event stuff
     public abstract void addLoadListener(LoadListener listener);
     public abstract void removeLoadListener(LoadListener listener);
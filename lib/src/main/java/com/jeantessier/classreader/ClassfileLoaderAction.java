@@ -38,4 +38,5 @@ public enum ClassfileLoaderAction {
     ZIP,
     JAR,
     CLASS,
+    RUNTIME_IMAGE,
 }
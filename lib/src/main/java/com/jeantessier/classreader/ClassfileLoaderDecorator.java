@@ -58,10 +58,26 @@ public abstract class ClassfileLoaderDecorator extends ClassfileLoader {
         return getLoader().getAllClassNames();
     }
 
+    public TypeHierarchyIndex getTypeHierarchy() {
+        return getLoader().getTypeHierarchy();
+    }
+
+    protected void invalidateTypeHierarchy() {
+        getLoader().invalidateTypeHierarchy();
+    }
+
     protected Classfile load(DataInput in) throws IOException {
         return getLoader().load(in);
     }
 
+    protected boolean isLoadingEntry(String entryName) {
+        return getLoader().isLoadingEntry(entryName);
+    }
+
+    protected int getParallelism() {
+        return getLoader().getParallelism();
+    }
+
     public void addLoadListener(LoadListener listener) {
         getLoader().addLoadListener(listener);
     }
@@ -32,6 +32,29 @@
 
 package com.jeantessier.classreader;
 
+import java.nio.file.attribute.*;
+
 public interface ClassfileLoaderDispatcher {
+    /**
+     *  Dispatches a path on the file system.  Implementations may look it up
+     *  to find out what it is.
+     */
     ClassfileLoaderAction dispatch(String filename);
+
+    /**
+     *  Dispatches a path on the file system whose attributes were already
+     *  read, such as while exploring a directory, so there is no need to
+     *  look it up again.
+     */
+    default ClassfileLoaderAction dispatch(String filename, BasicFileAttributes attributes) {
+        return dispatch(filename);
+    }
+
+    /**
+     *  Dispatches the name of an entry in an archive.  It is not a path on
+     *  the file system and implementations should not look it up there.
+     */
+    default ClassfileLoaderAction dispatchEntry(String entryName) {
+        return dispatch(entryName);
+    }
 }
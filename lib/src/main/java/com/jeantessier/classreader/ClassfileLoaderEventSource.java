@@ -35,17 +35,29 @@ package com.jeantessier.classreader;
 import org.apache.logging.log4j.*;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.file.attribute.*;
+import java.security.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     public static final ClassfileLoaderDispatcher DEFAULT_DISPATCHER = new PermissiveDispatcher();
-    
+
+    /**
+     *  How many classfiles each worker thread can have in flight before
+     *  the loading thread waits for listeners to catch up.
+     */
+    private static final int PENDING_CLASSFILES_PER_THREAD = 4;
+
     private final ClassfileFactory factory;
     private final ClassfileLoaderDispatcher dispatcher;
     
     private final ClassfileLoader dirLoader = new DirectoryClassfileLoader(this);
     private final ClassfileLoader jarLoader;
     private final ClassfileLoader zipLoader = new ZipClassfileLoader(this);
+    private final ClassfileLoader runtimeImageLoader = new RuntimeImageClassfileLoader(this);
 
     private final Collection<LoadListener> loadListeners = new HashSet<>();
 
@@ -54,6 +66,15 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
 
     private ClassfileLoaderAction previousDispatch;
 
+    private ClassfileCache classfileCache;
+
+    private Predicate<? super ConstantPool> prefilter;
+
+    private int parallelism = 1;
+    private ExecutorService executor;
+    private final Deque<PendingEvent> pendingEvents = new LinkedList<>();
+    private int pendingClassfiles;
+
     public ClassfileLoaderEventSource(ClassfileFactory factory) {
         this.factory = factory;
         this.dispatcher = DEFAULT_DISPATCHER;
@@ -86,6 +107,71 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         return factory;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     *  <p>Sets how many threads inflate and parse <code>.class</code> files
+     *  during a session.  With a value of 1, the default, everything happens
+     *  on the loading thread.</p>
+     *
+     *  <p>With more threads, {@link LoadListener}s are still called on the
+     *  loading thread, in the same order as if the classes had been parsed
+     *  one at a time.</p>
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, got " + parallelism);
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    public ClassfileCache getClassfileCache() {
+        return classfileCache;
+    }
+
+    /**
+     *  <p>Sets a cache of classfile contents to check before parsing each
+     *  classfile.  Classfiles that are already in the cache are not parsed
+     *  and listeners get {@link LoadListener#cachedClassfile(LoadEvent)}
+     *  instead of {@link LoadListener#endClassfile(LoadEvent)}.</p>
+     *
+     *  <p>Set it to <code>null</code>, the default, to parse every
+     *  classfile.</p>
+     */
+    public void setClassfileCache(ClassfileCache classfileCache) {
+        this.classfileCache = classfileCache;
+    }
+
+    public Predicate<? super ConstantPool> getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     *  <p>Sets a test on the constant pool of each classfile.  Classfiles it
+     *  rejects are not parsed any further and listeners get
+     *  {@link LoadListener#beginClassfile(LoadEvent)} for them, but no
+     *  {@link LoadListener#endClassfile(LoadEvent)}.</p>
+     *
+     *  <p>With more than one thread, it gets called from worker threads.</p>
+     *
+     *  <p>Set it to <code>null</code>, the default, to parse every
+     *  classfile in full.</p>
+     */
+    public void setPrefilter(Predicate<? super ConstantPool> prefilter) {
+        this.prefilter = prefilter;
+    }
+
+    private boolean isCaching() {
+        return classfileCache != null;
+    }
+
+    private boolean isPipelining() {
+        return executor != null;
+    }
+
     protected void load(String filename) {
         ClassfileLoaderAction dispatch = dispatcher.dispatch(filename);
 
@@ -105,13 +191,41 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
                 LogManager.getLogger(getClass()).debug("JAR \"{}\"", filename);
                 jarLoader.load(filename);
             }
+            case RUNTIME_IMAGE -> {
+                LogManager.getLogger(getClass()).debug("RUNTIME_IMAGE \"{}\"", filename);
+                runtimeImageLoader.load(filename);
+            }
             default -> LogManager.getLogger(getClass()).debug("default (IGNORE) \"{}\"", filename);
         }
     }
 
+    /**
+     *  Called with the files found while exploring directories.
+     */
+    protected void load(String filename, BasicFileAttributes attributes, InputStream in) {
+        load(filename, dispatcher.dispatch(filename, attributes), in);
+    }
+
+    /**
+     *  Called with the entries found in archives.  Their names are not paths
+     *  on the file system, so the dispatcher does not go looking for them.
+     */
     protected void load(String filename, InputStream in) {
-        ClassfileLoaderAction dispatch = dispatcher.dispatch(filename);
+        load(filename, dispatcher.dispatchEntry(filename), in);
+    }
+
+    /**
+     *  Only classes and archives are read; the dispatcher ignores everything
+     *  else.
+     */
+    protected boolean isLoadingEntry(String entryName) {
+        return switch (dispatcher.dispatchEntry(entryName)) {
+            case CLASS, JAR, ZIP -> true;
+            default -> false;
+        };
+    }
 
+    private void load(String filename, ClassfileLoaderAction dispatch, InputStream in) {
         if (dispatch == ClassfileLoaderAction.IGNORE && getTopGroupSize() == 1 &&  filename.equals(getTopGroupName())) {
             dispatch = previousDispatch;
         }
@@ -132,18 +246,162 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
             }
             case CLASS -> {
                 LogManager.getLogger(getClass()).debug("CLASS \"{}\"", filename);
-                try {
+                if (isPipelining()) {
                     fireBeginClassfile(filename);
-                    Classfile classfile = load(new DataInputStream(in));
-                    fireEndClassfile(filename, classfile);
-                } catch (Exception ex) {
-                    LogManager.getLogger(getClass()).warn("Cannot load class from file \"{}\"", filename, ex);
+                    parseInBackground(filename, in);
+                } else if (isCaching()) {
+                    try {
+                        fireBeginClassfile(filename);
+                        var content = toByteBuffer(in);
+                        var digest = digest(content);
+                        var className = getClassfileCache().getClassName(digest);
+                        if (className != null) {
+                            fireCachedClassfile(filename, className, digest);
+                        } else {
+                            Classfile classfile = load(new ByteBufferDataInput(content));
+                            if (classfile != null) {
+                                fireEndClassfile(filename, classfile, digest);
+                            }
+                        }
+                    } catch (Exception ex) {
+                        LogManager.getLogger(getClass()).warn("Cannot load class from file \"{}\"", filename, ex);
+                    }
+                } else {
+                    try {
+                        fireBeginClassfile(filename);
+                        Classfile classfile = load(toDataInput(in));
+                        if (classfile != null) {
+                            fireEndClassfile(filename, classfile);
+                        }
+                    } catch (Exception ex) {
+                        LogManager.getLogger(getClass()).warn("Cannot load class from file \"{}\"", filename, ex);
+                    }
                 }
             }
             default -> LogManager.getLogger(getClass()).debug("default (IGNORE) \"{}\"", filename);
         }
     }
 
+    /**
+     *  Parses the classfile without registering it anywhere, so it is safe
+     *  to call from worker threads.
+     *
+     *  @return the classfile, or <code>null</code> if the prefilter
+     *          rejected it.
+     */
+    protected Classfile parse(DataInput in) throws IOException {
+        if (prefilter != null) {
+            return getFactory().create(this, in, prefilter);
+        }
+
+        return getFactory().create(this, in);
+    }
+
+    /**
+     *  Called on the loading thread, in entry order, for classfiles that were
+     *  parsed by worker threads.  Subclasses that keep track of classfiles
+     *  should record them here as well as in {@link #load(DataInput)}.
+     */
+    protected void register(Classfile classfile) {
+        // Do nothing
+    }
+
+    private void parseInBackground(String filename, InputStream in) {
+        Callable<ParsedClassfile> task;
+        if (in instanceof DeferredInputStream) {
+            task = () -> parse(toByteBuffer(in));
+        } else {
+            // The caller may reuse or close the stream as soon as we return.
+            try {
+                var bytes = in.readAllBytes();
+                task = () -> parse(ByteBuffer.wrap(bytes));
+            } catch (IOException ex) {
+                LogManager.getLogger(getClass()).warn("Cannot load class from file \"{}\"", filename, ex);
+                return;
+            }
+        }
+
+        pendingEvents.addLast(new PendingClassfile(filename, getTopGroupName(), executor.submit(task)));
+        pendingClassfiles++;
+
+        while (pendingClassfiles > getParallelism() * PENDING_CLASSFILES_PER_THREAD) {
+            deliverNextPendingEvent();
+        }
+    }
+
+    /**
+     *  Runs on worker threads.  Classfiles that are in the cache come back
+     *  with only their digest and class name.
+     */
+    private ParsedClassfile parse(ByteBuffer content) throws IOException {
+        if (isCaching()) {
+            var digest = digest(content);
+            var className = getClassfileCache().getClassName(digest);
+            if (className != null) {
+                return new ParsedClassfile(null, className, digest);
+            }
+
+            return new ParsedClassfile(parse(new ByteBufferDataInput(content)), null, digest);
+        }
+
+        return new ParsedClassfile(parse(new ByteBufferDataInput(content)), null, null);
+    }
+
+    private ByteBuffer toByteBuffer(InputStream in) throws IOException {
+        if (in instanceof DeferredInputStream deferredInputStream) {
+            return deferredInputStream.readByteBuffer();
+        }
+
+        return ByteBuffer.wrap(in.readAllBytes());
+    }
+
+    private static String digest(ByteBuffer content) {
+        try {
+            var messageDigest = MessageDigest.getInstance("SHA-1");
+            messageDigest.update(content.duplicate());
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-1.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     *  Entries from archive and directory loaders are read into a reusable
+     *  buffer and parsed in place.  The buffer gets reused by the next entry
+     *  on the same thread, but by then the parser has copied what it needs.
+     */
+    private DataInput toDataInput(InputStream in) throws IOException {
+        if (in instanceof DeferredInputStream deferredInputStream) {
+            return new ByteBufferDataInput(deferredInputStream.readByteBuffer());
+        }
+
+        return new DataInputStream(in);
+    }
+
+    private void deliverPendingEvents(boolean waitForClassfiles) {
+        while (!pendingEvents.isEmpty() && (waitForClassfiles || pendingEvents.getFirst().isReady())) {
+            deliverNextPendingEvent();
+        }
+    }
+
+    private void deliverNextPendingEvent() {
+        var pendingEvent = pendingEvents.removeFirst();
+        if (pendingEvent instanceof PendingClassfile) {
+            pendingClassfiles--;
+        }
+        pendingEvent.deliver();
+    }
+
+    private void fire(Consumer<LoadListener> delivery) {
+        if (isPipelining()) {
+            pendingEvents.addLast(new PendingEvent(delivery));
+            deliverPendingEvents(false);
+        } else {
+            loadListeners.forEach(delivery);
+        }
+    }
+
     private String getTopGroupName() {
         return groupNames.isEmpty() ? null : groupNames.getLast();
     }
@@ -181,13 +439,17 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         var event = new LoadEvent(this, null, null, null);
         loadListeners.forEach(listener -> listener.beginSession(event));
+
+        if (getParallelism() > 1) {
+            executor = new ForkJoinPool(getParallelism());
+        }
     }
 
     protected void fireBeginGroup(String groupName, int size) {
         LogManager.getLogger(getClass()).debug("Begin group \"{}\" of size {}", groupName, size);
 
         LoadEvent event = new LoadEvent(this, groupName, size);
-        loadListeners.forEach(listener -> listener.beginGroup(event));
+        fire(listener -> listener.beginGroup(event));
 
         pushGroupName(groupName);
         pushGroupSize(size);
@@ -197,44 +459,134 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         LogManager.getLogger(getClass()).debug("Begin file \"{}\"", filename);
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-        loadListeners.forEach(listener -> listener.beginFile(event));
+        fire(listener -> listener.beginFile(event));
     }
     
     protected void fireBeginClassfile(String filename) {
         LogManager.getLogger(getClass()).debug("Begin classfile \"{}\"", filename);
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-        loadListeners.forEach(listener -> listener.beginClassfile(event));
+        fire(listener -> listener.beginClassfile(event));
     }
 
     protected void fireEndClassfile(String filename, Classfile classfile) {
+        fireEndClassfile(filename, classfile, null);
+    }
+
+    private void fireEndClassfile(String filename, Classfile classfile, String digest) {
         LogManager.getLogger(getClass()).debug("End classfile \"{}\": {}", () -> filename, () -> ((classfile != null) ? classfile.getClassName() : "nothing"));
         
-        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, classfile);
-        loadListeners.forEach(listener -> listener.endClassfile(event));
+        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, classfile, digest);
+        fire(listener -> listener.endClassfile(event));
+    }
+
+    private void fireCachedClassfile(String filename, String className, String digest) {
+        LogManager.getLogger(getClass()).debug("Cached classfile \"{}\": {}", filename, className);
+
+        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, className, digest);
+        fire(listener -> listener.cachedClassfile(event));
     }
 
     protected void fireEndFile(String filename) {
         LogManager.getLogger(getClass()).debug("End file \"{}\"", filename);
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-        loadListeners.forEach(listener -> listener.endFile(event));
+        fire(listener -> listener.endFile(event));
     }
 
     protected void fireEndGroup(String groupName) {
         LogManager.getLogger(getClass()).debug("End group \"{}\"", groupName);
         
         LoadEvent event = new LoadEvent(this, groupName, null, null);
-        loadListeners.forEach(listener -> listener.endGroup(event));
+        fire(listener -> listener.endGroup(event));
 
         popGroupName();
         popGroupSize();
+
+        // Archives get closed when their group ends, so we cannot read ahead past it.
+        deliverPendingEvents(true);
     }
 
     protected void fireEndSession() {
         LogManager.getLogger(getClass()).debug("End session");
         
+        if (isPipelining()) {
+            deliverPendingEvents(true);
+            executor.shutdown();
+            executor = null;
+        }
+
         LoadEvent event = new LoadEvent(this, null, null, null);
         loadListeners.forEach(listener -> listener.endSession(event));
     }
+
+    private class PendingEvent {
+        private final Consumer<LoadListener> delivery;
+
+        PendingEvent(Consumer<LoadListener> delivery) {
+            this.delivery = delivery;
+        }
+
+        boolean isReady() {
+            return true;
+        }
+
+        void deliver() {
+            loadListeners.forEach(delivery);
+        }
+    }
+
+    private record ParsedClassfile(Classfile classfile, String className, String digest) {}
+
+    private class PendingClassfile extends PendingEvent {
+        private final String filename;
+        private final String groupName;
+        private final Future<ParsedClassfile> classfile;
+
+        PendingClassfile(String filename, String groupName, Future<ParsedClassfile> classfile) {
+            super(null);
+
+            this.filename = filename;
+            this.groupName = groupName;
+            this.classfile = classfile;
+        }
+
+        boolean isReady() {
+            return classfile.isDone();
+        }
+
+        void deliver() {
+            ParsedClassfile parsed;
+            try {
+                parsed = classfile.get();
+            } catch (ExecutionException ex) {
+                LogManager.getLogger(ClassfileLoaderEventSource.this.getClass()).warn("Cannot load class from file \"{}\"", filename, ex.getCause());
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(ex);
+            }
+
+            if (parsed.className() != null) {
+                LogManager.getLogger(ClassfileLoaderEventSource.this.getClass()).debug("Cached classfile \"{}\": {}", filename, parsed.className());
+
+                LoadEvent event = new LoadEvent(ClassfileLoaderEventSource.this, groupName, filename, parsed.className(), parsed.digest());
+                loadListeners.forEach(listener -> listener.cachedClassfile(event));
+                return;
+            }
+
+            Classfile result = parsed.classfile();
+            if (result == null) {
+                LogManager.getLogger(ClassfileLoaderEventSource.this.getClass()).debug("Rejected classfile \"{}\"", filename);
+                return;
+            }
+
+            register(result);
+
+            LogManager.getLogger(ClassfileLoaderEventSource.this.getClass()).debug("End classfile \"{}\": {}", filename, result.getClassName());
+
+            LoadEvent event = new LoadEvent(ClassfileLoaderEventSource.this, groupName, filename, result, parsed.digest());
+            loadListeners.forEach(listener -> listener.endClassfile(event));
+        }
+    }
 }
@@ -71,6 +71,10 @@ public class ClassfileScanner extends ClassfileLoaderEventSource {
         return null;
     }
 
+    protected Classfile parse(DataInput in) throws IOException {
+        return null;
+    }
+
     protected void fireBeginFile(String filename) {
         super.fireBeginFile(filename);
         
@@ -0,0 +1,414 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.zip.*;
+
+import com.jeantessier.text.*;
+
+/**
+ *  <p>What {@link AggregatingClassfileLoader} keeps of a class when it only
+ *  retains skeletons: its name, supertypes, access flags, the signatures
+ *  and access flags of its members, and its compressed bytecode.</p>
+ *
+ *  <p>Anything else, such as the constant pool, attributes, or the members
+ *  themselves, comes from a full {@link Classfile} that the loader parses
+ *  again from the bytecode when needed, and keeps in a bounded cache.
+ *  Callers do not need to know which one they are dealing with.</p>
+ */
+public class ClassfileSkeleton implements Classfile {
+    /**
+     *  The signature and access flags of a field or method.
+     */
+    public record Member(String name, String descriptor, int accessFlags) {}
+
+    private enum Trait {
+        PUBLIC(Classfile::isPublic),
+        PACKAGE(Classfile::isPackage),
+        FINAL(Classfile::isFinal),
+        SUPER(Classfile::isSuper),
+        INTERFACE(Classfile::isInterface),
+        ABSTRACT(Classfile::isAbstract),
+        SYNTHETIC(Classfile::isSynthetic),
+        ANNOTATION(Classfile::isAnnotation),
+        ENUM(Classfile::isEnum),
+        MODULE(Classfile::isModule),
+        DEPRECATED(Classfile::isDeprecated),
+        GENERIC(Classfile::isGeneric),
+        INNER_CLASS(Classfile::isInnerClass),
+        MEMBER_CLASS(Classfile::isMemberClass),
+        LOCAL_CLASS(Classfile::isLocalClass),
+        ANONYMOUS_CLASS(Classfile::isAnonymousClass);
+
+        private final Predicate<Classfile> predicate;
+
+        Trait(Predicate<Classfile> predicate) {
+            this.predicate = predicate;
+        }
+
+        int mask() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final AggregatingClassfileLoader loader;
+
+    private final int magicNumber;
+    private final int minorVersion;
+    private final int majorVersion;
+    private final int accessFlags;
+    private final int classIndex;
+    private final int superclassIndex;
+    private final String className;
+    private final String packageName;
+    private final String simpleName;
+    private final String superclassName;
+    private final List<String> interfaceNames;
+    private final List<Member> fields;
+    private final List<Member> methods;
+    private final int traits;
+
+    private final byte[] compressedContent;
+    private final int contentLength;
+
+    ClassfileSkeleton(AggregatingClassfileLoader loader, Classfile classfile, byte[] content) {
+        this.loader = loader;
+
+        var symbols = SymbolTable.getInstance();
+
+        magicNumber = classfile.getMagicNumber();
+        minorVersion = classfile.getMinorVersion();
+        majorVersion = classfile.getMajorVersion();
+        accessFlags = classfile.getAccessFlags();
+        classIndex = classfile.getClassIndex();
+        superclassIndex = classfile.getSuperclassIndex();
+        className = symbols.intern(classfile.getClassName());
+        packageName = symbols.intern(classfile.getPackageName());
+        simpleName = classfile.getSimpleName();
+        superclassName = classfile.hasSuperclass() ? symbols.intern(classfile.getSuperclassName()) : null;
+        interfaceNames = classfile.getAllInterfaces().stream()
+                .map(Class_info::getName)
+                .map(symbols::intern)
+                .toList();
+        fields = classfile.getAllFields().stream()
+                .map(field -> new Member(symbols.intern(field.getName()), symbols.intern(field.getDescriptor()), field.getAccessFlags()))
+                .toList();
+        methods = classfile.getAllMethods().stream()
+                .map(method -> new Member(symbols.intern(method.getName()), symbols.intern(method.getDescriptor()), method.getAccessFlags()))
+                .toList();
+        traits = Arrays.stream(Trait.values())
+                .filter(trait -> trait.predicate.test(classfile))
+                .mapToInt(Trait::mask)
+                .reduce(0, (a, b) -> a | b);
+
+        compressedContent = compress(content);
+        contentLength = content.length;
+    }
+
+    /**
+     *  @return the full classfile, parsing it again if it is not in the
+     *          loader's cache anymore
+     */
+    public Classfile getClassfile() {
+        return loader.rehydrate(this);
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public List<Member> getFields() {
+        return fields;
+    }
+
+    public List<Member> getMethods() {
+        return methods;
+    }
+
+    byte[] getContent() throws IOException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(compressedContent);
+            var result = new byte[contentLength];
+            var length = 0;
+            while (length < contentLength && !inflater.finished()) {
+                length += inflater.inflate(result, length, contentLength - length);
+            }
+            return result;
+        } catch (DataFormatException ex) {
+            throw new IOException("Cannot decompress " + className, ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] compress(byte[] content) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            var buffer = new ByteArrayOutputStream(content.length / 2);
+            var chunk = new byte[4096];
+            while (!deflater.finished()) {
+                buffer.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return buffer.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private boolean has(Trait trait) {
+        return (traits & trait.mask()) != 0;
+    }
+
+    public ClassfileLoader getLoader() {
+        return loader;
+    }
+
+    public int getMagicNumber() {
+        return magicNumber;
+    }
+
+    public int getMinorVersion() {
+        return minorVersion;
+    }
+
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public ConstantPool getConstantPool() {
+        return getClassfile().getConstantPool();
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public int getClassIndex() {
+        return classIndex;
+    }
+
+    public Class_info getRawClass() {
+        return getClassfile().getRawClass();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    public boolean hasSuperclass() {
+        return superclassName != null;
+    }
+
+    public int getSuperclassIndex() {
+        return superclassIndex;
+    }
+
+    public Class_info getRawSuperclass() {
+        return getClassfile().getRawSuperclass();
+    }
+
+    public String getSuperclassName() {
+        return superclassName != null ? superclassName : "";
+    }
+
+    public Collection<? extends Class_info> getAllInterfaces() {
+        return getClassfile().getAllInterfaces();
+    }
+
+    public Class_info getInterface(String name) {
+        return getClassfile().getInterface(name);
+    }
+
+    public Collection<? extends Field_info> getAllFields() {
+        return getClassfile().getAllFields();
+    }
+
+    public Field_info getField(Predicate<Field_info> filter) {
+        return getClassfile().getField(filter);
+    }
+
+    public Field_info getField(String name) {
+        if (fields.stream().noneMatch(field -> field.name().equals(name))) {
+            return null;
+        }
+
+        return getClassfile().getField(name);
+    }
+
+    public Field_info locateField(Predicate<Field_info> filter) {
+        return getClassfile().locateField(filter);
+    }
+
+    public Field_info locateField(String name) {
+        return getLoader().getTypeHierarchy().locateField(this, name);
+    }
+
+    public Collection<? extends Method_info> getAllMethods() {
+        return getClassfile().getAllMethods();
+    }
+
+    public Method_info getMethod(Predicate<Method_info> filter) {
+        return getClassfile().getMethod(filter);
+    }
+
+    public Method_info getMethod(String signature) {
+        return getClassfile().getMethod(signature);
+    }
+
+    public Method_info locateMethod(Predicate<Method_info> filter) {
+        return getClassfile().locateMethod(filter);
+    }
+
+    public Method_info locateMethod(String signature) {
+        return getLoader().getTypeHierarchy().locateMethod(this, signature);
+    }
+
+    public Collection<? extends Method_info> locateMethodDeclarations(Predicate<Method_info> filter) {
+        return getClassfile().locateMethodDeclarations(filter);
+    }
+
+    public Collection<? extends Attribute_info> getAttributes() {
+        return getClassfile().getAttributes();
+    }
+
+    public boolean isPublic() {
+        return has(Trait.PUBLIC);
+    }
+
+    public boolean isPackage() {
+        return has(Trait.PACKAGE);
+    }
+
+    public boolean isFinal() {
+        return has(Trait.FINAL);
+    }
+
+    public boolean isSuper() {
+        return has(Trait.SUPER);
+    }
+
+    public boolean isInterface() {
+        return has(Trait.INTERFACE);
+    }
+
+    public boolean isAbstract() {
+        return has(Trait.ABSTRACT);
+    }
+
+    public boolean isSynthetic() {
+        return has(Trait.SYNTHETIC);
+    }
+
+    public boolean isAnnotation() {
+        return has(Trait.ANNOTATION);
+    }
+
+    public boolean isEnum() {
+        return has(Trait.ENUM);
+    }
+
+    public boolean isModule() {
+        return has(Trait.MODULE);
+    }
+
+    public boolean isDeprecated() {
+        return has(Trait.DEPRECATED);
+    }
+
+    public boolean isGeneric() {
+        return has(Trait.GENERIC);
+    }
+
+    public String getDeclaration() {
+        return getClassfile().getDeclaration();
+    }
+
+    public boolean isInnerClass() {
+        return has(Trait.INNER_CLASS);
+    }
+
+    public boolean isMemberClass() {
+        return has(Trait.MEMBER_CLASS);
+    }
+
+    public boolean isLocalClass() {
+        return has(Trait.LOCAL_CLASS);
+    }
+
+    public boolean isAnonymousClass() {
+        return has(Trait.ANONYMOUS_CLASS);
+    }
+
+    public void accept(Visitor visitor) {
+        getClassfile().accept(visitor);
+    }
+
+    public String toString() {
+        return getClassName();
+    }
+
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        return compareTo((Classfile) object) == 0;
+    }
+
+    public int hashCode() {
+        return getClassName().hashCode();
+    }
+
+    public int compareTo(Classfile other) {
+        return getClassName().compareTo(other.getClassName());
+    }
+}
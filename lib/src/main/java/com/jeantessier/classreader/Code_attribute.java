@@ -40,6 +40,7 @@ public interface Code_attribute extends Attribute_info, Iterable<Instruction> {
     int getMaxLocals();
     byte[] getCode();
     Iterator<Instruction> iterator();
+    InstructionCursor cursor();
     Stream<Instruction> stream();
     Collection<? extends ExceptionHandler> getExceptionHandlers();
     Collection<? extends Attribute_info> getAttributes();
@@ -36,4 +36,23 @@ import java.util.*;
 
 public interface ConstantPool extends Visitable, List<ConstantPoolEntry> {
     Classfile getClassfile();
+
+    /**
+     *  @return whether the pool has an entry of the given type, such as
+     *          <code>InvokeDynamic_info.class</code>.
+     */
+    default boolean containsInstanceOf(Class<? extends ConstantPoolEntry> type) {
+        return stream().anyMatch(type::isInstance);
+    }
+
+    /**
+     *  @return whether the pool has a UTF8 entry with exactly this value,
+     *          such as an attribute name or a type descriptor.
+     */
+    default boolean containsUtf8(String value) {
+        return stream()
+                .filter(UTF8_info.class::isInstance)
+                .map(UTF8_info.class::cast)
+                .anyMatch(entry -> entry.getValue().equals(value));
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ *  Opens its source only when it is first read.  Archive and directory
+ *  loaders hand these to the event source so that inflating an entry can
+ *  happen on whichever thread ends up parsing it, or not at all if the
+ *  entry gets ignored.  The source is closed as soon as it is exhausted.
+ */
+class DeferredInputStream extends InputStream {
+    interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     *  Files at least this big get memory-mapped instead of copied.
+     */
+    private static final int MAPPING_THRESHOLD = 64 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     *  One reusable buffer per thread, so parsing many small classes
+     *  does not allocate a new array for each one.
+     */
+    private static final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    private final Opener opener;
+    private final Path path;
+    private final byte[] bytes;
+    private InputStream in;
+
+    DeferredInputStream(Opener opener) {
+        this.opener = opener;
+        this.path = null;
+        this.bytes = null;
+    }
+
+    DeferredInputStream(File file) {
+        this.opener = () -> new FileInputStream(file);
+        this.path = file.toPath();
+        this.bytes = null;
+    }
+
+    DeferredInputStream(byte[] bytes) {
+        this.opener = () -> new ByteArrayInputStream(bytes);
+        this.path = null;
+        this.bytes = bytes;
+    }
+
+    private InputStream getIn() throws IOException {
+        if (in == null) {
+            in = opener.open();
+        }
+
+        return in;
+    }
+
+    public int read() throws IOException {
+        return closeOnEndOfStream(getIn().read());
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        return closeOnEndOfStream(getIn().read(b, off, len));
+    }
+
+    public int available() throws IOException {
+        return getIn().available();
+    }
+
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private int closeOnEndOfStream(int result) throws IOException {
+        if (result == -1) {
+            close();
+        }
+
+        return result;
+    }
+
+    /**
+     *  <p>Reads the whole content into this thread's reusable buffer, or
+     *  maps it directly if it is a large enough file.  Content that is
+     *  already in memory is wrapped as-is.</p>
+     *
+     *  <p>The result is only valid until the next call on the same thread,
+     *  so callers must be done with it before then.</p>
+     */
+    ByteBuffer readByteBuffer() throws IOException {
+        if (bytes != null) {
+            return ByteBuffer.wrap(bytes);
+        }
+
+        if (path != null && Files.size(path) >= MAPPING_THRESHOLD) {
+            try (var channel = FileChannel.open(path)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        var buffer = buffers.get();
+        var length = 0;
+
+        try (var source = getIn()) {
+            int count;
+            while ((count = source.read(buffer, length, buffer.length - length)) != -1) {
+                length += count;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    buffers.set(buffer);
+                }
+            }
+        }
+
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+}
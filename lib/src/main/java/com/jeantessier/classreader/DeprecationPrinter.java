@@ -33,8 +33,15 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.util.function.*;
 
 public class DeprecationPrinter extends Printer {
+    /**
+     *  Only classes with a <code>Deprecated</code> attribute, on themselves
+     *  or on one of their members, have its name in their constant pool.
+     */
+    public static final Predicate<ConstantPool> PREFILTER = constantPool -> constantPool.containsUtf8("Deprecated");
+
     public DeprecationPrinter(PrintWriter out) {
         super(out);
     }
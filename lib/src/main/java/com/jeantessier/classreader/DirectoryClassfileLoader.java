@@ -32,42 +32,61 @@
 
 package com.jeantessier.classreader;
 
- import org.apache.logging.log4j.*;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
 
- import java.io.*;
+import org.apache.logging.log4j.*;
 
 public class DirectoryClassfileLoader extends ClassfileLoaderDecorator {
     public DirectoryClassfileLoader(ClassfileLoader loader) {
         super(loader);
     }
 
+    /**
+     *  <p>Loads files as they are found instead of waiting for the whole
+     *  tree to be explored.  The group for a directory therefore has an
+     *  unknown size of -1.  A single file gets a group of size 1 and a
+     *  missing one an empty group.</p>
+     *
+     *  <p>Sibling directories are listed in parallel if the underlying
+     *  loader parses with more than one thread.</p>
+     */
     protected void load(String filename) {
         LogManager.getLogger(getClass()).debug("Starting group from path \"{}\"", filename);
-        
-        DirectoryExplorer explorer = new DirectoryExplorer(filename);
 
-        fireBeginGroup(filename, explorer.getFiles().size());
+        var root = Paths.get(filename);
 
-        explorer.getFiles().forEach(file -> {
-            fireBeginFile(file.getPath());
+        BasicFileAttributes rootAttributes;
+        try {
+            rootAttributes = Files.readAttributes(root, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            LogManager.getLogger(getClass()).debug("Cannot read \"{}\": {}", filename, ex.getMessage());
+            fireBeginGroup(filename, 0);
+            fireEndGroup(filename);
+            return;
+        }
 
-            LogManager.getLogger(getClass()).debug("Starting file \"{}\" ({} bytes)", file.getPath(), file.length());
+        fireBeginGroup(filename, rootAttributes.isDirectory() ? -1 : 1);
 
-            if (!file.isDirectory()) {
+        DirectoryExplorer.explore(root, getParallelism(), (path, attributes) -> {
+            var pathname = path.toString();
+
+            fireBeginFile(pathname);
+
+            LogManager.getLogger(getClass()).debug("Starting file \"{}\" ({} bytes)", pathname, attributes.size());
+
+            if (!attributes.isDirectory()) {
                 // Errors with contents format will be handled and logged by Load().
-                try (var in = new FileInputStream(file)) {
-                    getLoader().load(file.getPath(), in);
-                } catch (IOException ex) {
-                    LogManager.getLogger(getClass()).error("Cannot load file \"{}\"", file.getPath(), ex);
-                }
+                getLoader().load(pathname, attributes, new DeferredInputStream(path.toFile()));
             }
 
-            fireEndFile(file.getPath());
+            fireEndFile(pathname);
         });
 
         fireEndGroup(filename);
     }
-    
+
     protected void load(String filename, InputStream in) {
         // Do nothing
     }
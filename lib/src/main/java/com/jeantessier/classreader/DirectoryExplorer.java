@@ -30,12 +30,26 @@
  *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 import java.util.stream.Stream;
 
+import org.apache.logging.log4j.*;
+
+/**
+ *  <p>Finds all the files and directories under a given path.</p>
+ *
+ *  <p>The constructors collect everything up front, in depth-first order.
+ *  Use {@link #explore(Path, int, BiConsumer)} to get each entry as soon as
+ *  it is found instead.</p>
+ */
 public class DirectoryExplorer {
     private final Collection<File> files = new LinkedList<>();
 
@@ -48,7 +62,7 @@ public class DirectoryExplorer {
     }
 
     public DirectoryExplorer(Stream<String> filenames) {
-        filenames.forEach(filename -> explore(new File(filename)));
+        filenames.forEach(filename -> explore(Paths.get(filename), 1, (path, attributes) -> files.add(path.toFile())));
     }
 
     public DirectoryExplorer(String filename) {
@@ -56,20 +70,176 @@ public class DirectoryExplorer {
     }
 
     public DirectoryExplorer(File file) {
-        explore(file);
+        explore(file.toPath(), 1, (path, attributes) -> files.add(path.toFile()));
+    }
+
+    public Collection<File> getFiles() {
+        return files;
+    }
+
+    /**
+     *  <p>Calls <code>action</code> for <code>path</code> and, if it is a
+     *  directory, for everything under it.  A directory is always reported
+     *  before its contents.  Symbolic links are followed.  Entries that
+     *  cannot be read are logged and skipped.</p>
+     *
+     *  <p>With a <code>parallelism</code> greater than 1, directories are
+     *  listed by that many threads, but <code>action</code> is still only
+     *  called on the current thread, in the same order as with a
+     *  <code>parallelism</code> of 1.</p>
+     */
+    public static void explore(Path path, int parallelism, BiConsumer<Path, BasicFileAttributes> action) {
+        if (parallelism > 1) {
+            new ParallelWalk(path, parallelism).forEach(action);
+        } else {
+            walk(path, action);
+        }
     }
 
-    private void explore(File file) {
-        if (file.exists()) {
-            files.add(file);
-            
-            if (file.isDirectory()) {
-                Arrays.stream(file.listFiles()).forEach(this::explore);
+    private static void walk(Path path, BiConsumer<Path, BasicFileAttributes> action) {
+        try {
+            Files.walkFileTree(path, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    action.accept(dir, attributes);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    action.accept(file, attributes);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    logFailure(file, ex);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult postVisitDirectory(Path dir, IOException ex) {
+                    if (ex != null) {
+                        logFailure(dir, ex);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            logFailure(path, ex);
+        }
+    }
+
+    private static void logFailure(Path path, IOException ex) {
+        if (ex instanceof NoSuchFileException) {
+            LogManager.getLogger(DirectoryExplorer.class).debug("Skipping missing path \"{}\"", path);
+        } else {
+            LogManager.getLogger(DirectoryExplorer.class).warn("Cannot explore \"{}\"", path, ex);
+        }
+    }
+
+    /**
+     *  A file or directory, with the entries of a directory as they come
+     *  out of its directory stream.
+     */
+    private record Entry(Path path, BasicFileAttributes attributes, List<Future<Entry>> children) {}
+
+    /**
+     *  The file keys of a directory and of its parents, to find symbolic
+     *  links back to one of them.
+     */
+    private record Ancestors(Object fileKey, Ancestors parent) {
+        boolean contains(Object key) {
+            for (var ancestor = this; ancestor != null; ancestor = ancestor.parent()) {
+                if (key.equals(ancestor.fileKey())) {
+                    return true;
+                }
             }
+
+            return false;
         }
     }
 
-    public Collection<File> getFiles() {
-        return files;
+    /**
+     *  Each directory is listed by its own task, as soon as its parent has
+     *  been listed.  The calling thread then goes through the listings
+     *  depth-first, waiting for each one in turn, so entries come out in
+     *  the same order as from {@link Files#walkFileTree}.  Like it, a
+     *  directory is only a loop if it is one of its own ancestors.
+     */
+    private static class ParallelWalk {
+        private final Path root;
+        private final int parallelism;
+
+        ParallelWalk(Path root, int parallelism) {
+            this.root = root;
+            this.parallelism = parallelism;
+        }
+
+        void forEach(BiConsumer<Path, BasicFileAttributes> action) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(root, BasicFileAttributes.class);
+            } catch (IOException ex) {
+                logFailure(root, ex);
+                return;
+            }
+
+            if (!attributes.isDirectory()) {
+                action.accept(root, attributes);
+                return;
+            }
+
+            var pool = new ForkJoinPool(parallelism);
+            try {
+                deliver(listDirectory(pool, root, attributes, null), action);
+            } catch (ExecutionException ex) {
+                throw new CompletionException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private void deliver(Future<Entry> future, BiConsumer<Path, BasicFileAttributes> action) throws ExecutionException, InterruptedException {
+            var entry = future.get();
+            if (entry != null) {
+                action.accept(entry.path(), entry.attributes());
+                for (var child : entry.children()) {
+                    deliver(child, action);
+                }
+            }
+        }
+
+        private Future<Entry> listDirectory(ExecutorService pool, Path dir, BasicFileAttributes attributes, Ancestors ancestors) {
+            return CompletableFuture.supplyAsync(() -> {
+                var key = attributes.fileKey();
+                if (key != null && ancestors != null && ancestors.contains(key)) {
+                    logFailure(dir, new FileSystemLoopException(dir.toString()));
+                    return null;
+                }
+
+                var lineage = new Ancestors(key, ancestors);
+                var children = new ArrayList<Future<Entry>>();
+
+                try (var stream = Files.newDirectoryStream(dir)) {
+                    for (var child : stream) {
+                        try {
+                            var childAttributes = Files.readAttributes(child, BasicFileAttributes.class);
+                            if (childAttributes.isDirectory()) {
+                                children.add(listDirectory(pool, child, childAttributes, lineage));
+                            } else {
+                                children.add(CompletableFuture.completedFuture(new Entry(child, childAttributes, List.of())));
+                            }
+                        } catch (IOException ex) {
+                            logFailure(child, ex);
+                        }
+                    }
+                } catch (DirectoryIteratorException ex) {
+                    logFailure(dir, ex.getCause());
+                } catch (IOException ex) {
+                    logFailure(dir, ex);
+                }
+
+                return new Entry(dir, attributes, children);
+            }, pool);
+        }
     }
 }
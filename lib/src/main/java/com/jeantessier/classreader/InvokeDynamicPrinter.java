@@ -35,11 +35,18 @@ package com.jeantessier.classreader;
 import org.apache.logging.log4j.*;
 
 import java.io.PrintWriter;
+import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.*;
 
 public class InvokeDynamicPrinter extends Printer {
+    /**
+     *  Only classes with <code>invokedynamic</code> instructions have
+     *  <code>CONSTANT_InvokeDynamic</code> entries in their constant pool.
+     */
+    public static final Predicate<ConstantPool> PREFILTER = constantPool -> constantPool.containsInstanceOf(InvokeDynamic_info.class);
+
     private Classfile currentClassfile;
     private Method_info currentMethod;
     private int currentConstantPoolIndex;
@@ -223,12 +230,18 @@ public class InvokeDynamicPrinter extends Printer {
     public void visitMethod_info(Method_info entry) {
         LogManager.getLogger(getClass()).debug("visitMethod_info({})", entry.getFullSignature());
         currentMethod = entry;
-        super.visitMethod_info(entry);
+
+        // Only the code has invokedynamic instructions.  Other attributes,
+        // like the exceptions, would print their constant pool entries.
+        var code = entry.getCode();
+        if (code != null) {
+            code.accept(this);
+        }
     }
 
     // Attributes
     public void visitCode_attribute(Code_attribute attribute) {
-        attribute.forEach(instruction -> instruction.accept(this));
+        visitInstructions(attribute);
     }
 
     public void visitBootstrapMethods_attribute(BootstrapMethods_attribute attribute) {
@@ -37,6 +37,7 @@ import org.apache.logging.log4j.*;
 import java.io.*;
 import java.util.*;
 import java.util.jar.*;
+import java.util.zip.*;
 import java.util.regex.*;
 
 public class JarClassfileLoader extends ClassfileLoaderDecorator {
@@ -66,30 +67,38 @@ public class JarClassfileLoader extends ClassfileLoaderDecorator {
         }
     }
 
+    /**
+     *  Nested archives are read into memory and walked with a
+     *  {@link ZipInputStream}, instead of being copied to a temporary file
+     *  and reopened.  Entries are buffered so they can be passed up in the
+     *  same order as {@link #load(JarFile)} would, with the same handling of
+     *  multi-release versions.  Only the entries that will be loaded keep
+     *  their content; for the others, such as resources, only the name
+     *  matters.
+     */
     protected void load(String filename, InputStream in) {
         LogManager.getLogger(getClass()).debug("Reading input stream {}", filename);
 
-        var basename = new File(filename).getName();
-        if (basename.endsWith(".jar")) {
-            basename = basename.substring(0, basename.length() - 4);
-        }
-
-        try {
-            var tempFile = File.createTempFile(basename, ".jar");
-            tempFile.deleteOnExit();
-
-            try (var out = new FileOutputStream(tempFile)) {
-                LogManager.getLogger(getClass()).debug("Reading JAR file {} from input stream", filename);
-                var bytes = in.readAllBytes();
-                LogManager.getLogger(getClass()).debug("Writing JAR file {} ({} bytes) to temporary file {}", filename, bytes.length, tempFile);
-                out.write(bytes);
-            } catch (IOException ex) {
-                LogManager.getLogger(getClass()).error("Cannot load JAR file from input stream", ex);
+        try (var zipInputStream = new ZipInputStream(in)) {
+            var entries = new ArrayList<NestedEntry>();
+
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                var name = entry.getName();
+                if (isBeyondTargetJdk(name) || !isLoadingEntry(name)) {
+                    entries.add(new NestedEntry(name, null));
+                } else {
+                    entries.add(new NestedEntry(name, zipInputStream.readAllBytes()));
+                }
             }
 
-            load(tempFile.getAbsolutePath());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            LogManager.getLogger(getClass()).debug("Read {} entries from JAR file {} in input stream", entries.size(), filename);
+
+            fireBeginGroup(filename, entries.size());
+            load(entries);
+            fireEndGroup(filename);
+        } catch (IOException ex) {
+            LogManager.getLogger(getClass()).error("Cannot load JAR file \"{}\" from input stream", filename, ex);
         }
     }
 
@@ -97,35 +106,57 @@ public class JarClassfileLoader extends ClassfileLoaderDecorator {
         var seen = new HashSet<String>();
 
         jarfile.stream()
-                .sorted(this::compareJarEntries)
+                .sorted((a, b) -> compareJarEntries(a.getName(), b.getName()))
                 .forEach(entry -> {
                     fireBeginFile(entry.getName());
 
-                    try (InputStream in = jarfile.getInputStream(entry)) {
-                        var filename = getFilename(entry, seen);
+                    var filename = getFilename(entry.getName(), seen);
+
+                    if (filename != null && !seen.contains(filename)) {
+                        seen.add(filename);
+
+                        // The entry is only inflated if and when something reads it.
+                        LogManager.getLogger(getClass()).debug("Passing up JAR entry {} ({} bytes)", entry.getName(), entry.getSize());
+                        getLoader().load(entry.getName(), new DeferredInputStream(() -> jarfile.getInputStream(entry)));
+                    } else {
+                        LogManager.getLogger(getClass()).debug("Skipping JAR entry {} ({} bytes)", entry.getName(), entry.getSize());
+                    }
+
+                    fireEndFile(entry.getName());
+                });
+    }
+
+    private void load(List<NestedEntry> entries) {
+        var seen = new HashSet<String>();
+
+        entries.stream()
+                .sorted((a, b) -> compareJarEntries(a.name(), b.name()))
+                .forEach(entry -> {
+                    fireBeginFile(entry.name());
 
-                        if (filename != null && !seen.contains(filename)) {
-                            seen.add(filename);
+                    var filename = getFilename(entry.name(), seen);
 
-                            LogManager.getLogger(getClass()).debug("Reading JAR entry {} ({} bytes)", entry.getName(), entry.getSize());
-                            var bytes = in.readAllBytes();
+                    if (filename != null && !seen.contains(filename)) {
+                        seen.add(filename);
 
-                            LogManager.getLogger(getClass()).debug("Passing up JAR entry {} ({} bytes)", entry.getName(), bytes.length);
-                            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
+                        if (entry.bytes() != null) {
+                            LogManager.getLogger(getClass()).debug("Passing up nested JAR entry {} ({} bytes)", entry.name(), entry.bytes().length);
+                            getLoader().load(entry.name(), new DeferredInputStream(entry.bytes()));
                         } else {
-                            LogManager.getLogger(getClass()).debug("Skipping JAR entry {} ({} bytes)", entry.getName(), entry.getSize());
+                            LogManager.getLogger(getClass()).debug("Passing up nested JAR entry {} without its content", entry.name());
+                            getLoader().load(entry.name(), InputStream.nullInputStream());
                         }
-                    } catch (IOException ex) {
-                        throw new RuntimeException(ex);
+                    } else {
+                        LogManager.getLogger(getClass()).debug("Skipping nested JAR entry {}", entry.name());
                     }
 
-                    fireEndFile(entry.getName());
+                    fireEndFile(entry.name());
                 });
     }
 
-    private int compareJarEntries(JarEntry a, JarEntry b) {
-        var matchA = VERSION_REGEX.matcher(a.getName());
-        var matchB = VERSION_REGEX.matcher(b.getName());
+    private int compareJarEntries(String a, String b) {
+        var matchA = VERSION_REGEX.matcher(a);
+        var matchB = VERSION_REGEX.matcher(b);
 
         // Version folders are sorted largest version first
         if (matchA.matches() && matchB.matches() && !matchA.group(1).equals(matchB.group(1))) {
@@ -133,20 +164,20 @@ public class JarClassfileLoader extends ClassfileLoaderDecorator {
         }
 
         // Files in META-INF come before other files
-        if (a.getName().startsWith("META-INF") && !b.getName().startsWith("META-INF")) {
+        if (a.startsWith("META-INF") && !b.startsWith("META-INF")) {
             return -1;
         }
 
-        if (!a.getName().startsWith("META-INF") && b.getName().startsWith("META-INF")) {
+        if (!a.startsWith("META-INF") && b.startsWith("META-INF")) {
             return 1;
         }
 
         // All else being equal, sort alphabetically
-        return a.getName().compareTo(b.getName());
+        return a.compareTo(b);
     }
 
-    private String getFilename(JarEntry entry, Set<String> seen) {
-        var match = VERSION_REGEX.matcher(entry.getName());
+    private String getFilename(String name, Set<String> seen) {
+        var match = VERSION_REGEX.matcher(name);
         if (match.matches()) {
             if (seen.contains(match.group(2))) {
                 return null;
@@ -157,6 +188,13 @@ public class JarClassfileLoader extends ClassfileLoaderDecorator {
             }
         }
 
-        return entry.getName();
+        return name;
     }
+
+    private boolean isBeyondTargetJdk(String name) {
+        var match = VERSION_REGEX.matcher(name);
+        return match.matches() && targetJdk < Integer.parseInt(match.group(1));
+    }
+
+    private record NestedEntry(String name, byte[] bytes) {}
 }
@@ -39,6 +39,8 @@ public class LoadEvent extends EventObject {
     private final String filename;
     private final Classfile classfile;
     private final int size;
+    private final String className;
+    private final String digest;
 
     public LoadEvent(Object source, String groupName, int size) {
         this(source, groupName, null, null, size);
@@ -49,12 +51,26 @@ public class LoadEvent extends EventObject {
     }
     
     public LoadEvent(Object source, String groupName, String filename, Classfile classfile, int size) {
+        this(source, groupName, filename, classfile, size, null, null);
+    }
+
+    public LoadEvent(Object source, String groupName, String filename, Classfile classfile, String digest) {
+        this(source, groupName, filename, classfile, -1, null, digest);
+    }
+
+    public LoadEvent(Object source, String groupName, String filename, String className, String digest) {
+        this(source, groupName, filename, null, -1, className, digest);
+    }
+
+    private LoadEvent(Object source, String groupName, String filename, Classfile classfile, int size, String className, String digest) {
         super(source);
 
         this.groupName = groupName;
         this.filename = filename;
         this.classfile = classfile;
         this.size = size;
+        this.className = className;
+        this.digest = digest;
     }
 
     public String getGroupName() {
@@ -72,4 +88,20 @@ public class LoadEvent extends EventObject {
     public int getSize() {
         return size;
     }
+
+    /**
+     *  The name of the class in the classfile, whether it was parsed or
+     *  found in a {@link ClassfileCache}.
+     */
+    public String getClassName() {
+        return classfile != null ? classfile.getClassName() : className;
+    }
+
+    /**
+     *  The SHA-1 digest of the classfile's content, if the loader has a
+     *  {@link ClassfileCache}, or <code>null</code> otherwise.
+     */
+    public String getDigest() {
+        return digest;
+    }
 }
@@ -107,6 +107,27 @@ public interface LoadListener extends EventListener {
     default void endClassfile(LoadEvent event) {
         // Do nothing
     }
+
+    /**
+     *  <p>The loader skipped a <code>.class</code> file
+     *  because its {@link ClassfileCache} already knows its
+     *  content.  The loader calls this instead of
+     *  {@link #endClassfile(LoadEvent)}.</p>
+     *
+     *  <p>The event's digest attribute identifies the content
+     *  in the cache and its class name attribute is the name
+     *  of the class it defines.</p>
+     *  
+     *  <p>The event's filename attribute points to the group
+     *  of files that contains the current file.  For
+     *  example, the JAR file's name or the root directory
+     *  of loose files.</p>
+     *
+     *  <p>The classfile attribute is null.</p>
+     */
+    default void cachedClassfile(LoadEvent event) {
+        // Do nothing
+    }
     
     /**
      *  <p>The loader is finished with a file.</p>
@@ -64,6 +64,10 @@ public class LoadListenerBase implements LoadListener {
         visitedFiles.add(event.getFilename());
     }
 
+    public void cachedClassfile(LoadEvent event) {
+        visitedFiles.add(event.getFilename());
+    }
+
     public void endGroup(LoadEvent event) {
         visitedFiles.add(event.getGroupName());
         groups.removeLast();
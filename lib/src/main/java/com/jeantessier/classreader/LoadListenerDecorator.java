@@ -59,6 +59,10 @@ public class LoadListenerDecorator implements LoadListener {
         delegate.endClassfile(event);
     }
 
+    public void cachedClassfile(LoadEvent event) {
+        delegate.cachedClassfile(event);
+    }
+
     public void endFile(LoadEvent event) {
         delegate.endFile(event);
     }
@@ -566,7 +566,7 @@ public class MetricsGatherer extends VisitorBase {
     }
 
     public void visitStackMapTable_attribute(StackMapTable_attribute attribute) {
-        super.visitStackMapTable_attribute(attribute);
+        // Nothing to count in there, so no need to decode it.
         visitAttribute(attribute.getAttributeName());
     }
 
@@ -606,17 +606,17 @@ public class MetricsGatherer extends VisitorBase {
     }
 
     public void visitLineNumberTable_attribute(LineNumberTable_attribute attribute) {
-        super.visitLineNumberTable_attribute(attribute);
+        // Nothing to count in there, so no need to decode it.
         visitAttribute(attribute.getAttributeName());
     }
 
     public void visitLocalVariableTable_attribute(LocalVariableTable_attribute attribute) {
-        super.visitLocalVariableTable_attribute(attribute);
+        // Nothing to count in there, so no need to decode it.
         visitAttribute(attribute.getAttributeName());
     }
 
     public void visitLocalVariableTypeTable_attribute(LocalVariableTypeTable_attribute attribute) {
-        super.visitLocalVariableTypeTable_attribute(attribute);
+        // Nothing to count in there, so no need to decode it.
         visitAttribute(attribute.getAttributeName());
     }
 
@@ -33,7 +33,9 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.attribute.*;
 import java.util.*;
+import java.util.function.*;
 
 import org.apache.logging.log4j.*;
 
@@ -47,14 +49,27 @@ public class ModifiedOnlyDispatcher implements ClassfileLoaderDispatcher {
     }
 
     public ClassfileLoaderAction dispatch(String filename) {
-        ClassfileLoaderAction result = delegate.dispatch(filename);
+        return checkTimestamp(filename, delegate.dispatch(filename), () -> new File(filename).lastModified());
+    }
+
+    public ClassfileLoaderAction dispatch(String filename, BasicFileAttributes attributes) {
+        return checkTimestamp(filename, delegate.dispatch(filename, attributes), () -> attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     *  Archive entries have no timestamp of their own, so an entry is only
+     *  loaded the first time it is dispatched.
+     */
+    public ClassfileLoaderAction dispatchEntry(String entryName) {
+        return checkTimestamp(entryName, delegate.dispatchEntry(entryName), () -> 0L);
+    }
 
+    private ClassfileLoaderAction checkTimestamp(String filename, ClassfileLoaderAction result, LongSupplier lastModifiedSupplier) {
         if (result == ClassfileLoaderAction.CLASS) {
             Long timestamp = timestamps.getOrDefault(filename, Long.MIN_VALUE);
             LogManager.getLogger(getClass()).debug("{} has timestamp {}", filename, timestamp);
 
-            File file = new File(filename);
-            long lastModified = file.lastModified();
+            long lastModified = lastModifiedSupplier.getAsLong();
             if (timestamp >= lastModified) {
                 LogManager.getLogger(getClass()).debug("Already dispatched \"{}\": IGNORE", filename);
                 result = ClassfileLoaderAction.IGNORE;
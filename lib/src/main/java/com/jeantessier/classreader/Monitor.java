@@ -36,7 +36,7 @@ import java.util.*;
 
 import org.apache.logging.log4j.*;
 
-public class Monitor extends LoadListenerVisitorAdapter {
+public class Monitor extends LoadListenerDecorator {
     private final RemoveVisitor removeVisitor;
     
     private final Map<String, String> fileToClass = new HashMap<>();
@@ -49,7 +49,15 @@ public class Monitor extends LoadListenerVisitorAdapter {
     Collection<String> currentFiles = new TreeSet<>();
 
     public Monitor(Visitor addVisitor, RemoveVisitor removeVisitor) {
-        super(addVisitor);
+        this(new LoadListenerVisitorAdapter(addVisitor), removeVisitor);
+    }
+
+    /**
+     *  Use this one when the loader has a {@link ClassfileCache}, so that
+     *  <code>addListener</code> can add classfiles from the cache too.
+     */
+    public Monitor(LoadListener addListener, RemoveVisitor removeVisitor) {
+        super(addListener);
 
         this.removeVisitor = removeVisitor;
     }
@@ -84,6 +92,19 @@ public class Monitor extends LoadListenerVisitorAdapter {
 
         fileToClass.put(event.getFilename(), event.getClassfile().getClassName());
     }
+
+    public void cachedClassfile(LoadEvent event) {
+        LogManager.getLogger(getClass()).debug("cachedClassfile(..., {}, {})", event.getFilename(), event.getClassName());
+
+        if (previousFiles.contains(event.getFilename())) {
+            LogManager.getLogger(getClass()).debug("Removing {} ...", event.getClassName());
+            removeVisitor.removeClass(event.getClassName());
+        }
+
+        super.cachedClassfile(event);
+
+        fileToClass.put(event.getFilename(), event.getClassName());
+    }
     
     public void endFile(LoadEvent event) {
         LogManager.getLogger(getClass()).debug("endFile(..., {}, ...)", event.getFilename());
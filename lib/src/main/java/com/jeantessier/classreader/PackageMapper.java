@@ -47,6 +47,13 @@ public class PackageMapper implements LoadListener {
 
     public void endClassfile(LoadEvent event) {
         Classfile classfile = event.getClassfile();
+
+        // Keep whatever the loader retains, such as a skeleton, rather than the full classfile.
+        var registered = classfile.getLoader().getClassfile(classfile.getClassName());
+        if (registered != null) {
+            classfile = registered;
+        }
+
         String packageName = classfile.getPackageName();
 
         packages.computeIfAbsent(packageName, k -> new HashMap<>()).put(classfile.getClassName(), classfile);
@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.attribute.*;
 import java.util.*;
 
 import org.apache.logging.log4j.*;
@@ -60,29 +61,46 @@ public class PermissiveDispatcher implements ClassfileLoaderDispatcher {
             ".xsl"
     );
 
-    public ClassfileLoaderAction dispatch(String filename) {
-        ClassfileLoaderAction result;
+    private static final SuffixTrie<ClassfileLoaderAction> SUFFIXES = new SuffixTrie<ClassfileLoaderAction>()
+            .put(".jar", ClassfileLoaderAction.JAR)
+            .put(".zip", ClassfileLoaderAction.ZIP)
+            .put(".class", ClassfileLoaderAction.CLASS);
+
+    static {
+        IGNORED_SUFFIXES.forEach(suffix -> SUFFIXES.put(suffix, ClassfileLoaderAction.IGNORE));
+    }
 
+    public ClassfileLoaderAction dispatch(String filename) {
         if (new File(filename).isDirectory()) {
-            result = ClassfileLoaderAction.DIRECTORY;
             LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_DIRECTORY", filename);
-        } else if (filename.endsWith(".jar")) {
-            result = ClassfileLoaderAction.JAR;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_JAR", filename);
-        } else if (filename.endsWith(".zip")) {
-            result = ClassfileLoaderAction.ZIP;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_ZIP", filename);
-        } else if (filename.endsWith(".class")) {
-            result = ClassfileLoaderAction.CLASS;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_CLASS", filename);
-        } else if (IGNORED_SUFFIXES.parallelStream().anyMatch(filename::endsWith)) {
-            result = ClassfileLoaderAction.IGNORE;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_IGNORE", filename);
-        } else {
-            result = ClassfileLoaderAction.ZIP;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_ZIP", filename);
+            return ClassfileLoaderAction.DIRECTORY;
+        }
+
+        return dispatchEntry(filename);
+    }
+
+    public ClassfileLoaderAction dispatch(String filename, BasicFileAttributes attributes) {
+        if (attributes.isDirectory()) {
+            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_DIRECTORY", filename);
+            return ClassfileLoaderAction.DIRECTORY;
+        }
+
+        return dispatchEntry(filename);
+    }
+
+    public ClassfileLoaderAction dispatchEntry(String entryName) {
+        var result = SUFFIXES.match(entryName);
+
+        if (result == null || result == ClassfileLoaderAction.IGNORE) {
+            if (RuntimeImageClassfileLoader.isRuntimeImage(entryName)) {
+                result = ClassfileLoaderAction.RUNTIME_IMAGE;
+            } else if (result == null) {
+                result = ClassfileLoaderAction.ZIP;
+            }
         }
-  
+
+        LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_{}", entryName, result);
+
         return result;
     }
 }
@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ *  <p>Reads classes straight out of a Java runtime image through the
+ *  <code>jrt:/</code> file system, without extracting
+ *  <code>lib/modules</code> first.  Use <code>jrt:/</code> for every
+ *  module in the image, or <code>jrt:/java.base</code> for a single
+ *  one.</p>
+ *
+ *  <p>Each module gets its own group, named after it, for example
+ *  <code>jrt:/java.base</code>.  Classes are named after their location,
+ *  as in <code>jrt:/java.base/java/lang/Object.class</code>.  Like
+ *  directories, module groups have an unknown size of -1.</p>
+ *
+ *  <p>If the underlying loader parses with more than one thread, each
+ *  module's packages are listed in parallel and every class is read on
+ *  the worker thread that parses it.</p>
+ */
+public class RuntimeImageClassfileLoader extends ClassfileLoaderDecorator {
+    public static final String PREFIX = "jrt:/";
+
+    private static final URI ROOT = URI.create(PREFIX);
+    private static final String MODULES = "/modules";
+
+    private final Path javaHome;
+
+    /**
+     *  Reads the image of the running JVM.
+     */
+    public RuntimeImageClassfileLoader(ClassfileLoader loader) {
+        this(loader, null);
+    }
+
+    /**
+     *  Reads the image of the JDK installed at <code>javaHome</code>, or of
+     *  the running JVM if <code>javaHome</code> is <code>null</code>.
+     */
+    public RuntimeImageClassfileLoader(ClassfileLoader loader, Path javaHome) {
+        super(loader);
+        this.javaHome = javaHome;
+    }
+
+    public static boolean isRuntimeImage(String filename) {
+        return filename.startsWith(PREFIX);
+    }
+
+    protected void load(String filename) {
+        LogManager.getLogger(getClass()).debug("Starting runtime image \"{}\"", filename);
+
+        try (var image = open()) {
+            modules(image.fileSystem(), filename).forEach(this::loadModule);
+        } catch (IOException | ProviderNotFoundException ex) {
+            LogManager.getLogger(getClass()).warn("Cannot read runtime image \"{}\"", filename, ex);
+            fireBeginGroup(filename, 0);
+            fireEndGroup(filename);
+        }
+    }
+
+    protected void load(String filename, InputStream in) {
+        // Do nothing
+    }
+
+    private void loadModule(Path module) {
+        var groupName = PREFIX + module.getFileName();
+
+        fireBeginGroup(groupName, -1);
+
+        DirectoryExplorer.explore(module, getParallelism(), (path, attributes) -> {
+            var pathname = PREFIX + module.getFileName() + "/" + module.relativize(path);
+
+            fireBeginFile(pathname);
+
+            if (!attributes.isDirectory() && pathname.endsWith(".class")) {
+                getLoader().load(pathname, new DeferredInputStream(() -> Files.newInputStream(path)));
+            }
+
+            fireEndFile(pathname);
+        });
+
+        fireEndGroup(groupName);
+    }
+
+    /**
+     *  @return the directories of the modules named by <code>filename</code>,
+     *          sorted by module name.
+     */
+    static List<Path> modules(FileSystem fileSystem, String filename) throws IOException {
+        var modules = fileSystem.getPath(MODULES);
+
+        var moduleName = filename.substring(PREFIX.length());
+        if (moduleName.endsWith("/")) {
+            moduleName = moduleName.substring(0, moduleName.length() - 1);
+        }
+
+        if (!moduleName.isEmpty()) {
+            var module = modules.resolve(moduleName);
+            return Files.isDirectory(module) ? List.of(module) : List.of();
+        }
+
+        try (Stream<Path> paths = Files.list(modules)) {
+            return paths
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private RuntimeImage open() throws IOException {
+        if (javaHome == null) {
+            return new RuntimeImage(FileSystems.getFileSystem(ROOT), false);
+        }
+
+        return new RuntimeImage(FileSystems.newFileSystem(ROOT, Map.of("java.home", javaHome.toString())), true);
+    }
+
+    /**
+     *  The file system of the running JVM's image is shared and cannot be
+     *  closed.  Those for other installations are ours to close.
+     */
+    private record RuntimeImage(FileSystem fileSystem, boolean owned) implements Closeable {
+        public void close() throws IOException {
+            if (owned) {
+                fileSystem.close();
+            }
+        }
+    }
+}
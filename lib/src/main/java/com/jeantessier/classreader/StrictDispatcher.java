@@ -33,30 +33,44 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.attribute.*;
+import java.util.function.*;
 
 import org.apache.logging.log4j.*;
 
 public class StrictDispatcher implements ClassfileLoaderDispatcher {
+    private static final SuffixTrie<ClassfileLoaderAction> SUFFIXES = new SuffixTrie<ClassfileLoaderAction>()
+            .put(".jar", ClassfileLoaderAction.JAR)
+            .put(".zip", ClassfileLoaderAction.ZIP)
+            .put(".class", ClassfileLoaderAction.CLASS);
+
     public ClassfileLoaderAction dispatch(String filename) {
-        ClassfileLoaderAction result;
-        
-        if (filename.endsWith(".jar")) {
-            result = ClassfileLoaderAction.JAR;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_JAR", filename);
-        } else if (filename.endsWith(".zip")) {
-            result = ClassfileLoaderAction.ZIP;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_ZIP", filename);
-        } else if (filename.endsWith(".class")) {
-            result = ClassfileLoaderAction.CLASS;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_CLASS", filename);
-        } else if (new File(filename).exists()) {
-            result = ClassfileLoaderAction.DIRECTORY;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_DIRECTORY", filename);
-        } else {
-            result = ClassfileLoaderAction.IGNORE;
-            LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_IGNORE", filename);
+        return dispatch(filename, () -> new File(filename).exists());
+    }
+
+    public ClassfileLoaderAction dispatch(String filename, BasicFileAttributes attributes) {
+        return dispatch(filename, () -> true);
+    }
+
+    public ClassfileLoaderAction dispatchEntry(String entryName) {
+        return dispatch(entryName, () -> false);
+    }
+
+    private ClassfileLoaderAction dispatch(String filename, BooleanSupplier exists) {
+        var result = SUFFIXES.match(filename);
+
+        if (result == null) {
+            if (RuntimeImageClassfileLoader.isRuntimeImage(filename)) {
+                result = ClassfileLoaderAction.RUNTIME_IMAGE;
+            } else if (exists.getAsBoolean()) {
+                result = ClassfileLoaderAction.DIRECTORY;
+            } else {
+                result = ClassfileLoaderAction.IGNORE;
+            }
         }
-        
+
+        LogManager.getLogger(getClass()).debug("Dispatching \"{}\": ACTION_{}", filename, result);
+
         return result;
     }
 }
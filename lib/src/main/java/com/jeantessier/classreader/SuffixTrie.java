@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+
+/**
+ *  Maps suffixes to values by walking names backwards, one character at a
+ *  time, so a lookup costs at most as many steps as the longest suffix no
+ *  matter how many suffixes there are.
+ */
+class SuffixTrie<V> {
+    private final Node<V> root = new Node<>();
+
+    public SuffixTrie<V> put(String suffix, V value) {
+        var node = root;
+
+        for (int i = suffix.length() - 1; i >= 0; i--) {
+            node = node.childOrCreate(suffix.charAt(i));
+        }
+
+        node.value = value;
+
+        return this;
+    }
+
+    /**
+     *  @return the value for the longest suffix of <code>name</code>, or
+     *          <code>null</code> if none of the suffixes match.
+     */
+    public V match(String name) {
+        V result = null;
+
+        var node = root;
+        for (int i = name.length() - 1; i >= 0 && node != null; i--) {
+            node = node.child(name.charAt(i));
+            if (node != null && node.value != null) {
+                result = node.value;
+            }
+        }
+
+        return result;
+    }
+
+    private static class Node<V> {
+        private char[] keys = new char[0];
+        private Node<V>[] children = newChildren(0);
+        private V value;
+
+        private Node<V> child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+
+            return null;
+        }
+
+        private Node<V> childOrCreate(char c) {
+            var result = child(c);
+
+            if (result == null) {
+                result = new Node<>();
+
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                keys[keys.length - 1] = c;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = result;
+            }
+
+            return result;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <V> Node<V>[] newChildren(int size) {
+            return (Node<V>[]) new Node[size];
+        }
+    }
+}
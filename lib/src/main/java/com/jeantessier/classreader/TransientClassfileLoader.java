@@ -46,10 +46,18 @@ public class TransientClassfileLoader extends ClassfileLoaderEventSource {
         super(factory);
     }
 
+    public TransientClassfileLoader(AttributeParsingProfile profile) {
+        this(new DefaultClassfileFactory(profile));
+    }
+
     public TransientClassfileLoader(ClassfileLoaderDispatcher dispatcher) {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public TransientClassfileLoader(AttributeParsingProfile profile, ClassfileLoaderDispatcher dispatcher) {
+        this(new DefaultClassfileFactory(profile), dispatcher);
+    }
+
     private TransientClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
@@ -67,6 +75,6 @@ public class TransientClassfileLoader extends ClassfileLoaderEventSource {
     }
 
     protected Classfile load(DataInput in) throws IOException {
-        return getFactory().create(this, in);
+        return parse(in);
     }
 }
@@ -0,0 +1,214 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ *  Answers questions about the type hierarchy of the classes in a
+ *  {@link ClassfileLoader}: supertypes, subtypes, depth of inheritance,
+ *  and which field or method a class inherits under a given name.
+ *  Results are computed on demand and remembered, so walking a deep
+ *  hierarchy once serves every later question about its members.
+ *  For fields and methods, the index only remembers the name of the
+ *  declaring class and fetches the member from the loader each time, so
+ *  it does not keep alive classfiles that a skeleton loader re-parsed.
+ *
+ *  <p>Get one from {@link ClassfileLoader#getTypeHierarchy()}, which
+ *  starts a fresh index whenever the loader registers new classes.</p>
+ */
+public class TypeHierarchyIndex {
+    private final ClassfileLoader loader;
+
+    private final Map<String, List<String>> supertypes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> depths = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Optional<String>>> fields = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Optional<String>>> methods = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Collection<String>> subtypes;
+
+    public TypeHierarchyIndex(ClassfileLoader loader) {
+        this.loader = loader;
+    }
+
+    public ClassfileLoader getLoader() {
+        return loader;
+    }
+
+    /**
+     *  @return the names of the direct superclass, if any, followed by
+     *          the direct superinterfaces of the named class, or an empty
+     *          list if the loader does not know the class.
+     */
+    public List<String> getSupertypes(String className) {
+        return supertypes.computeIfAbsent(className, name -> {
+            var classfile = getLoader().getClassfile(name);
+            return (classfile != null) ? computeSupertypes(classfile) : List.of();
+        });
+    }
+
+    /**
+     *  @return the names of the loaded classes and interfaces that
+     *          directly extend or implement the named type.
+     */
+    public Collection<String> getSubtypes(String className) {
+        var result = subtypes;
+
+        if (result == null) {
+            var index = new HashMap<String, Collection<String>>();
+            getLoader().getAllClassfiles().forEach(classfile ->
+                    computeSupertypes(classfile).forEach(supertype ->
+                            index.computeIfAbsent(supertype, name -> new TreeSet<>()).add(classfile.getClassName())));
+            index.replaceAll((name, names) -> Collections.unmodifiableCollection(names));
+            result = index;
+            subtypes = result;
+        }
+
+        return result.getOrDefault(className, Collections.emptySet());
+    }
+
+    /**
+     *  Counts the classes along the superclass chain, starting with the
+     *  named one.  A class that is not in the loader counts for one and
+     *  ends the chain.
+     */
+    public int getDepthOfInheritance(String className) {
+        var result = depths.get(className);
+
+        if (result == null) {
+            result = 1;
+
+            var classfile = getLoader().getClassfile(className);
+            if (classfile != null && classfile.hasSuperclass()) {
+                result += getDepthOfInheritance(classfile.getSuperclassName());
+            }
+
+            depths.put(className, result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Looks for a field by name in the class, then in the fields it
+     *  inherits from its superclass and superinterfaces.
+     */
+    public Field_info locateField(Classfile classfile, String name) {
+        return locate(fields, classfile, name, Classfile::getField);
+    }
+
+    public Field_info locateField(String className, String name) {
+        var classfile = getLoader().getClassfile(className);
+        return (classfile != null) ? locateField(classfile, name) : null;
+    }
+
+    /**
+     *  Looks for a method by signature in the class, then in the methods
+     *  it inherits from its superclass and superinterfaces.
+     */
+    public Method_info locateMethod(Classfile classfile, String signature) {
+        return locate(methods, classfile, signature, Classfile::getMethod);
+    }
+
+    public Method_info locateMethod(String className, String signature) {
+        var classfile = getLoader().getClassfile(className);
+        return (classfile != null) ? locateMethod(classfile, signature) : null;
+    }
+
+    private <F extends Feature_info> F locate(Map<String, Map<String, Optional<String>>> cache, Classfile classfile, String key, BiFunction<Classfile, String, F> localLookup) {
+        var resolutions = cache.computeIfAbsent(classfile.getClassName(), name -> new ConcurrentHashMap<>());
+
+        var declaringClassName = resolutions.get(key);
+        if (declaringClassName == null) {
+            var result = resolve(cache, classfile, key, localLookup);
+            resolutions.put(key, Optional.ofNullable(result).map(feature -> feature.getClassfile().getClassName()));
+            return result;
+        }
+
+        return declaringClassName
+                .map(name -> name.equals(classfile.getClassName()) ? classfile : getLoader().getClassfile(name))
+                .map(declaringClass -> localLookup.apply(declaringClass, key))
+                .orElse(null);
+    }
+
+    private <F extends Feature_info> F resolve(Map<String, Map<String, Optional<String>>> cache, Classfile classfile, String key, BiFunction<Classfile, String, F> localLookup) {
+        var localFeature = localLookup.apply(classfile, key);
+        if (localFeature != null) {
+            return localFeature;
+        }
+
+        var superclass = getLoader().getClassfile(classfile.getSuperclassName());
+        if (superclass != null) {
+            var inheritedFeature = locate(cache, superclass, key, localLookup);
+            if (inheritedFeature != null && (inheritedFeature.isPublic() || inheritedFeature.isProtected() || (inheritedFeature.isPackage() && inheritedFeature.getClassfile().getPackageName().equals(superclass.getPackageName())))) {
+                return inheritedFeature;
+            }
+        }
+
+        for (var interfaceName : interfaceNames(classfile)) {
+            var interfaceClassfile = getLoader().getClassfile(interfaceName);
+            if (interfaceClassfile != null) {
+                var interfaceFeature = locate(cache, interfaceClassfile, key, localLookup);
+                if (interfaceFeature != null && (interfaceFeature.isPublic() || interfaceFeature.isProtected())) {
+                    return interfaceFeature;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static List<String> computeSupertypes(Classfile classfile) {
+        var result = new ArrayList<String>();
+
+        if (classfile.hasSuperclass()) {
+            result.add(classfile.getSuperclassName());
+        }
+        result.addAll(interfaceNames(classfile));
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<String> interfaceNames(Classfile classfile) {
+        if (classfile instanceof ClassfileSkeleton skeleton) {
+            return skeleton.getInterfaceNames();
+        }
+
+        return classfile.getAllInterfaces().stream()
+                .map(Class_info::getName)
+                .toList();
+    }
+}
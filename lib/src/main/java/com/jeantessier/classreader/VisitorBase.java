@@ -174,7 +174,9 @@ public abstract class VisitorBase implements Visitor {
      */
 
     protected void visitInstructions(Code_attribute attribute) {
-        attribute.forEach(instruction -> instruction.accept(this));
+        for (var cursor = attribute.cursor(); cursor.next(); ) {
+            cursor.accept(this);
+        }
     }
 
     protected void visitExceptionHandlers(Collection<? extends ExceptionHandler> exceptionHandlers) {
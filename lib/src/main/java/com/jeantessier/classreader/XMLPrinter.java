@@ -558,9 +558,7 @@ public class XMLPrinter extends Printer {
 
         indent().append("<instructions>").eol();
         raiseIndent();
-        for (Instruction instruction : attribute) {
-            instruction.accept(this);
-        }
+        visitInstructions(attribute);
         lowerIndent();
         indent().append("</instructions>").eol();
 
@@ -79,15 +79,9 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
                 .forEach(entry -> {
                     fireBeginFile(entry.getName());
 
-                    LogManager.getLogger(getClass()).debug("Starting ZIP entry {} ({} bytes)", entry.getName(), entry.getSize());
-                    try (InputStream in = zipfile.getInputStream(entry)) {
-                        var bytes = in.readAllBytes(); // readBytes(in);
-
-                        LogManager.getLogger(getClass()).debug("Passing up ZIP entry {} ({} bytes)", entry.getName(), bytes.length);
-                        getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
-                    } catch (IOException ex) {
-                        throw new RuntimeException(ex);
-                    }
+                    // The entry is only inflated if and when something reads it.
+                    LogManager.getLogger(getClass()).debug("Passing up ZIP entry {} ({} bytes)", entry.getName(), entry.getSize());
+                    getLoader().load(entry.getName(), new DeferredInputStream(() -> zipfile.getInputStream(entry)));
 
                     fireEndFile(entry.getName());
                 });
@@ -102,7 +96,7 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
             var bytes = in.readAllBytes();
             
             LogManager.getLogger(getClass()).debug("Passing up ZIP entry {} ({} bytes)", entry.getName(), bytes.length);
-            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
+            getLoader().load(entry.getName(), new DeferredInputStream(bytes));
             
             fireEndFile(entry.getName());
         }
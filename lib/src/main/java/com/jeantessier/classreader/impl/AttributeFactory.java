@@ -39,6 +39,28 @@ import org.apache.logging.log4j.*;
 import com.jeantessier.classreader.*;
 
 public class AttributeFactory {
+    private final AttributeParsingProfile profile;
+
+    public AttributeFactory() {
+        this(AttributeParsingProfile.FULL);
+    }
+
+    public AttributeFactory(AttributeParsingProfile profile) {
+        this.profile = profile;
+    }
+
+    public AttributeParsingProfile getProfile() {
+        return profile;
+    }
+
+    public boolean isDeferred(AttributeType attributeType) {
+        return getProfile().isDeferred(attributeType.getAttributeType());
+    }
+
+    /**
+     *  Returns <code>null</code> if the current profile skips this kind of
+     *  attribute.
+     */
     public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         Attribute_info result;
 
@@ -51,7 +73,11 @@ public class AttributeFactory {
                 LogManager.getLogger(AttributeFactory.class).debug("Attribute name index: {} ({})", nameIndex, name);
 
                 AttributeType attributeType = AttributeType.forName(name);
-                if (attributeType != null) {
+                if (attributeType != null && getProfile().isSkipped(attributeType.getAttributeType())) {
+                    LogManager.getLogger(AttributeFactory.class).debug("Skipping attribute \"{}\"", name);
+                    skip(in);
+                    result = null;
+                } else if (attributeType != null) {
                     result = attributeType.create(constantPool, owner, in, this);
                 } else {
                     LogManager.getLogger(AttributeFactory.class).warn("Unknown attribute name \"{}\"", name);
@@ -72,4 +98,15 @@ public class AttributeFactory {
 
         return result;
     }
+
+    private void skip(DataInput in) throws IOException {
+        int byteCount = in.readInt();
+        while (byteCount > 0) {
+            int skipped = in.skipBytes(byteCount);
+            if (skipped <= 0) {
+                throw new EOFException("Attribute ends past the end of the input");
+            }
+            byteCount -= skipped;
+        }
+    }
 }
@@ -33,7 +33,9 @@
 package com.jeantessier.classreader.impl;
 
 import java.io.*;
-import java.util.Arrays;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
 
 import com.jeantessier.classreader.*;
 
@@ -52,7 +54,7 @@ public enum AttributeType {
 
     STACK_MAP_TABLE(com.jeantessier.classreader.AttributeType.STACK_MAP_TABLE) {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
-            return new StackMapTable_attribute(constantPool, owner, in);
+            return new StackMapTable_attribute(constantPool, owner, in, attributeFactory.isDeferred(this));
         }
     },
 
@@ -100,19 +102,19 @@ public enum AttributeType {
 
     LINE_NUMBER_TABLE(com.jeantessier.classreader.AttributeType.LINE_NUMBER_TABLE) {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
-            return new LineNumberTable_attribute(constantPool, owner, in);
+            return new LineNumberTable_attribute(constantPool, owner, in, attributeFactory.isDeferred(this));
         }
     },
 
     LOCAL_VARIABLE_TABLE(com.jeantessier.classreader.AttributeType.LOCAL_VARIABLE_TABLE) {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
-            return new LocalVariableTable_attribute(constantPool, owner, in);
+            return new LocalVariableTable_attribute(constantPool, owner, in, attributeFactory.isDeferred(this));
         }
     },
 
     LOCAL_VARIABLE_TYPE_TABLE(com.jeantessier.classreader.AttributeType.LOCAL_VARIABLE_TYPE_TABLE) {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
-            return new LocalVariableTypeTable_attribute(constantPool, owner, in);
+            return new LocalVariableTypeTable_attribute(constantPool, owner, in, attributeFactory.isDeferred(this));
         }
     },
 
@@ -224,16 +226,20 @@ public enum AttributeType {
         this.attributeType = attributeType;
     }
 
+    public com.jeantessier.classreader.AttributeType getAttributeType() {
+        return attributeType;
+    }
+
     public String getAttributeName() {
         return attributeType.getAttributeName();
     }
 
     public abstract Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException;
 
+    private static final Map<String, AttributeType> attributeTypesByName = Arrays.stream(values())
+            .collect(Collectors.toMap(AttributeType::getAttributeName, Function.identity()));
+
     public static AttributeType forName(String attributeName) {
-        return Arrays.stream(values())
-                .filter(attributeType -> attributeType.getAttributeName().equals(attributeName))
-                .findFirst()
-                .orElse(null);
+        return attributeTypesByName.get(attributeName);
     }
 }
@@ -39,6 +39,8 @@ import com.jeantessier.classreader.*;
 public class Class_info extends ConstantPoolEntry implements com.jeantessier.classreader.Class_info {
     private final int nameIndex;
 
+    private String name;
+
     public Class_info(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
@@ -63,7 +65,11 @@ public class Class_info extends ConstantPoolEntry implements com.jeantessier.cla
     }
 
     public String getName() {
-        return ClassNameHelper.convertClassName(getRawName().getValue());
+        if (name == null) {
+            name = ClassNameHelper.convertClassName(getRawName().getValue());
+        }
+
+        return name;
     }
 
     public String getPackageName() {
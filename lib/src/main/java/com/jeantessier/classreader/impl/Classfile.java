@@ -67,30 +67,35 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     private final Collection<Method_info> methods = new LinkedList<>();
     private final Collection<Attribute_info> attributes = new LinkedList<>();
 
+    private boolean syntheticFromAttribute;
+    private boolean deprecated;
+    private boolean generic;
+    private EnclosingMethod_attribute enclosingMethod;
+
+    private volatile Map<String, Field_info> fieldsByName;
+    private volatile Map<String, Method_info> methodsBySignature;
+    private volatile Optional<InnerClass> matchingInnerClass;
+
     /**
      *  Parses the input stream and extracts the class description.
      *  You should only call this constructor from a ClassfileLoader.
      */
     public Classfile(ClassfileLoader loader, DataInput in, AttributeFactory attributeFactory) throws IOException {
-        this.loader = loader;
-
-        magicNumber = in.readInt();
-        LogManager.getLogger(getClass()).debug("magic number = 0x{}", () -> Integer.toHexString(magicNumber).toUpperCase());
+        this(loader, Prologue.read(in), in, attributeFactory);
+    }
 
-        if (magicNumber != 0xCAFEBABE) {
-            throw new IOException("Bad magic number");
-        }
-        
-        // Reading the file format's version number
-        minorVersion = in.readUnsignedShort();
-        LogManager.getLogger(getClass()).debug("minor version = {}", minorVersion);
-        majorVersion = in.readUnsignedShort();
-        LogManager.getLogger(getClass()).debug("major version = {}", majorVersion);
+    /**
+     *  Picks up parsing after the constant pool, once the prologue has been
+     *  read on its own.
+     */
+    Classfile(ClassfileLoader loader, Prologue prologue, DataInput in, AttributeFactory attributeFactory) throws IOException {
+        this.loader = loader;
 
-        // Reading the constant pool
-        LogManager.getLogger(getClass()).debug("Reading the constant pool ...");
-        constantPool = new ConstantPool(this, in);
-        LogManager.getLogger(getClass()).debug(constantPool);
+        magicNumber = prologue.magicNumber();
+        minorVersion = prologue.minorVersion();
+        majorVersion = prologue.majorVersion();
+        constantPool = prologue.constantPool();
+        constantPool.setClassfile(this);
 
         // Skipping the access flags
         accessFlags = in.readUnsignedShort();
@@ -147,11 +152,41 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
         IntStream.range(0, attributeCount).forEach(i -> {
             try {
                 LogManager.getLogger(getClass()).debug("Attribute {}:", i);
-                attributes.add(attributeFactory.create(constantPool, this, in));
+                Optional.ofNullable(attributeFactory.create(constantPool, this, in)).ifPresent(attributes::add);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         });
+
+        indexAttributes();
+    }
+
+    /**
+     *  Everything up to and including the constant pool, which is enough to
+     *  tell whether the rest of the class is worth reading.
+     */
+    record Prologue(int magicNumber, int minorVersion, int majorVersion, ConstantPool constantPool) {
+        static Prologue read(DataInput in) throws IOException {
+            var magicNumber = in.readInt();
+            LogManager.getLogger(Classfile.class).debug("magic number = 0x{}", () -> Integer.toHexString(magicNumber).toUpperCase());
+
+            if (magicNumber != 0xCAFEBABE) {
+                throw new IOException("Bad magic number");
+            }
+
+            // Reading the file format's version number
+            var minorVersion = in.readUnsignedShort();
+            LogManager.getLogger(Classfile.class).debug("minor version = {}", minorVersion);
+            var majorVersion = in.readUnsignedShort();
+            LogManager.getLogger(Classfile.class).debug("major version = {}", majorVersion);
+
+            // Reading the constant pool
+            LogManager.getLogger(Classfile.class).debug("Reading the constant pool ...");
+            var constantPool = new ConstantPool(in);
+            LogManager.getLogger(Classfile.class).debug(constantPool);
+
+            return new Prologue(magicNumber, minorVersion, majorVersion, constantPool);
+        }
     }
 
     /**
@@ -173,6 +208,29 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
         this.fields.addAll(fields);
         this.methods.addAll(methods);
         this.attributes.addAll(attributes);
+
+        indexAttributes();
+    }
+
+    /**
+     * Scans the class attributes once so the flags and lookups that depend
+     * on them do not have to search the attribute list on every call.
+     * Finding this class in its InnerClasses attribute means resolving
+     * class names in the constant pool, so that waits until
+     * {@link #getMatchingInnerClass()} first needs it.
+     */
+    private void indexAttributes() {
+        for (var attribute : attributes) {
+            if (attribute instanceof Synthetic_attribute) {
+                syntheticFromAttribute = true;
+            } else if (attribute instanceof Deprecated_attribute) {
+                deprecated = true;
+            } else if (attribute instanceof Signature_attribute) {
+                generic = true;
+            } else if (attribute instanceof EnclosingMethod_attribute enclosingMethod_attribute && enclosingMethod == null) {
+                enclosingMethod = enclosingMethod_attribute;
+            }
+        }
     }
 
     public ClassfileLoader getLoader() {
@@ -240,9 +298,9 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     public Class_info getInterface(String name) {
-        return interfaces.parallelStream()
+        return interfaces.stream()
                 .filter(interfaceInfo -> interfaceInfo.getName().equals(name))
-                .findAny()
+                .findFirst()
                 .orElse(null);
     }
 
@@ -255,37 +313,28 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     public com.jeantessier.classreader.Field_info getField(Predicate<com.jeantessier.classreader.Field_info> filter) {
-        return fields.parallelStream()
+        return fields.stream()
                 .filter(filter)
-                .findAny()
+                .findFirst()
                 .orElse(null);
     }
 
-    public com.jeantessier.classreader.Field_info locateField(Predicate<com.jeantessier.classreader.Field_info> filter) {
-        var localField = getField(filter);
-        if (localField != null) {
-            return localField;
+    public Field_info getField(String name) {
+        if (fieldsByName == null) {
+            var index = new HashMap<String, Field_info>();
+            fields.forEach(field -> index.putIfAbsent(field.getName(), field));
+            fieldsByName = index;
         }
 
-        var superclass = getLoader().getClassfile(getSuperclassName());
-        if (superclass != null) {
-            var inheritedField = superclass.locateField(filter);
-            if (inheritedField != null && (inheritedField.isPublic() || inheritedField.isProtected() || (inheritedField.isPackage() && inheritedField.getClassfile().getPackageName().equals(superclass.getPackageName())))) {
-                return inheritedField;
-            }
-        }
+        return fieldsByName.get(name);
+    }
 
-        for (var interfaceInfo : getAllInterfaces()) {
-            var interfaceClassfile = getLoader().getClassfile(interfaceInfo.getName());
-            if (interfaceClassfile != null) {
-                var interfaceField = interfaceClassfile.locateField(filter);
-                if (interfaceField != null && (interfaceField.isPublic() || interfaceField.isProtected())) {
-                    return interfaceField;
-                }
-            }
-        }
+    public com.jeantessier.classreader.Field_info locateField(Predicate<com.jeantessier.classreader.Field_info> filter) {
+        return locateFeature(getField(filter), classfile -> classfile.locateField(filter));
+    }
 
-        return null;
+    public com.jeantessier.classreader.Field_info locateField(String name) {
+        return getLoader().getTypeHierarchy().locateField(this, name);
     }
 
     public Collection<Method_info> getAllMethods() {
@@ -293,32 +342,49 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     public com.jeantessier.classreader.Method_info getMethod(Predicate<com.jeantessier.classreader.Method_info> filter) {
-        return methods.parallelStream()
+        return methods.stream()
                 .filter(filter)
-                .findAny()
+                .findFirst()
                 .orElse(null);
     }
 
+    public Method_info getMethod(String signature) {
+        if (methodsBySignature == null) {
+            var index = new HashMap<String, Method_info>();
+            methods.forEach(method -> index.putIfAbsent(method.getSignature(), method));
+            methodsBySignature = index;
+        }
+
+        return methodsBySignature.get(signature);
+    }
+
     public com.jeantessier.classreader.Method_info locateMethod(Predicate<com.jeantessier.classreader.Method_info> filter) {
-        var localMethod = getMethod(filter);
-        if (localMethod != null) {
-            return localMethod;
+        return locateFeature(getMethod(filter), classfile -> classfile.locateMethod(filter));
+    }
+
+    public com.jeantessier.classreader.Method_info locateMethod(String signature) {
+        return getLoader().getTypeHierarchy().locateMethod(this, signature);
+    }
+
+    private <F extends com.jeantessier.classreader.Feature_info> F locateFeature(F localFeature, Function<com.jeantessier.classreader.Classfile, F> inheritedLookup) {
+        if (localFeature != null) {
+            return localFeature;
         }
 
         var superclass = getLoader().getClassfile(getSuperclassName());
         if (superclass != null) {
-            var inheritedMethod = superclass.locateMethod(filter);
-            if (inheritedMethod != null && (inheritedMethod.isPublic() || inheritedMethod.isProtected() || (inheritedMethod.isPackage() && inheritedMethod.getClassfile().getPackageName().equals(superclass.getPackageName())))) {
-                return inheritedMethod;
+            var inheritedFeature = inheritedLookup.apply(superclass);
+            if (inheritedFeature != null && (inheritedFeature.isPublic() || inheritedFeature.isProtected() || (inheritedFeature.isPackage() && inheritedFeature.getClassfile().getPackageName().equals(superclass.getPackageName())))) {
+                return inheritedFeature;
             }
         }
 
         for (var interfaceInfo : getAllInterfaces()) {
             var interfaceClassfile = getLoader().getClassfile(interfaceInfo.getName());
             if (interfaceClassfile != null) {
-                var interfaceMethod = interfaceClassfile.locateMethod(filter);
-                if (interfaceMethod != null && (interfaceMethod.isPublic() || interfaceMethod.isProtected())) {
-                    return interfaceMethod;
+                var interfaceFeature = inheritedLookup.apply(interfaceClassfile);
+                if (interfaceFeature != null && (interfaceFeature.isPublic() || interfaceFeature.isProtected())) {
+                    return interfaceFeature;
                 }
             }
         }
@@ -394,15 +460,15 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     private boolean isSyntheticFromAttribute() {
-        return getAttributes().parallelStream().anyMatch(attribute -> attribute instanceof Synthetic_attribute);
+        return syntheticFromAttribute;
     }
 
     public boolean isDeprecated() {
-        return getAttributes().parallelStream().anyMatch(attribute -> attribute instanceof Deprecated_attribute);
+        return deprecated;
     }
 
     public boolean isGeneric() {
-        return getAttributes().parallelStream().anyMatch(attribute -> attribute instanceof Signature_attribute);
+        return generic;
     }
 
     public String getDeclaration() {
@@ -476,27 +542,19 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     private InnerClass getMatchingInnerClass() {
-        for (var attribute : getAttributes()) {
-            if (attribute instanceof InnerClasses_attribute innerClasses_attribute) {
-                for (var innerClass : innerClasses_attribute.getInnerClasses()) {
-                    if (innerClass.getInnerClassInfo().equals(getClassName())) {
-                        return innerClass;
-                    }
-                }
-            }
+        if (matchingInnerClass == null) {
+            matchingInnerClass = attributes.stream()
+                    .filter(attribute -> attribute instanceof InnerClasses_attribute)
+                    .flatMap(attribute -> ((InnerClasses_attribute) attribute).getInnerClasses().stream())
+                    .filter(innerClass -> innerClass.getInnerClassInfo().equals(getClassName()))
+                    .findFirst();
         }
 
-        return null;
+        return matchingInnerClass.orElse(null);
     }
 
     private EnclosingMethod_attribute getEnclosingMethod() {
-        for (var attribute : getAttributes()) {
-            if (attribute instanceof EnclosingMethod_attribute enclosingMethod_attribute) {
-                return enclosingMethod_attribute;
-            }
-        }
-
-        return null;
+        return enclosingMethod;
     }
 
     public boolean equals(Object object) {
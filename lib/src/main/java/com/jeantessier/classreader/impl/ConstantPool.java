@@ -32,20 +32,74 @@
 
 package com.jeantessier.classreader.impl;
 
+import com.jeantessier.classreader.ByteBufferDataInput;
 import com.jeantessier.classreader.TextPrinter;
 import com.jeantessier.classreader.Visitor;
 
 import org.apache.logging.log4j.*;
 
 import java.io.*;
+import java.nio.*;
 import java.util.*;
 
-public class ConstantPool extends ArrayList<com.jeantessier.classreader.ConstantPoolEntry> implements com.jeantessier.classreader.ConstantPool {
-    private final Classfile classfile;
+/**
+ *  <p>Keeps the raw constant pool as parallel arrays: one tag per entry,
+ *  plus the offset of the entry's body in a single copy of the pool's bytes.
+ *  Entry objects are only created when something asks for them, and UTF8
+ *  entries only decode their string when it is first read.</p>
+ *
+ *  <p>Most entries never get looked at during dependency extraction, so
+ *  this saves both parsing time and heap.</p>
+ */
+public class ConstantPool extends AbstractList<com.jeantessier.classreader.ConstantPoolEntry> implements com.jeantessier.classreader.ConstantPool {
+    private static final byte UNUSABLE = 0;
+
+    private static final Class<?>[] ENTRY_TYPES = new Class<?>[ConstantPoolEntry.CONSTANT_Package + 1];
+
+    static {
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Class] = Class_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Fieldref] = FieldRef_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Methodref] = MethodRef_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_InterfaceMethodref] = InterfaceMethodRef_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_String] = String_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Integer] = Integer_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Float] = Float_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Long] = Long_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Double] = Double_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_NameAndType] = NameAndType_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Utf8] = UTF8_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_MethodHandle] = MethodHandle_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_MethodType] = MethodType_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Dynamic] = Dynamic_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_InvokeDynamic] = InvokeDynamic_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Module] = Module_info.class;
+        ENTRY_TYPES[ConstantPoolEntry.CONSTANT_Package] = Package_info.class;
+    }
+
+    // Set by the classfile that adopts a pool read on its own
+    private Classfile classfile;
+
+    private final byte[] tags;
+    private final int[] offsets;
+    private final byte[] data;
+    private final com.jeantessier.classreader.ConstantPoolEntry[] entries;
 
     // Visible for testing
     public ConstantPool() {
         this.classfile = null;
+
+        this.tags = new byte[0];
+        this.offsets = new int[0];
+        this.data = new byte[0];
+        this.entries = new com.jeantessier.classreader.ConstantPoolEntry[0];
+    }
+
+    /**
+     *  Reads a pool that does not belong to a classfile yet, so it can be
+     *  looked at before deciding whether to read the rest of the class.
+     */
+    public ConstantPool(DataInput in) throws IOException {
+        this(null, in);
     }
 
     public ConstantPool(Classfile classfile, DataInput in) throws IOException {
@@ -53,85 +107,228 @@ public class ConstantPool extends ArrayList<com.jeantessier.classreader.Constant
 
         int count = in.readUnsignedShort();
 
-        ensureCapacity(count);
+        tags = new byte[count];
+        offsets = new int[count];
+        entries = new com.jeantessier.classreader.ConstantPoolEntry[count];
 
         // Entry 0 is null
-        add(null);
-
-        for (int i=1; i<count; i++) {
-            byte tag = in.readByte();
-
-            LogManager.getLogger(getClass()).info("Entry {} has tag {} ({})", i, tag, ConstantPoolEntry.stringValueOf(tag));
-
-            switch(tag) {
-                case ConstantPoolEntry.CONSTANT_Class:
-                    add(new Class_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Fieldref:
-                    add(new FieldRef_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Methodref:
-                    add(new MethodRef_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_InterfaceMethodref:
-                    add(new InterfaceMethodRef_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_String:
-                    add(new String_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Integer:
-                    add(new Integer_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Float:
-                    add(new Float_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Long:
-                    add(new Long_info(this, in));
-                    i++;
-                    LogManager.getLogger(getClass()).info("Entry {} is unusable.", i);
-                    add(new UnusableEntry(this, in, "previous entry is tagged CONSTANT_Long_info"));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Double:
-                    add(new Double_info(this, in));
-                    i++;
-                    LogManager.getLogger(getClass()).info("Entry {} is unusable.", i);
-                    add(new UnusableEntry(this, in, "previous entry is tagged CONSTANT_Double_info"));
-                    break;
-                case ConstantPoolEntry.CONSTANT_NameAndType:
-                    add(new NameAndType_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Utf8:
-                    add(new UTF8_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_MethodHandle:
-                    add(new MethodHandle_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_MethodType:
-                    add(new MethodType_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Dynamic:
-                    add(new Dynamic_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_InvokeDynamic:
-                    add(new InvokeDynamic_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Module:
-                    add(new Module_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_Package:
-                    add(new Package_info(this, in));
-                    break;
-                default:
-                    LogManager.getLogger(getClass()).info("Unknown Tag {}", tag);
-                    break;
+        if (in instanceof ByteBufferDataInput input) {
+            data = readPool(input, tags, offsets);
+        } else {
+            data = readPool(in, tags, offsets);
+        }
+    }
+
+    /**
+     *  Walks the pool to find the entries, then copies the pool's bytes in
+     *  one go.  It is a copy, so nothing points back into the loader's
+     *  reusable buffers.
+     */
+    private byte[] readPool(ByteBufferDataInput in, byte[] tags, int[] offsets) throws IOException {
+        var pool = in.remaining();
+        int start = in.getPosition();
+
+        for (int i=1; i<tags.length; i++) {
+            byte tag = readTag(in, i);
+
+            tags[i] = tag;
+            offsets[i] = in.getPosition() - start;
+
+            int length = tag == ConstantPoolEntry.CONSTANT_Utf8 ? in.readUnsignedShort() : bodyLength(tag);
+            if (in.skipBytes(length) != length) {
+                throw new EOFException("Constant pool entry " + i + " runs past the end of the classfile");
+            }
+
+            if (tag == ConstantPoolEntry.CONSTANT_Long || tag == ConstantPoolEntry.CONSTANT_Double) {
+                i++;
+                LogManager.getLogger(getClass()).info("Entry {} is unusable.", i);
+                tags[i] = UNUSABLE;
+                offsets[i] = in.getPosition() - start;
+            }
+        }
+
+        var result = new byte[in.getPosition() - start];
+        pool.get(result);
+        return result;
+    }
+
+    /**
+     *  Reads the entries' bodies straight into a single growing array.
+     */
+    private byte[] readPool(DataInput in, byte[] tags, int[] offsets) throws IOException {
+        var result = new byte[tags.length * 8];
+        int size = 0;
+
+        for (int i=1; i<tags.length; i++) {
+            byte tag = readTag(in, i);
+
+            tags[i] = tag;
+            offsets[i] = size;
+
+            int length;
+            if (tag == ConstantPoolEntry.CONSTANT_Utf8) {
+                length = in.readUnsignedShort();
+                result = ensureCapacity(result, size + 2 + length);
+                result[size++] = (byte) (length >> 8);
+                result[size++] = (byte) length;
+            } else {
+                length = bodyLength(tag);
+                result = ensureCapacity(result, size + length);
+            }
+
+            in.readFully(result, size, length);
+            size += length;
+
+            if (tag == ConstantPoolEntry.CONSTANT_Long || tag == ConstantPoolEntry.CONSTANT_Double) {
+                i++;
+                LogManager.getLogger(getClass()).info("Entry {} is unusable.", i);
+                tags[i] = UNUSABLE;
+                offsets[i] = size;
+            }
+        }
+
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private byte readTag(DataInput in, int index) throws IOException {
+        byte tag = in.readByte();
+        LogManager.getLogger(getClass()).info("Entry {} has tag {} ({})", index, tag, ConstantPoolEntry.stringValueOf(tag));
+        return tag;
+    }
+
+    /**
+     *  @return the length of the body of entries with this tag, for all tags
+     *          but UTF8, whose bodies start with their own length.
+     */
+    private int bodyLength(byte tag) {
+        return switch (tag) {
+            case ConstantPoolEntry.CONSTANT_Class,
+                 ConstantPoolEntry.CONSTANT_String,
+                 ConstantPoolEntry.CONSTANT_MethodType,
+                 ConstantPoolEntry.CONSTANT_Module,
+                 ConstantPoolEntry.CONSTANT_Package -> 2;
+            case ConstantPoolEntry.CONSTANT_MethodHandle -> 3;
+            case ConstantPoolEntry.CONSTANT_Fieldref,
+                 ConstantPoolEntry.CONSTANT_Methodref,
+                 ConstantPoolEntry.CONSTANT_InterfaceMethodref,
+                 ConstantPoolEntry.CONSTANT_Integer,
+                 ConstantPoolEntry.CONSTANT_Float,
+                 ConstantPoolEntry.CONSTANT_NameAndType,
+                 ConstantPoolEntry.CONSTANT_Dynamic,
+                 ConstantPoolEntry.CONSTANT_InvokeDynamic -> 4;
+            case ConstantPoolEntry.CONSTANT_Long,
+                 ConstantPoolEntry.CONSTANT_Double -> 8;
+            default -> {
+                LogManager.getLogger(getClass()).info("Unknown Tag {}", tag);
+                yield 0;
+            }
+        };
+    }
+
+    private static byte[] ensureCapacity(byte[] bytes, int capacity) {
+        return capacity <= bytes.length ? bytes : Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+    }
+
+    public com.jeantessier.classreader.ConstantPoolEntry get(int index) {
+        Objects.checkIndex(index, size());
+
+        // Racing threads can each create an entry, but they will be equal.
+        var result = entries[index];
+        if (result == null && index > 0) {
+            result = createEntry(index);
+            entries[index] = result;
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return tags.length;
+    }
+
+    private ConstantPoolEntry createEntry(int index) {
+        var in = new ByteBufferDataInput(ByteBuffer.wrap(data, offsets[index], data.length - offsets[index]));
+
+        try {
+            return switch (tags[index]) {
+                case ConstantPoolEntry.CONSTANT_Class -> new Class_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Fieldref -> new FieldRef_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Methodref -> new MethodRef_info(this, in);
+                case ConstantPoolEntry.CONSTANT_InterfaceMethodref -> new InterfaceMethodRef_info(this, in);
+                case ConstantPoolEntry.CONSTANT_String -> new String_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Integer -> new Integer_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Float -> new Float_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Long -> new Long_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Double -> new Double_info(this, in);
+                case ConstantPoolEntry.CONSTANT_NameAndType -> new NameAndType_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Utf8 -> new UTF8_info(this, data, offsets[index]);
+                case ConstantPoolEntry.CONSTANT_MethodHandle -> new MethodHandle_info(this, in);
+                case ConstantPoolEntry.CONSTANT_MethodType -> new MethodType_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Dynamic -> new Dynamic_info(this, in);
+                case ConstantPoolEntry.CONSTANT_InvokeDynamic -> new InvokeDynamic_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Module -> new Module_info(this, in);
+                case ConstantPoolEntry.CONSTANT_Package -> new Package_info(this, in);
+                case UNUSABLE -> new UnusableEntry(this, in, "previous entry is tagged " + ConstantPoolEntry.stringValueOf(tags[index - 1]) + "_info");
+                default -> null;
+            };
+        } catch (IOException ex) {
+            // The bytes were all read when the pool was parsed
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     *  Looks at the tags only, without creating any entries.
+     */
+    public boolean containsInstanceOf(Class<? extends com.jeantessier.classreader.ConstantPoolEntry> type) {
+        var matchingTags = new boolean[ENTRY_TYPES.length];
+        for (int tag = 0; tag < ENTRY_TYPES.length; tag++) {
+            matchingTags[tag] = ENTRY_TYPES[tag] != null && type.isAssignableFrom(ENTRY_TYPES[tag]);
+        }
+
+        for (var tag : tags) {
+            if (tag > 0 && tag < matchingTags.length && matchingTags[tag]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *  Compares raw bytes, without creating or decoding any UTF8 entries.
+     */
+    public boolean containsUtf8(String value) {
+        byte[] encoded;
+        try {
+            var out = new ByteArrayOutputStream(value.length() + 2);
+            new DataOutputStream(out).writeUTF(value);
+            encoded = out.toByteArray();
+        } catch (UTFDataFormatException ex) {
+            // Too long to be in any constant pool
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        // Each UTF8 body starts with its length, just like the encoded value
+        for (int i=1; i<tags.length; i++) {
+            if (tags[i] == ConstantPoolEntry.CONSTANT_Utf8 && offsets[i] + encoded.length <= data.length && Arrays.equals(data, offsets[i], offsets[i] + encoded.length, encoded, 0, encoded.length)) {
+                return true;
             }
         }
+
+        return false;
     }
 
     public Classfile getClassfile() {
         return classfile;
     }
 
+    void setClassfile(Classfile classfile) {
+        this.classfile = classfile;
+    }
+
     public void accept(Visitor visitor) {
         visitor.visitConstantPool(this);
     }
@@ -33,6 +33,7 @@
 package com.jeantessier.classreader.impl;
 
 import java.io.*;
+import java.util.function.*;
 
 import com.jeantessier.classreader.*;
 
@@ -43,6 +44,10 @@ public class DefaultClassfileFactory implements ClassfileFactory {
         this(new AttributeFactory());
     }
 
+    public DefaultClassfileFactory(AttributeParsingProfile profile) {
+        this(new AttributeFactory(profile));
+    }
+
     public DefaultClassfileFactory(AttributeFactory attributeFactory) {
         this.attributeFactory = attributeFactory;
     }
@@ -50,4 +55,18 @@ public class DefaultClassfileFactory implements ClassfileFactory {
     public Classfile create(ClassfileLoader loader, DataInput in) throws IOException {
         return new Classfile(loader, in, attributeFactory);
     }
+
+    /**
+     *  Stops right after the constant pool if the prefilter rejects it,
+     *  without reading fields, methods, or attributes.
+     */
+    public Classfile create(ClassfileLoader loader, DataInput in, Predicate<? super com.jeantessier.classreader.ConstantPool> prefilter) throws IOException {
+        var prologue = Classfile.Prologue.read(in);
+
+        if (!prefilter.test(prologue.constantPool())) {
+            return null;
+        }
+
+        return new Classfile(loader, prologue, in, attributeFactory);
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Base class for attributes that can hold on to their raw bytes and only
+ *  decode them when their content is first accessed.  Subclasses call
+ *  {@link #readContent(DataInput, int, boolean)} from their constructor and
+ *  {@link #decodeDeferredContent()} from every accessor.
+ */
+public abstract class DeferrableAttribute_info extends Attribute_info {
+    private byte[] deferredContent;
+
+    protected DeferrableAttribute_info(ConstantPool constantPool, Visitable owner) {
+        super(constantPool, owner);
+    }
+
+    protected void readContent(DataInput in, int byteCount, boolean deferred) throws IOException {
+        if (deferred) {
+            deferredContent = new byte[byteCount];
+            in.readFully(deferredContent);
+        } else {
+            readContent(in);
+        }
+    }
+
+    protected abstract void readContent(DataInput in) throws IOException;
+
+    public synchronized boolean isDeferred() {
+        return deferredContent != null;
+    }
+
+    protected synchronized void decodeDeferredContent() {
+        if (deferredContent != null) {
+            var content = deferredContent;
+            deferredContent = null;
+
+            try {
+                readContent(new ByteBufferDataInput(content));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
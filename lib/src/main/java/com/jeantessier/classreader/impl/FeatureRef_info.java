@@ -34,10 +34,15 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
+import com.jeantessier.text.*;
+
 public abstract class FeatureRef_info extends ConstantPoolEntry implements com.jeantessier.classreader.FeatureRef_info {
     private final int classIndex;
     private final int nameAndTypeIndex;
 
+    private String fullSignature;
+    private String fullUniqueName;
+
     public FeatureRef_info(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
@@ -61,6 +66,22 @@ public abstract class FeatureRef_info extends ConstantPoolEntry implements com.j
         return getSignature();
     }
 
+    public String getFullSignature() {
+        if (fullSignature == null) {
+            fullSignature = SymbolTable.getInstance().intern(getClassName() + "." + getSignature());
+        }
+
+        return fullSignature;
+    }
+
+    public String getFullUniqueName() {
+        if (fullUniqueName == null) {
+            fullUniqueName = SymbolTable.getInstance().intern(getClassName() + "." + getUniqueName());
+        }
+
+        return fullUniqueName;
+    }
+
     public String toString() {
         return getFullUniqueName();
     }
@@ -37,6 +37,8 @@ import java.util.*;
 
 import org.apache.logging.log4j.*;
 
+import com.jeantessier.text.*;
+
 public abstract class Feature_info implements com.jeantessier.classreader.Feature_info {
     private static final int ACC_PUBLIC = 0x0001;
     private static final int ACC_PRIVATE = 0x0002;
@@ -51,6 +53,13 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
     private final int descriptorIndex;
     private final Collection<Attribute_info> attributes = new LinkedList<>();
 
+    private boolean syntheticFromAttribute;
+    private boolean deprecated;
+    private boolean generic;
+
+    private String fullSignature;
+    private String fullUniqueName;
+
     public Feature_info(Classfile classfile, DataInput in) throws IOException {
         this(classfile, in, new AttributeFactory());
     }
@@ -71,7 +80,13 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
         LogManager.getLogger(getClass()).debug("Reading {} {} attribute(s)", attributeCount, getFeatureType());
         for (int i=0; i<attributeCount; i++) {
             LogManager.getLogger(getClass()).debug("{} attribute {}:", getFeatureType(), i);
-            attributes.add(attributeFactory.create(getClassfile().getConstantPool(), this, in));
+            Optional.ofNullable(attributeFactory.create(getClassfile().getConstantPool(), this, in)).ifPresent(attributes::add);
+        }
+
+        for (var attribute : attributes) {
+            syntheticFromAttribute |= attribute instanceof Synthetic_attribute;
+            deprecated |= attribute instanceof Deprecated_attribute;
+            generic |= attribute instanceof Signature_attribute;
         }
     }
 
@@ -128,13 +143,37 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
     }
 
     private boolean isSyntheticFromAttribute() {
-        return getAttributes().parallelStream().anyMatch(attribute -> attribute instanceof Synthetic_attribute);
+        return syntheticFromAttribute;
+    }
+
+    public boolean isDeprecated() {
+        return deprecated;
+    }
+
+    public boolean isGeneric() {
+        return generic;
     }
 
     public String getUniqueName() {
         return getSignature();
     }
 
+    public String getFullSignature() {
+        if (fullSignature == null) {
+            fullSignature = SymbolTable.getInstance().intern(getClassfile().getClassName() + "." + getSignature());
+        }
+
+        return fullSignature;
+    }
+
+    public String getFullUniqueName() {
+        if (fullUniqueName == null) {
+            fullUniqueName = SymbolTable.getInstance().intern(getClassfile().getClassName() + "." + getUniqueName());
+        }
+
+        return fullUniqueName;
+    }
+
     /**
      * Only used for pretty logging in constructor.
      * @return a printable string as to whether this is a field or a method
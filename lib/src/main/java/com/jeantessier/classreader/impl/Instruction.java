@@ -577,7 +577,7 @@ public class Instruction implements com.jeantessier.classreader.Instruction {
 
     private final Code_attribute code;
     private final byte[] bytecode;
-    private final int start;
+    private int start;
 
     public Instruction(Code_attribute code, byte[] bytecode, int start) {
         this.code = code;
@@ -592,6 +592,10 @@ public class Instruction implements com.jeantessier.classreader.Instruction {
     public int getStart() {
         return start;
     }
+
+    void moveTo(int start) {
+        this.start = start;
+    }
     
     public int getOpcode() {
         return getByte(0);
@@ -40,15 +40,23 @@ import org.apache.logging.log4j.*;
 
 import com.jeantessier.classreader.*;
 
-public class LineNumberTable_attribute extends Attribute_info implements com.jeantessier.classreader.LineNumberTable_attribute {
+public class LineNumberTable_attribute extends DeferrableAttribute_info implements com.jeantessier.classreader.LineNumberTable_attribute {
     private final Collection<LineNumber> lineNumbers = new LinkedList<>();
 
     public LineNumberTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
+        this(constantPool, owner, in, false);
+    }
+
+    public LineNumberTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, boolean deferred) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
         LogManager.getLogger(getClass()).debug("Attribute length: {}", byteCount);
 
+        readContent(in, byteCount, deferred);
+    }
+
+    protected void readContent(DataInput in) throws IOException {
         int lineNumberTableLength = in.readUnsignedShort();
         LogManager.getLogger(getClass()).debug("Reading {} line number(s) ...", lineNumberTableLength);
         IntStream.range(0, lineNumberTableLength).forEach(i -> {
@@ -62,6 +70,7 @@ public class LineNumberTable_attribute extends Attribute_info implements com.jea
     }
 
     public Collection<LineNumber> getLineNumbers() {
+        decodeDeferredContent();
         return lineNumbers;
     }
 
@@ -40,15 +40,23 @@ import org.apache.logging.log4j.*;
 
 import com.jeantessier.classreader.*;
 
-public class LocalVariableTable_attribute extends Attribute_info implements com.jeantessier.classreader.LocalVariableTable_attribute {
+public class LocalVariableTable_attribute extends DeferrableAttribute_info implements com.jeantessier.classreader.LocalVariableTable_attribute {
     private final Collection<LocalVariable> localVariables = new LinkedList<>();
 
     public LocalVariableTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
+        this(constantPool, owner, in, false);
+    }
+
+    public LocalVariableTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, boolean deferred) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
         LogManager.getLogger(getClass()).debug("Attribute length: {}", byteCount);
 
+        readContent(in, byteCount, deferred);
+    }
+
+    protected void readContent(DataInput in) throws IOException {
         int localVariableTableLength = in.readUnsignedShort();
         LogManager.getLogger(getClass()).debug("Reading {} local variable(s) ...", localVariableTableLength);
         IntStream.range(0, localVariableTableLength).forEach(i -> {
@@ -62,6 +70,7 @@ public class LocalVariableTable_attribute extends Attribute_info implements com.
     }
 
     public Collection<LocalVariable> getLocalVariables() {
+        decodeDeferredContent();
         return localVariables;
     }
 
@@ -40,15 +40,23 @@ import org.apache.logging.log4j.*;
 
 import com.jeantessier.classreader.*;
 
-public class LocalVariableTypeTable_attribute extends Attribute_info implements com.jeantessier.classreader.LocalVariableTypeTable_attribute {
+public class LocalVariableTypeTable_attribute extends DeferrableAttribute_info implements com.jeantessier.classreader.LocalVariableTypeTable_attribute {
     private final Collection<LocalVariableType> localVariableTypes = new LinkedList<>();
 
     public LocalVariableTypeTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
+        this(constantPool, owner, in, false);
+    }
+
+    public LocalVariableTypeTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, boolean deferred) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
         LogManager.getLogger(getClass()).debug("Attribute length: {}", byteCount);
 
+        readContent(in, byteCount, deferred);
+    }
+
+    protected void readContent(DataInput in) throws IOException {
         int localVariableTableTypeLength = in.readUnsignedShort();
         LogManager.getLogger(getClass()).debug("Reading {} local variable type(s) ...", localVariableTableTypeLength);
         IntStream.range(0, localVariableTableTypeLength).forEach(i -> {
@@ -62,6 +70,7 @@ public class LocalVariableTypeTable_attribute extends Attribute_info implements
     }
 
     public Collection<LocalVariableType> getLocalVariableTypes() {
+        decodeDeferredContent();
         return localVariableTypes;
     }
 
@@ -61,7 +61,7 @@ public class RecordComponent_info implements com.jeantessier.classreader.RecordC
         IntStream.range(0, attributeCount).forEach(i -> {
             try {
                 LogManager.getLogger(getClass()).debug("record component attribute {}:", i);
-                attributes.add(attributeFactory.create(getConstantPool(), this, in));
+                Optional.ofNullable(attributeFactory.create(getConstantPool(), this, in)).ifPresent(attributes::add);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -40,25 +40,40 @@ import java.io.*;
 import java.util.*;
 import java.util.stream.IntStream;
 
-public class StackMapTable_attribute extends Attribute_info implements com.jeantessier.classreader.StackMapTable_attribute {
+public class StackMapTable_attribute extends DeferrableAttribute_info implements com.jeantessier.classreader.StackMapTable_attribute {
     private final Collection<StackMapFrame> entries = new LinkedList<>();
+    private final StackMapFrameFactory stackMapFrameFactory;
 
     public StackMapTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
-        this(constantPool, owner, in, new StackMapFrameFactory(new VerificationTypeInfoFactory()));
+        this(constantPool, owner, in, false);
+    }
+
+    public StackMapTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, boolean deferred) throws IOException {
+        this(constantPool, owner, in, new StackMapFrameFactory(new VerificationTypeInfoFactory()), deferred);
     }
 
     public StackMapTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, StackMapFrameFactory stackMapFrameFactory) throws IOException {
+        this(constantPool, owner, in, stackMapFrameFactory, false);
+    }
+
+    public StackMapTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in, StackMapFrameFactory stackMapFrameFactory, boolean deferred) throws IOException {
         super(constantPool, owner);
 
+        this.stackMapFrameFactory = stackMapFrameFactory;
+
         int byteCount = in.readInt();
         LogManager.getLogger(getClass()).debug("Attribute length: {}", byteCount);
 
+        readContent(in, byteCount, deferred);
+    }
+
+    protected void readContent(DataInput in) throws IOException {
         int numEntries = in.readUnsignedShort();
         LogManager.getLogger(getClass()).debug("Reading {} stack map frame(s) ...", numEntries);
         IntStream.range(0, numEntries).forEach(i -> {
             try {
                 LogManager.getLogger(getClass()).debug("stack map frame {}:", i);
-                entries.add(stackMapFrameFactory.create(constantPool, in));
+                entries.add(stackMapFrameFactory.create(getConstantPool(), in));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -66,6 +81,7 @@ public class StackMapTable_attribute extends Attribute_info implements com.jeant
     }
 
     public Collection<? extends StackMapFrame> getEntries() {
+        decodeDeferredContent();
         return entries;
     }
 
@@ -33,22 +33,65 @@
 package com.jeantessier.classreader.impl;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.charset.*;
 
 import com.jeantessier.classreader.*;
 
 public class UTF8_info extends ConstantPoolEntry implements com.jeantessier.classreader.UTF8_info {
-    private final String value;
+    private final byte[] data;
+    private final int offset;
+    private String value;
 
     public UTF8_info(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
+        data = null;
+        offset = 0;
         value = in.readUTF();
     }
 
+    /**
+     *  Decodes the string lazily, from the modified UTF-8 that starts at
+     *  <code>offset</code> in <code>data</code> with its two-byte length.
+     */
+    UTF8_info(ConstantPool constantPool, byte[] data, int offset) {
+        super(constantPool);
+
+        this.data = data;
+        this.offset = offset;
+    }
+
     public String getValue() {
+        if (value == null) {
+            value = decode();
+        }
+
         return value;
     }
 
+    private String decode() {
+        int length = ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+        int start = offset + 2;
+
+        // Modified UTF-8 encodes 1 to 127 as themselves, and nothing else
+        // as a byte in that range.
+        var isAscii = true;
+        for (int i = start; isAscii && i < start + length; i++) {
+            isAscii = data[i] > 0;
+        }
+
+        if (isAscii) {
+            return new String(data, start, length, StandardCharsets.ISO_8859_1);
+        }
+
+        try {
+            return new ByteBufferDataInput(ByteBuffer.wrap(data, offset, length + 2)).readUTF();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     public String toString() {
         return getValue();
     }
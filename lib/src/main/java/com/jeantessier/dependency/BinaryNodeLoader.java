@@ -0,0 +1,352 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+import static com.jeantessier.dependency.BinaryPrinter.*;
+
+/**
+ *  Reads a dependency graph written by {@link BinaryPrinter}.  It fires the
+ *  same events as {@link NodeLoader}, but only builds the dependency events
+ *  if there are listeners for them.  It decodes the whole file and checks
+ *  its checksum before it adds anything to the factory, so a corrupt file
+ *  leaves the factory as it was.
+ */
+public class BinaryNodeLoader {
+    private final NodeHandler handler;
+
+    public BinaryNodeLoader() {
+        this(new NodeFactory());
+    }
+
+    public BinaryNodeLoader(NodeFactory factory) {
+        this(new NodeHandler(factory));
+    }
+
+    // Only to be used by NodeLoader, to share its factory and its listeners
+    BinaryNodeLoader(NodeHandler handler) {
+        this.handler = handler;
+    }
+
+    public NodeFactory load(String filename) throws IOException {
+        var path = Paths.get(filename);
+        try (var in = Files.newInputStream(path)) {
+            return load(in, Files.size(path));
+        }
+    }
+
+    public NodeFactory load(InputStream in) throws IOException {
+        return load(in, -1);
+    }
+
+    private NodeFactory load(InputStream in, long size) throws IOException {
+        var input = new BinaryInput(in, size);
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a binary dependency graph");
+        }
+
+        int version = input.readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary dependency graph version " + version);
+        }
+
+        var names = new ArrayList<String>();
+        var flags = new IntList();
+        readNodes(input, names, flags);
+
+        var dependencies = new IntList();
+        readDependencies(input, names.size(), dependencies);
+
+        input.verifyChecksum();
+
+        handler.fireBeginSession();
+
+        var nodes = createNodes(names, flags);
+        createDependencies(nodes, dependencies);
+
+        handler.fireEndSession();
+
+        return handler.getFactory();
+    }
+
+    private void readNodes(BinaryInput input, List<String> names, IntList flags) throws IOException {
+        int count = input.readCount("names");
+
+        String previous = "";
+        for (int id = 0; id < count; id++) {
+            int flag = input.readByte();
+            int level = flag & LEVEL_MASK;
+            if (level != PACKAGE && level != CLASS && level != FEATURE) {
+                throw new IOException("Corrupt binary dependency graph: unknown level for name " + id);
+            }
+
+            int shared = input.readVarInt();
+            if (shared < 0 || shared > previous.length()) {
+                throw new IOException("Corrupt binary dependency graph: name " + id + " shares " + shared + " characters with \"" + previous + "\"");
+            }
+
+            var name = previous.substring(0, shared) + input.readString(input.readCount("bytes in name " + id));
+
+            names.add(name);
+            flags.add(flag);
+
+            previous = name;
+        }
+    }
+
+    /**
+     *  Decodes the dependencies into <code>dependencies</code> as, for each
+     *  node: its id, the number of its outbound dependencies and their ids,
+     *  and the number of its inbound dependencies and their ids.
+     */
+    private void readDependencies(BinaryInput input, int nbNodes, IntList dependencies) throws IOException {
+        int count = input.readCount("nodes with dependencies");
+        for (int i = 0; i < count; i++) {
+            dependencies.add(checkId(input.readVarInt(), nbNodes));
+
+            for (int direction = 0; direction < 2; direction++) {
+                int dependencyCount = input.readCount("dependencies");
+                dependencies.add(dependencyCount);
+                for (int j = 0, id = 0; j < dependencyCount; j++) {
+                    id += input.readVarInt();
+                    dependencies.add(checkId(id, nbNodes));
+                }
+            }
+        }
+    }
+
+    private static int checkId(int id, int nbNodes) throws IOException {
+        if (id < 0 || id >= nbNodes) {
+            throw new IOException("Corrupt binary dependency graph: no node " + id);
+        }
+
+        return id;
+    }
+
+    private Node[] createNodes(List<String> names, IntList flags) {
+        var factory = handler.getFactory();
+        var nodes = new Node[names.size()];
+
+        for (int id = 0; id < nodes.length; id++) {
+            var name = names.get(id);
+            int flag = flags.get(id);
+            boolean confirmed = (flag & CONFIRMED) != 0;
+
+            nodes[id] = switch (flag & LEVEL_MASK) {
+                case PACKAGE -> factory.createPackage(name, confirmed);
+                case CLASS -> factory.createClass(name, confirmed);
+                default -> factory.createFeature(name, confirmed);
+            };
+        }
+
+        return nodes;
+    }
+
+    private void createDependencies(Node[] nodes, IntList dependencies) {
+        boolean withEvents = handler.hasDependencyListeners();
+
+        for (int i = 0; i < dependencies.size(); ) {
+            var node = nodes[dependencies.get(i++)];
+
+            if (withEvents && node instanceof ClassNode) {
+                handler.fireBeginClass(node.getName());
+            }
+
+            int outboundCount = dependencies.get(i++);
+            for (int j = 0; j < outboundCount; j++) {
+                var other = nodes[dependencies.get(i++)];
+                node.addDependency(other);
+                if (withEvents) {
+                    handler.fireDependency(node, other);
+                }
+            }
+
+            int inboundCount = dependencies.get(i++);
+            for (int j = 0; j < inboundCount; j++) {
+                var other = nodes[dependencies.get(i++)];
+                other.addDependency(node);
+                if (withEvents) {
+                    handler.fireDependency(other, node);
+                }
+            }
+        }
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        handler.addDependencyListener(listener);
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        handler.removeDependencyListener(listener);
+    }
+
+    /**
+     *  A growable array of ints, for decoding without boxing.
+     */
+    private static class IntList {
+        private int[] values = new int[1024];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     *  Buffers the input and computes the checksum of what has been read.
+     *  If it knows the size of the input, it rejects counts and lengths
+     *  larger than what is left to read.
+     */
+    private static class BinaryInput {
+        private final InputStream in;
+        private final long size;
+        private final CRC32 checksum = new CRC32();
+        private final byte[] buffer = new byte[64 * 1024];
+        private long consumed = 0;
+        private int position = 0;
+        private int limit = 0;
+
+        BinaryInput(InputStream in, long size) {
+            this.in = in;
+            this.size = size;
+        }
+
+        int readByte() throws IOException {
+            if (position == limit) {
+                fill();
+            }
+
+            return buffer[position++] & 0xFF;
+        }
+
+        int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        int readVarInt() throws IOException {
+            int result = 0;
+
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+
+            throw new IOException("Corrupt binary dependency graph: integer too long");
+        }
+
+        /**
+         *  Reads the number of things that follow.  Each of them takes at
+         *  least one byte, so there cannot be more of them than there are
+         *  bytes left.
+         */
+        int readCount(String what) throws IOException {
+            int result = readVarInt();
+
+            if (result < 0 || (size >= 0 && result > size - consumed - position)) {
+                throw new IOException("Corrupt binary dependency graph: " + result + " " + what);
+            }
+
+            return result;
+        }
+
+        String readString(int length) throws IOException {
+            if (limit - position >= length) {
+                var result = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return result;
+            }
+
+            // Grow as the bytes arrive, so a bogus length runs out of input
+            // instead of memory.
+            var bytes = new byte[Math.min(length, 2 * buffer.length)];
+            for (int offset = 0; offset < length; ) {
+                if (position == limit) {
+                    fill();
+                }
+                int count = Math.min(length - offset, limit - position);
+                if (offset + count > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, Math.max(offset + count, 2L * bytes.length)));
+                }
+                System.arraycopy(buffer, position, bytes, offset, count);
+                position += count;
+                offset += count;
+            }
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void verifyChecksum() throws IOException {
+            checksum.update(buffer, 0, position);
+            var expected = (int) checksum.getValue();
+
+            // Past this point, bytes are no longer part of the checksum.
+            checksum.reset();
+            if (readInt() != expected) {
+                throw new IOException("Corrupt binary dependency graph: checksum does not match");
+            }
+        }
+
+        private void fill() throws IOException {
+            checksum.update(buffer, 0, limit);
+            consumed += limit;
+
+            limit = in.readNBytes(buffer, 0, buffer.length);
+            position = 0;
+
+            if (limit == 0) {
+                throw new EOFException("Unexpected end of binary dependency graph");
+            }
+        }
+    }
+}
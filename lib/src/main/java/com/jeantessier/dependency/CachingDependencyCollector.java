@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import org.apache.logging.log4j.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ * <p>Builds the same graph as {@link CodeDependencyCollector}, but goes
+ * through a {@link DependencyCache}.  Classfiles that the loader parsed are
+ * turned into {@link DependencyRecord}s and added to the cache.  Classfiles
+ * that the loader found in the cache are replayed from there.</p>
+ *
+ * <pre>
+ *     var cache = new DependencyCache(Paths.get("dependencies.cache"));
+ *
+ *     var loader = new TransientClassfileLoader();
+ *     loader.setClassfileCache(cache);
+ *     loader.addLoadListener(new CachingDependencyCollector(factory, filterCriteria, cache));
+ *     loader.load(...);
+ *
+ *     cache.save();
+ * </pre>
+ */
+public class CachingDependencyCollector implements LoadListener {
+    private final NodeFactory factory;
+    private final SelectionCriteria filterCriteria;
+    private final DependencyCache cache;
+
+    public CachingDependencyCollector(NodeFactory factory, SelectionCriteria filterCriteria, DependencyCache cache) {
+        this.factory = factory;
+        this.filterCriteria = filterCriteria;
+        this.cache = cache;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    public SelectionCriteria getFilterCriteria() {
+        return filterCriteria;
+    }
+
+    public DependencyCache getCache() {
+        return cache;
+    }
+
+    public void endClassfile(LoadEvent event) {
+        var record = DependencyRecord.of(event.getClassfile());
+
+        if (event.getDigest() != null) {
+            cache.put(event.getDigest(), record);
+        }
+
+        record.replay(getFactory(), getFilterCriteria());
+    }
+
+    public void cachedClassfile(LoadEvent event) {
+        var record = cache.get(event.getDigest());
+
+        if (record != null) {
+            LogManager.getLogger(getClass()).debug("Replaying {} from {}", event.getClassName(), event.getDigest());
+            record.replay(getFactory(), getFilterCriteria());
+        } else {
+            LogManager.getLogger(getClass()).warn("Cannot find {} in the cache", event.getClassName());
+        }
+    }
+}
@@ -33,17 +33,37 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public class ClassNode extends Node {
     private final PackageNode packageNode;
-    private final Collection<FeatureNode> features = new HashSet<>();
+    private final Map<String, FeatureNode> features;
 
-    private final Collection<ClassNode> parents = new HashSet<>();
-    private final Collection<ClassNode> children = new HashSet<>();
+    private final Collection<ClassNode> parents;
+    private final Collection<ClassNode> children;
 
     public ClassNode(PackageNode packageNode, String name, boolean concrete) {
-        super(name, concrete);
+        this(packageNode, name, concrete, false);
+    }
+
+    // Only to be used by NodeFactory
+    ClassNode(PackageNode packageNode, String name, boolean concrete, boolean concurrent) {
+        super(name, concrete, concurrent);
+        this.packageNode = packageNode;
+
+        this.features = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.parents = newSet(concurrent);
+        this.children = newSet(concurrent);
+    }
+
+    // Only to be used by CompactGraph
+    ClassNode(PackageNode packageNode, String name, boolean concrete, CompactGraph graph, int id) {
+        super(name, concrete, graph, id);
         this.packageNode = packageNode;
+
+        this.features = null;
+        this.parents = null;
+        this.children = null;
     }
 
     public String getSimpleName() {
@@ -65,15 +85,21 @@ public class ClassNode extends Node {
     }
 
     public void addFeature(FeatureNode node) {
-        features.add(node);
+        checkNotFrozen();
+        features.putIfAbsent(node.getName(), node);
     }
 
     public void removeFeature(FeatureNode node) {
-        features.remove(node);
+        checkNotFrozen();
+        features.remove(node.getName());
     }
 
     public Collection<FeatureNode> getFeatures() {
-        return Collections.unmodifiableCollection(features);
+        if (isFrozen()) {
+            return getGraph().getFeatures(getId());
+        }
+
+        return Collections.unmodifiableCollection(features.values());
     }
 
     public boolean canAddDependencyTo(Node node) {
@@ -93,29 +119,36 @@ public class ClassNode extends Node {
     }
 
     public void addParent(ClassNode parentClass) {
+        checkNotFrozen();
+        parentClass.checkNotFrozen();
+
         parents.add(parentClass);
         parentClass.children.add(this);
     }
 
     public Collection<ClassNode> getParents() {
+        if (isFrozen()) {
+            return getGraph().getParents(getId());
+        }
+
         return Collections.unmodifiableCollection(parents);
     }
 
     public Collection<ClassNode> getChildren() {
+        if (isFrozen()) {
+            return getGraph().getChildren(getId());
+        }
+
         return Collections.unmodifiableCollection(children);
     }
 
     public FeatureNode getFeature(String featureSimpleName) {
-        FeatureNode result = null;
-
-        String targetName = getName() + "." + featureSimpleName;
-        for (FeatureNode feature : getFeatures()) {
-            if (feature.getName().equals(targetName)) {
-                result = feature;
-            }
+        if (isFrozen()) {
+            var result = getGraph().getFeatures().get(getName() + "." + featureSimpleName);
+            return (result != null && result.getClassNode() == this) ? result : null;
         }
 
-        return result;
+        return features.get(getName() + "." + featureSimpleName);
     }
 
     public Collection<FeatureNode> getInheritedFeatures(String featureSimpleName) {
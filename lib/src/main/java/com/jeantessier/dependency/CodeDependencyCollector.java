@@ -73,6 +73,10 @@ public class CodeDependencyCollector extends com.jeantessier.classreader.Visitor
         return factory;
     }
 
+    public SelectionCriteria getFilterCriteria() {
+        return filterCriteria;
+    }
+
     private Node getCurrent() {
         return current;
     }
@@ -297,13 +301,16 @@ public class CodeDependencyCollector extends com.jeantessier.classreader.Visitor
     private void processClassName(String classname) {
         if (filterCriteria.isMatchingClasses() && filterCriteria.matchesClassName(classname)) {
             LogManager.getLogger(getClass()).debug("    Adding \"{}\"", classname);
-            Node other = getFactory().createClass(classname);
-            getCurrent().addDependency(other);
-            LogManager.getLogger(getClass()).info("Class_info dependency: {} --> {}", getCurrent(), other);
-            fireDependency(getCurrent(), other);
+            addClassDependency(getFactory().createClass(classname));
         }
     }
 
+    protected void addClassDependency(Node other) {
+        getCurrent().addDependency(other);
+        LogManager.getLogger(getClass()).info("Class_info dependency: {} --> {}", getCurrent(), other);
+        fireDependency(getCurrent(), other);
+    }
+
     public void addDependencyListener(DependencyListener listener) {
         dependencyListeners.add(listener);
     }
@@ -0,0 +1,375 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ *  <p>An immutable copy of a dependency graph, made by
+ *  {@link NodeFactory#freeze()}, that takes a fraction of the memory.</p>
+ *
+ *  <p>Every node gets an int id: packages first, then classes, then
+ *  features, each level sorted by name.  Dependencies, the contents of
+ *  packages and classes, and class inheritance are all kept as compressed
+ *  sparse rows: for each node, a range in one shared array of target ids,
+ *  sorted.  Each edge costs four bytes per direction instead of a pair of
+ *  hash set entries.</p>
+ *
+ *  <p>The nodes are still {@link PackageNode}, {@link ClassNode}, and
+ *  {@link FeatureNode} instances, so visitors work on them unchanged, but
+ *  their collections are read-only views over these arrays.  Trying to
+ *  change them throws an {@link UnsupportedOperationException}.</p>
+ */
+public class CompactGraph {
+    private final Node[] nodes;
+    private final int firstClass;
+    private final int firstFeature;
+
+    private final Adjacency outbound;
+    private final Adjacency inbound;
+    private final Adjacency contents;
+    private final Adjacency parents;
+    private final Adjacency children;
+
+    private final Map<String, PackageNode> packageMap;
+    private final Map<String, ClassNode> classMap;
+    private final Map<String, FeatureNode> featureMap;
+
+    CompactGraph(NodeFactory factory) {
+        var sources = Stream.of(factory.getPackages().values(), factory.getClasses().values(), factory.getFeatures().values())
+                .flatMap(level -> level.stream().sorted())
+                .toArray(Node[]::new);
+
+        firstClass = factory.getPackages().size();
+        firstFeature = firstClass + factory.getClasses().size();
+
+        var ids = new IdentityHashMap<Node, Integer>(sources.length * 2);
+        for (int id = 0; id < sources.length; id++) {
+            ids.put(sources[id], id);
+        }
+
+        nodes = new Node[sources.length];
+        for (int id = 0; id < firstClass; id++) {
+            var source = sources[id];
+            nodes[id] = new PackageNode(source.getName(), source.isConfirmed(), this, id);
+        }
+        for (int id = firstClass; id < firstFeature; id++) {
+            var source = (ClassNode) sources[id];
+            var packageNode = (PackageNode) nodes[ids.get(source.getPackageNode())];
+            nodes[id] = new ClassNode(packageNode, source.getName(), source.isConfirmed(), this, id);
+        }
+        for (int id = firstFeature; id < sources.length; id++) {
+            var source = (FeatureNode) sources[id];
+            var classNode = (ClassNode) nodes[ids.get(source.getClassNode())];
+            nodes[id] = new FeatureNode(classNode, source.getName(), source.isConfirmed(), this, id);
+        }
+
+        outbound = new Adjacency(0, sources.length, id -> idsOf(ids, sources[id].getOutboundDependencies()));
+        inbound = new Adjacency(0, sources.length, id -> idsOf(ids, sources[id].getInboundDependencies()));
+        contents = new Adjacency(0, firstFeature, id -> (id < firstClass) ? idsOf(ids, ((PackageNode) sources[id]).getClasses()) : idsOf(ids, ((ClassNode) sources[id]).getFeatures()));
+        parents = new Adjacency(firstClass, firstFeature - firstClass, id -> idsOf(ids, ((ClassNode) sources[id]).getParents()));
+        children = new Adjacency(firstClass, firstFeature - firstClass, id -> idsOf(ids, ((ClassNode) sources[id]).getChildren()));
+
+        packageMap = new LevelMap<>(0, firstClass);
+        classMap = new LevelMap<>(firstClass, firstFeature);
+        featureMap = new LevelMap<>(firstFeature, nodes.length);
+    }
+
+    /**
+     *  @return how many nodes there are, at all levels.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    public Node getNode(int id) {
+        return nodes[id];
+    }
+
+    /**
+     *  @return the id of the node with the same name and level, or -1 if
+     *          there is none in this graph.
+     */
+    public int getId(Node node) {
+        if (node.getGraph() == this) {
+            return node.getId();
+        }
+
+        return idOf(node);
+    }
+
+    public IntStream getOutboundIds(int id) {
+        return outbound.ids(id);
+    }
+
+    public IntStream getInboundIds(int id) {
+        return inbound.ids(id);
+    }
+
+    public Map<String, PackageNode> getPackages() {
+        return packageMap;
+    }
+
+    public Map<String, ClassNode> getClasses() {
+        return classMap;
+    }
+
+    public Map<String, FeatureNode> getFeatures() {
+        return featureMap;
+    }
+
+    Collection<Node> getOutboundDependencies(int id) {
+        return new NodeView<>(outbound, id);
+    }
+
+    Collection<Node> getInboundDependencies(int id) {
+        return new NodeView<>(inbound, id);
+    }
+
+    Collection<ClassNode> getClasses(int packageId) {
+        return new NodeView<>(contents, packageId);
+    }
+
+    Collection<FeatureNode> getFeatures(int classId) {
+        return new NodeView<>(contents, classId);
+    }
+
+    Collection<ClassNode> getParents(int classId) {
+        return new NodeView<>(parents, classId);
+    }
+
+    Collection<ClassNode> getChildren(int classId) {
+        return new NodeView<>(children, classId);
+    }
+
+    private int idOf(Node node) {
+        int from;
+        int to;
+        if (node instanceof PackageNode) {
+            from = 0;
+            to = firstClass;
+        } else if (node instanceof ClassNode) {
+            from = firstClass;
+            to = firstFeature;
+        } else {
+            from = firstFeature;
+            to = nodes.length;
+        }
+
+        var result = Arrays.binarySearch(nodes, from, to, node);
+        return (result >= 0) ? result : -1;
+    }
+
+    /**
+     *  Nodes that are not in the factory, if anything still points to some,
+     *  are left out.
+     */
+    private static int[] idsOf(Map<Node, Integer> ids, Collection<? extends Node> targets) {
+        var result = new int[targets.size()];
+        int size = 0;
+
+        for (var target : targets) {
+            var id = ids.get(target);
+            if (id != null) {
+                result[size++] = id;
+            }
+        }
+
+        Arrays.sort(result, 0, size);
+
+        return (size == result.length) ? result : Arrays.copyOf(result, size);
+    }
+
+    private int idOfName(int from, int to, Object name) {
+        int low = from;
+        int high = to - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = nodes[middle].getName().compareTo((String) name);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     *  Rows of target ids for the nodes from <code>base</code> to
+     *  <code>base + count</code>.
+     */
+    private static class Adjacency {
+        private final int base;
+        private final int[] offsets;
+        private final int[] targets;
+
+        Adjacency(int base, int count, IntFunction<int[]> rows) {
+            this.base = base;
+            this.offsets = new int[count + 1];
+
+            var buffer = new int[Math.max(count, 16)];
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                var row = rows.apply(base + i);
+                if (size + row.length > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + row.length));
+                }
+                System.arraycopy(row, 0, buffer, size, row.length);
+                size += row.length;
+                offsets[i + 1] = size;
+            }
+
+            this.targets = Arrays.copyOf(buffer, size);
+        }
+
+        int from(int id) {
+            return offsets[id - base];
+        }
+
+        int to(int id) {
+            return offsets[id - base + 1];
+        }
+
+        IntStream ids(int id) {
+            return Arrays.stream(targets, from(id), to(id));
+        }
+    }
+
+    private class NodeView<N extends Node> extends AbstractCollection<N> {
+        private final int[] targets;
+        private final int from;
+        private final int to;
+
+        NodeView(Adjacency adjacency, int id) {
+            this.targets = adjacency.targets;
+            this.from = adjacency.from(id);
+            this.to = adjacency.to(id);
+        }
+
+        public int size() {
+            return to - from;
+        }
+
+        public boolean contains(Object object) {
+            if (!(object instanceof Node node)) {
+                return false;
+            }
+
+            var id = getId(node);
+            return id >= 0 && Arrays.binarySearch(targets, from, to, id) >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Iterator<N> iterator() {
+            return new Iterator<>() {
+                private int next = from;
+
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                public N next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return (N) nodes[targets[next++]];
+                }
+            };
+        }
+    }
+
+    private class LevelMap<N extends Node> extends AbstractMap<String, N> {
+        private final int from;
+        private final int to;
+
+        LevelMap(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public int size() {
+            return to - from;
+        }
+
+        public boolean containsKey(Object key) {
+            return key instanceof String && idOfName(from, to, key) >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        public N get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+
+            var id = idOfName(from, to, key);
+            return (id >= 0) ? (N) nodes[id] : null;
+        }
+
+        public Collection<N> values() {
+            return new AbstractCollection<>() {
+                public int size() {
+                    return to - from;
+                }
+
+                @SuppressWarnings("unchecked")
+                public Iterator<N> iterator() {
+                    return IntStream.range(from, to).mapToObj(id -> (N) nodes[id]).iterator();
+                }
+            };
+        }
+
+        public Set<Entry<String, N>> entrySet() {
+            return new AbstractSet<>() {
+                public int size() {
+                    return to - from;
+                }
+
+                public Iterator<Entry<String, N>> iterator() {
+                    return values().stream()
+                            .map(node -> (Entry<String, N>) new SimpleImmutableEntry<>(node.getName(), node))
+                            .iterator();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ * <p>Faster variant of {@link CodeDependencyCollector} for filters that do
+ * not match features, such as when building class- or package-level
+ * graphs.</p>
+ *
+ * <p>Instead of interpreting every instruction that refers to the constant
+ * pool, it resolves each constant pool entry only once per class and keeps
+ * the class nodes it yields.  Each method then only needs to know which
+ * entries its code refers to.  Repeated references to the same entry within
+ * a method are ignored, since they would not add new dependencies.</p>
+ *
+ * <p>It builds the same graph as {@link CodeDependencyCollector}, but may fire
+ * fewer, and differently ordered, dependency events.  If the filter matches
+ * features, it falls back on walking each instruction.</p>
+ */
+public class ConstantPoolDependencyCollector extends CodeDependencyCollector {
+    private final Map<Integer, Collection<Node>> referenceDependables = new HashMap<>();
+    private final Map<Integer, Collection<Node>> dynamicDependables = new HashMap<>();
+    private final BitSet references = new BitSet();
+    private final BitSet dynamicReferences = new BitSet();
+
+    private Collection<Node> recording = null;
+
+    public ConstantPoolDependencyCollector() {
+        super();
+    }
+
+    public ConstantPoolDependencyCollector(NodeFactory factory) {
+        super(factory);
+    }
+
+    public ConstantPoolDependencyCollector(NodeFactory factory, SelectionCriteria filterCriteria) {
+        super(factory, filterCriteria);
+    }
+
+    public void visitClassfile(Classfile classfile) {
+        referenceDependables.clear();
+        dynamicDependables.clear();
+
+        super.visitClassfile(classfile);
+    }
+
+    protected void visitInstructions(Code_attribute attribute) {
+        if (getFilterCriteria().isMatchingFeatures()) {
+            super.visitInstructions(attribute);
+            return;
+        }
+
+        references.clear();
+        dynamicReferences.clear();
+
+        for (var instruction = attribute.cursor(); instruction.next(); ) {
+            switch (instruction.getOpcode()) {
+                case 0x12: // ldc
+                case 0x13: // ldc_w
+                case 0xb2: // getstatic
+                case 0xb3: // putstatic
+                case 0xb4: // getfield
+                case 0xb5: // putfield
+                case 0xb6: // invokevirtual
+                case 0xb7: // invokespecial
+                case 0xb8: // invokestatic
+                case 0xb9: // invokeinterface
+                // case 0xbb: // new
+                case 0xbd: // anewarray
+                case 0xc0: // checkcast
+                case 0xc1: // instanceof
+                case 0xc5: // multianewarray
+                    if (!references.get(instruction.getIndex())) {
+                        references.set(instruction.getIndex());
+                        referenceDependables.computeIfAbsent(instruction.getIndex(), index -> record(List.of(instruction.getIndexedConstantPoolEntry()))).forEach(this::addClassDependency);
+                    }
+                    break;
+                case 0xba: // invokedynamic
+                    if (!dynamicReferences.get(instruction.getIndex())) {
+                        dynamicReferences.set(instruction.getIndex());
+                        dynamicDependables.computeIfAbsent(instruction.getIndex(), index -> record(instruction.getDynamicConstantPoolEntries())).forEach(this::addClassDependency);
+                    }
+                    break;
+                default:
+                    // Do nothing
+                    break;
+            }
+        }
+    }
+
+    protected void addClassDependency(Node other) {
+        if (recording != null) {
+            recording.add(other);
+        } else {
+            super.addClassDependency(other);
+        }
+    }
+
+    private Collection<Node> record(Collection<? extends ConstantPoolEntry> entries) {
+        recording = new LinkedHashSet<>();
+        try {
+            entries.forEach(entry -> entry.accept(this));
+            return recording;
+        } finally {
+            recording = null;
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class CycleDetector extends VisitorBase {
         if (getStrategy().isInFilter(node)) {
             if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
                 addCycle();
-            } else if (!currentPath.contains(node)){
+            } else if (!currentPath.contains(node) && currentPath.size() < getMaximumCycleLength()) {
                 pushNodeOnCurrentPath(node);
                 traverseOutbound(node.getOutboundDependencies());
                 traverseOutbound(node.getClasses());
@@ -106,7 +106,7 @@ public class CycleDetector extends VisitorBase {
         if (getStrategy().isInFilter(node)) {
             if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
                 addCycle();
-            } else if (!currentPath.contains(node)){
+            } else if (!currentPath.contains(node) && currentPath.size() < getMaximumCycleLength()) {
                 pushNodeOnCurrentPath(node);
                 traverseOutbound(node.getOutboundDependencies());
                 traverseOutbound(node.getFeatures());
@@ -133,7 +133,7 @@ public class CycleDetector extends VisitorBase {
         if (getStrategy().isInFilter(node)) {
             if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
                 addCycle();
-            } else if (!currentPath.contains(node)){
+            } else if (!currentPath.contains(node) && currentPath.size() < getMaximumCycleLength()) {
                 pushNodeOnCurrentPath(node);
                 traverseOutbound(node.getOutboundDependencies());
                 popNodeFromCurrentPath(node);
@@ -0,0 +1,249 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.logging.log4j.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ * <p>Keeps {@link DependencyRecord}s on disk, keyed by the digest of the
+ * classfile they came from, so that later runs do not need to parse
+ * classfiles that have not changed.  Give it to a loader with
+ * {@link ClassfileLoaderEventSource#setClassfileCache(ClassfileCache)} and
+ * have a {@link CachingDependencyCollector} listen to that loader.</p>
+ *
+ * <p>Records do not depend on filters, so the same cache can serve runs with
+ * different filters and different classpaths.  Call {@link #save()} at the
+ * end of the run to write new records back to the file.</p>
+ *
+ * <p>Each record remembers how many saves ago it was last used.  Records for
+ * classes that changed or went away stop being used, and {@link #save()}
+ * drops them once they are older than the maximum age, so the file does not
+ * grow forever.</p>
+ */
+public class DependencyCache implements ClassfileCache {
+    public static final int DEFAULT_MAXIMUM_AGE = 10;
+
+    private static final int MAGIC = 0x44464443; // DFDC
+    private static final int VERSION = 2;
+
+    private final Path file;
+    private final int maximumAge;
+    private final Map<String, Entry> records = new ConcurrentHashMap<>();
+    private volatile boolean modified = false;
+
+    public DependencyCache(Path file) {
+        this(file, DEFAULT_MAXIMUM_AGE);
+    }
+
+    /**
+     * Reads existing records from <code>file</code>, if it exists.  A file
+     * that cannot be read is treated as empty and gets overwritten on
+     * {@link #save()}.
+     *
+     * @param maximumAge how many saves a record can go unused before it is
+     *                   dropped; 0 keeps only the records used since the
+     *                   file was read.
+     */
+    public DependencyCache(Path file, int maximumAge) {
+        this.file = file;
+        this.maximumAge = maximumAge;
+
+        if (Files.exists(file)) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Not a dependency cache, or from an incompatible version");
+                }
+
+                for (int i = in.readInt(); i > 0; i--) {
+                    var digest = in.readUTF();
+                    int age = in.readInt();
+                    var record = new byte[in.readInt()];
+                    in.readFully(record);
+                    records.put(digest, new Entry(record, age, false));
+                }
+
+                LogManager.getLogger(getClass()).debug("Read {} record(s) from {}", records.size(), file);
+            } catch (IOException ex) {
+                LogManager.getLogger(getClass()).warn("Ignoring unreadable dependency cache {}", file, ex);
+                records.clear();
+                modified = true;
+            }
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getMaximumAge() {
+        return maximumAge;
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    public String getClassName(String digest) {
+        var record = use(digest);
+        if (record == null) {
+            return null;
+        }
+
+        try {
+            return new DataInputStream(new ByteArrayInputStream(record)).readUTF();
+        } catch (IOException ex) {
+            LogManager.getLogger(getClass()).warn("Ignoring corrupted record {}", digest, ex);
+            return null;
+        }
+    }
+
+    public DependencyRecord get(String digest) {
+        var record = use(digest);
+        if (record == null) {
+            return null;
+        }
+
+        try {
+            return DependencyRecord.read(new DataInputStream(new ByteArrayInputStream(record)));
+        } catch (IOException ex) {
+            LogManager.getLogger(getClass()).warn("Ignoring corrupted record {}", digest, ex);
+            return null;
+        }
+    }
+
+    public void put(String digest, DependencyRecord record) {
+        try {
+            var out = new ByteArrayOutputStream();
+            record.write(new DataOutputStream(out));
+            records.put(digest, new Entry(out.toByteArray(), 0, true));
+            modified = true;
+        } catch (IOException ex) {
+            // Writing to memory does not fail, but DependencyRecord.write() does not know that.
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private byte[] use(String digest) {
+        var entry = records.get(digest);
+        if (entry == null) {
+            return null;
+        }
+
+        entry.used = true;
+        return entry.record;
+    }
+
+    /**
+     * Writes the records to the file, if any were added since it was read or
+     * if some were not used.  Records that were used start their age over,
+     * the others get one save older, and those older than the maximum age
+     * are dropped.  It writes to a temporary file first and then replaces
+     * the cache file, so a failed save leaves the previous cache intact.
+     */
+    public void save() throws IOException {
+        var snapshot = new HashMap<String, Entry>(records.size());
+        records.forEach((digest, entry) -> {
+            if (entry.used) {
+                if (entry.age > 0) {
+                    modified = true;
+                    entry.age = 0;
+                }
+            } else {
+                modified = true;
+                if (entry.age >= maximumAge) {
+                    records.remove(digest, entry);
+                    return;
+                }
+            }
+            snapshot.put(digest, entry);
+        });
+
+        if (!modified) {
+            return;
+        }
+
+        var directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        var tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                out.writeInt(snapshot.size());
+                for (var entry : snapshot.entrySet()) {
+                    var value = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(value.used ? 0 : value.age + 1);
+                    out.writeInt(value.record.length);
+                    out.write(value.record);
+                }
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        LogManager.getLogger(getClass()).debug("Wrote {} record(s) to {}", snapshot.size(), file);
+
+        snapshot.values().forEach(entry -> {
+            if (!entry.used) {
+                entry.age++;
+            }
+            entry.used = false;
+        });
+        modified = false;
+    }
+
+    private static class Entry {
+        private final byte[] record;
+        private int age;
+        private volatile boolean used;
+
+        Entry(byte[] record, int age, boolean used) {
+            this.record = record;
+            this.age = age;
+            this.used = used;
+        }
+    }
+}
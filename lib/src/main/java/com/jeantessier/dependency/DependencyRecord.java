@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ * <p>The nodes and outbound dependencies that {@link CodeDependencyCollector}
+ * extracts from a single classfile, independent of any filter.  A record
+ * can be replayed later into a {@link NodeFactory} with a given filter and
+ * produces the same nodes and dependencies as running the collector with
+ * that filter on the original classfile.</p>
+ *
+ * @see DependencyCache
+ */
+public record DependencyRecord(String className, Collection<String> parents, Collection<Dependable> dependencies, Map<String, Collection<Dependable>> features) {
+    public record Dependable(String name, boolean feature) {}
+
+    public static DependencyRecord of(Classfile classfile) {
+        var factory = new NodeFactory();
+        classfile.accept(new CodeDependencyCollector(factory));
+
+        var classNode = factory.getClasses().get(classfile.getClassName());
+
+        var parents = classNode.getParents().stream()
+                .map(Node::getName)
+                .toList();
+
+        var features = new LinkedHashMap<String, Collection<Dependable>>();
+        classNode.getFeatures().stream()
+                .filter(Node::isConfirmed)
+                .forEach(feature -> features.put(feature.getName(), dependables(feature)));
+
+        return new DependencyRecord(classNode.getName(), parents, dependables(classNode), features);
+    }
+
+    private static Collection<Dependable> dependables(Node node) {
+        return node.getOutboundDependencies().stream()
+                .map(dependable -> new Dependable(dependable.getName(), dependable instanceof FeatureNode))
+                .toList();
+    }
+
+    public void replay(NodeFactory factory, SelectionCriteria filterCriteria) {
+        var classNode = factory.createClass(className(), true);
+        parents().forEach(parent -> classNode.addParent(factory.createClass(parent)));
+        replay(classNode, dependencies(), factory, filterCriteria);
+
+        features().forEach((name, dependencies) -> replay(factory.createFeature(name, true), dependencies, factory, filterCriteria));
+    }
+
+    private void replay(Node dependent, Collection<Dependable> dependencies, NodeFactory factory, SelectionCriteria filterCriteria) {
+        dependencies.forEach(dependable -> {
+            if (dependable.feature()) {
+                if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(dependable.name())) {
+                    dependent.addDependency(factory.createFeature(dependable.name()));
+                }
+            } else {
+                if (filterCriteria.isMatchingClasses() && filterCriteria.matchesClassName(dependable.name())) {
+                    dependent.addDependency(factory.createClass(dependable.name()));
+                }
+            }
+        });
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeUTF(className());
+
+        out.writeInt(parents().size());
+        for (var parent : parents()) {
+            out.writeUTF(parent);
+        }
+
+        write(out, dependencies());
+
+        out.writeInt(features().size());
+        for (var entry : features().entrySet()) {
+            out.writeUTF(entry.getKey());
+            write(out, entry.getValue());
+        }
+    }
+
+    private static void write(DataOutput out, Collection<Dependable> dependencies) throws IOException {
+        out.writeInt(dependencies.size());
+        for (var dependable : dependencies) {
+            out.writeBoolean(dependable.feature());
+            out.writeUTF(dependable.name());
+        }
+    }
+
+    public static DependencyRecord read(DataInput in) throws IOException {
+        var className = in.readUTF();
+
+        var parents = new ArrayList<String>();
+        for (int i = in.readInt(); i > 0; i--) {
+            parents.add(in.readUTF());
+        }
+
+        var dependencies = readDependables(in);
+
+        var features = new LinkedHashMap<String, Collection<Dependable>>();
+        for (int i = in.readInt(); i > 0; i--) {
+            features.put(in.readUTF(), readDependables(in));
+        }
+
+        return new DependencyRecord(className, parents, dependencies, features);
+    }
+
+    private static Collection<Dependable> readDependables(DataInput in) throws IOException {
+        var result = new ArrayList<Dependable>();
+
+        for (int i = in.readInt(); i > 0; i--) {
+            var feature = in.readBoolean();
+            result.add(new Dependable(in.readUTF(), feature));
+        }
+
+        return result;
+    }
+}
@@ -36,7 +36,18 @@ public class FeatureNode extends Node {
     private final ClassNode parent;
 
     public FeatureNode(ClassNode parent, String name, boolean concrete) {
-        super(name, concrete);
+        this(parent, name, concrete, false);
+    }
+
+    // Only to be used by NodeFactory
+    FeatureNode(ClassNode parent, String name, boolean concrete, boolean concurrent) {
+        super(name, concrete, concurrent);
+        this.parent = parent;
+    }
+
+    // Only to be used by CompactGraph
+    FeatureNode(ClassNode parent, String name, boolean concrete, CompactGraph graph, int id) {
+        super(name, concrete, graph, id);
         this.parent = parent;
     }
 
@@ -32,7 +32,17 @@
 
 package com.jeantessier.dependency;
 
+import java.util.*;
+
+/**
+ *  Makes everything that depends on a feature also depend on the features
+ *  it inherits from parent classes.  Each class's inherited features are
+ *  resolved once per feature name and remembered for the rest of the
+ *  traversal, so a deep hierarchy is not walked again for every subclass.
+ */
 public class FeatureResolver implements Visitor {
+    private final Map<ClassNode, Map<String, Collection<FeatureNode>>> inheritedFeatures = new HashMap<>();
+
     public void visitPackageNode(PackageNode node) {
         traverseNodes(node.getClasses());
     }
@@ -42,8 +52,30 @@ public class FeatureResolver implements Visitor {
     }
 
     public void visitFeatureNode(FeatureNode node) {
-        node.getClassNode().getInheritedFeatures(node.getSimpleName()).forEach(inheritedFeature ->
+        getInheritedFeatures(node.getClassNode(), node.getSimpleName()).forEach(inheritedFeature ->
                 node.getInboundDependencies().forEach(dependent ->
                         dependent.addDependency(inheritedFeature)));
     }
+
+    private Collection<FeatureNode> getInheritedFeatures(ClassNode classNode, String featureSimpleName) {
+        var featuresByName = inheritedFeatures.computeIfAbsent(classNode, node -> new HashMap<>());
+
+        var result = featuresByName.get(featureSimpleName);
+        if (result == null) {
+            result = new ArrayList<>();
+
+            var featureNode = classNode.getFeature(featureSimpleName);
+            if (featureNode != null) {
+                result.add(featureNode);
+            }
+
+            for (var parent : classNode.getParents()) {
+                result.addAll(getInheritedFeatures(parent, featureSimpleName));
+            }
+
+            featuresByName.put(featureSimpleName, result);
+        }
+
+        return result;
+    }
 }
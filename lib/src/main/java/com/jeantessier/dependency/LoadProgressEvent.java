@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+public class LoadProgressEvent extends EventObject {
+    private final long bytes;
+    private final long totalBytes;
+    private final long elements;
+
+    public LoadProgressEvent(Object source, long bytes, long totalBytes, long elements) {
+        super(source);
+
+        this.bytes = bytes;
+        this.totalBytes = totalBytes;
+        this.elements = elements;
+    }
+
+    /**
+     *  @return how many bytes have been read so far.  For compressed files,
+     *          these are compressed bytes, so they compare with the size of
+     *          the file.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     *  @return the size of the file, or -1 if it is not known.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     *  @return how many XML elements have been read so far.
+     */
+    public long getElements() {
+        return elements;
+    }
+
+    /**
+     *  @return the percentage of the file read so far, or -1 if the size of
+     *          the file is not known.
+     */
+    public int getPercentage() {
+        return totalBytes > 0 ? (int) (100 * bytes / totalBytes) : -1;
+    }
+}
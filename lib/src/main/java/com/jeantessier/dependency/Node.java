@@ -33,17 +33,53 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public abstract class Node implements Comparable<Node> {
     private final String name;
-    private boolean confirmed;
+    private volatile boolean confirmed;
     
-    private final Collection<Node> inbound  = new HashSet<>();
-    private final Collection<Node> outbound = new HashSet<>();
+    private final Collection<Node> inbound;
+    private final Collection<Node> outbound;
+
+    // Nodes of a frozen graph keep their dependencies in it instead
+    private final CompactGraph graph;
+    private final int id;
 
     public Node(String name, boolean confirmed) {
+        this(name, confirmed, false);
+    }
+
+    // Only to be used by subclasses for NodeFactory
+    Node(String name, boolean confirmed, boolean concurrent) {
+        this.name = name;
+        this.confirmed = confirmed;
+
+        this.inbound = newSet(concurrent);
+        this.outbound = newSet(concurrent);
+
+        this.graph = null;
+        this.id = -1;
+    }
+
+    // Only to be used by CompactGraph
+    Node(String name, boolean confirmed, CompactGraph graph, int id) {
         this.name = name;
         this.confirmed = confirmed;
+
+        this.inbound = null;
+        this.outbound = null;
+
+        this.graph = graph;
+        this.id = id;
+    }
+
+    /**
+     *  Nodes of a concurrent {@link NodeFactory} can take new dependencies
+     *  from many threads at once.
+     */
+    static <T> Set<T> newSet(boolean concurrent) {
+        return concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
     }
 
     public String getName() {
@@ -56,8 +92,31 @@ public abstract class Node implements Comparable<Node> {
 
     // Only to be used by NodeFactory and DeletingVisitor
     void setConfirmed(boolean confirmed) {
+        checkNotFrozen();
         this.confirmed = confirmed;
     }
+
+    /**
+     *  @return whether this node is part of a {@link CompactGraph}, which
+     *          cannot be changed.
+     */
+    public boolean isFrozen() {
+        return graph != null;
+    }
+
+    CompactGraph getGraph() {
+        return graph;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    void checkNotFrozen() {
+        if (isFrozen()) {
+            throw new UnsupportedOperationException("Cannot change " + getName() + ", it is part of a frozen graph");
+        }
+    }
     
     public boolean canAddDependencyTo(Node node) {
         return !equals(node);
@@ -65,6 +124,9 @@ public abstract class Node implements Comparable<Node> {
     
     public void addDependency(Node node) {
         if (canAddDependencyTo(node) && node.canAddDependencyTo(this)) {
+            checkNotFrozen();
+            node.checkNotFrozen();
+
             outbound.add(node);
             node.inbound.add(this);
         }
@@ -75,6 +137,9 @@ public abstract class Node implements Comparable<Node> {
     }
 
     public void removeDependency(Node node) {
+        checkNotFrozen();
+        node.checkNotFrozen();
+
         outbound.remove(node);
         node.inbound.remove(this);
     }
@@ -84,10 +149,18 @@ public abstract class Node implements Comparable<Node> {
     }
 
     public Collection<Node> getInboundDependencies() {
+        if (isFrozen()) {
+            return graph.getInboundDependencies(id);
+        }
+
         return Collections.unmodifiableCollection(inbound);
     }
 
     public Collection<Node> getOutboundDependencies() {
+        if (isFrozen()) {
+            return graph.getOutboundDependencies(id);
+        }
+
         return Collections.unmodifiableCollection(outbound);
     }
 
@@ -33,16 +33,93 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.logging.log4j.*;
-import org.apache.oro.text.perl.*;
 
 public class NodeFactory {
-    private static final Perl5Util perl = new Perl5Util();
+    private final Map<String, PackageNode> packages;
+    private final Map<String, ClassNode> classes;
+    private final Map<String, FeatureNode> features;
 
-    private final Map<String, PackageNode> packages = new HashMap<>();
-    private final Map<String, ClassNode> classes = new HashMap<>();
-    private final Map<String, FeatureNode> features = new HashMap<>();
+    private final boolean concurrent;
+    private final CompactGraph graph;
+
+    public NodeFactory() {
+        this(false);
+    }
+
+    /**
+     *  <p>A concurrent factory can be shared by many threads, each with its
+     *  own {@link CodeDependencyCollector}, to build a single graph.  Its
+     *  nodes keep their dependencies in concurrent sets, so that adding
+     *  dependencies to the same node from different threads is safe.</p>
+     *
+     *  <p>Removing nodes or dependencies while other threads are still
+     *  adding to the graph is not supported.</p>
+     *
+     *  @param concurrent whether the factory and its nodes must be thread-safe.
+     */
+    public NodeFactory(boolean concurrent) {
+        this.packages = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.classes = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.features = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+
+        this.concurrent = concurrent;
+        this.graph = null;
+    }
+
+    private NodeFactory(CompactGraph graph) {
+        this.packages = graph.getPackages();
+        this.classes = graph.getClasses();
+        this.features = graph.getFeatures();
+
+        this.concurrent = false;
+        this.graph = graph;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     *  <p>Copies this graph into a {@link CompactGraph}, for when it is done
+     *  growing and only needs to be read.  This factory is left as it is;
+     *  drop it to get its memory back.</p>
+     *
+     *  <p>The new factory can find existing nodes, but creating new ones
+     *  or confirming existing ones throws an
+     *  {@link UnsupportedOperationException}.</p>
+     *
+     *  @return a factory over the frozen graph.
+     */
+    public NodeFactory freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+
+        return new NodeFactory(new CompactGraph(this));
+    }
+
+    public boolean isFrozen() {
+        return graph != null;
+    }
+
+    /**
+     *  @return the frozen graph, or <code>null</code> if this factory has
+     *          not been frozen.
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    private <N extends Node> N findFrozen(N node, String name, boolean confirmed) {
+        if (node == null || (confirmed && !node.isConfirmed())) {
+            throw new UnsupportedOperationException("Cannot change " + name + ", the graph is frozen");
+        }
+
+        return node;
+    }
 
     public PackageNode createPackage(String packageName) {
         return createPackage(packageName, false);
@@ -53,10 +130,15 @@ public class NodeFactory {
 
         PackageNode result = packages.get(packageName);
 
+        if (isFrozen()) {
+            return findFrozen(result, packageName, confirmed);
+        }
+
         if (result == null) {
-            result = new PackageNode(packageName, confirmed);
-            packages.put(packageName, result);
-            LogManager.getLogger(getClass()).debug("Added package \"{}\"", packageName);
+            result = packages.computeIfAbsent(packageName, key -> {
+                LogManager.getLogger(getClass()).debug("Added package \"{}\"", key);
+                return new PackageNode(key, confirmed, concurrent);
+            });
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -87,6 +169,10 @@ public class NodeFactory {
 
         ClassNode result = classes.get(className);
 
+        if (isFrozen()) {
+            return findFrozen(result, className, confirmed);
+        }
+
         if (result == null) {
             String packageName = "";
             int pos = className.lastIndexOf('.');
@@ -94,10 +180,12 @@ public class NodeFactory {
                 packageName = className.substring(0, pos);
             }
             PackageNode parent = createPackage(packageName, confirmed);
-            result = new ClassNode(parent, className, confirmed);
-            parent.addClass(result);
-            classes.put(className, result);
-            LogManager.getLogger(getClass()).debug("Added class \"{}\"", className);
+            result = classes.computeIfAbsent(className, key -> {
+                var node = new ClassNode(parent, key, confirmed, concurrent);
+                parent.addClass(node);
+                LogManager.getLogger(getClass()).debug("Added class \"{}\"", key);
+                return node;
+            });
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -129,22 +217,18 @@ public class NodeFactory {
 
         FeatureNode result = features.get(featureName);
 
-        if (result == null) {
-            String parentName;
-
-            if (perl.match("/^(.*)\\.[^\\.]*\\(.*\\)(: \\S.*)?$/", featureName)) {
-                parentName = perl.group(1);
-            } else if (perl.match("/^(.*)\\.[^\\.]*$/", featureName)) {
-                parentName = perl.group(1);
-            } else {
-                parentName = "";
-            }
+        if (isFrozen()) {
+            return findFrozen(result, featureName, confirmed);
+        }
 
-            ClassNode parent = createClass(parentName, confirmed);
-            result = new FeatureNode(parent, featureName, confirmed);
-            parent.addFeature(result);
-            features.put(featureName, result);
-            LogManager.getLogger(getClass()).debug("Added feature \"{}\"", featureName);
+        if (result == null) {
+            ClassNode parent = createClass(parseClassName(featureName), confirmed);
+            result = features.computeIfAbsent(featureName, key -> {
+                var node = new FeatureNode(parent, key, confirmed, concurrent);
+                parent.addFeature(node);
+                LogManager.getLogger(getClass()).debug("Added feature \"{}\"", key);
+                return node;
+            });
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -155,6 +239,122 @@ public class NodeFactory {
         return result;
     }
     
+    /**
+     *  <p>Finds the name of the class in a feature name, which is everything
+     *  up to the last dot before the simple name of the feature.  For
+     *  methods, that is the last dot before the opening parenthesis, since
+     *  parameter and return types have dots of their own.</p>
+     *
+     *  <p>A method signature is an opening parenthesis, anything, and a
+     *  closing parenthesis, optionally followed by <code>": "</code> and a
+     *  return type.  Anything else is a field, whose class ends at the last
+     *  dot.</p>
+     *
+     *  @return the name of the class, or an empty string if there is none.
+     */
+    static String parseClassName(String featureName) {
+        for (int openParen = featureName.lastIndexOf('('); openParen > 0; openParen = featureName.lastIndexOf('(', openParen - 1)) {
+            if (isSignature(featureName, openParen)) {
+                int dot = featureName.lastIndexOf('.', openParen - 1);
+                if (dot != -1) {
+                    return featureName.substring(0, dot);
+                }
+            }
+        }
+
+        int dot = featureName.lastIndexOf('.');
+        return (dot != -1) ? featureName.substring(0, dot) : "";
+    }
+
+    private static boolean isSignature(String featureName, int openParen) {
+        int length = featureName.length();
+
+        if (featureName.charAt(length - 1) == ')' && length - 1 > openParen) {
+            return true;
+        }
+
+        for (int closeParen = featureName.indexOf("): ", openParen + 1); closeParen != -1; closeParen = featureName.indexOf("): ", closeParen + 1)) {
+            if (closeParen + 3 < length && !Character.isWhitespace(featureName.charAt(closeParen + 3))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *  <p>Adds the nodes and dependencies of other graphs to this one.  A
+     *  node is confirmed if it is confirmed in any of the graphs.  Unlike
+     *  {@link GraphCopier}, this copies everything, including class
+     *  inheritance, without going through a traversal.</p>
+     *
+     *  <p>This lets you build partial graphs independently, on different
+     *  threads for instance, and combine them at the end.</p>
+     *
+     *  @return this factory, with the other graphs in it.
+     */
+    public NodeFactory merge(NodeFactory... others) {
+        for (var other : others) {
+            if (other != this) {
+                mergeNodes(other);
+                mergeDependencies(other);
+            }
+        }
+
+        return this;
+    }
+
+    private void mergeNodes(NodeFactory other) {
+        other.getPackages().values().forEach(node -> createPackage(node.getName(), node.isConfirmed()));
+        other.getClasses().values().forEach(node -> createClass(node.getName(), node.isConfirmed()));
+        other.getFeatures().values().forEach(node -> createFeature(node.getName(), node.isConfirmed()));
+    }
+
+    private void mergeDependencies(NodeFactory other) {
+        for (var node : other.getPackages().values()) {
+            var copy = packages.get(node.getName());
+            node.getOutboundDependencies().forEach(target -> copy.addDependency(find(target)));
+        }
+
+        for (var node : other.getClasses().values()) {
+            var copy = classes.get(node.getName());
+            node.getOutboundDependencies().forEach(target -> copy.addDependency(find(target)));
+            node.getParents().forEach(parent -> copy.addParent((ClassNode) find(parent)));
+        }
+
+        for (var node : other.getFeatures().values()) {
+            var copy = features.get(node.getName());
+            node.getOutboundDependencies().forEach(target -> copy.addDependency(find(target)));
+        }
+    }
+
+    /**
+     *  Finds the node with the same name and type in this factory, creating
+     *  it if it is not there.
+     */
+    private Node find(Node node) {
+        Node result;
+
+        if (node instanceof FeatureNode) {
+            result = features.get(node.getName());
+            if (result == null) {
+                result = createFeature(node.getName());
+            }
+        } else if (node instanceof ClassNode) {
+            result = classes.get(node.getName());
+            if (result == null) {
+                result = createClass(node.getName());
+            }
+        } else {
+            result = packages.get(node.getName());
+            if (result == null) {
+                result = createPackage(node.getName());
+            }
+        }
+
+        return result;
+    }
+
     // Only to be used by DeletingVisitor
     void deleteFeature(FeatureNode node) {
         LogManager.getLogger(getClass()).debug("Delete feature \"{}\"", node);
@@ -34,7 +34,6 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.logging.log4j.*;
 import org.xml.sax.*;
 import org.xml.sax.helpers.*;
 
@@ -47,14 +46,13 @@ public class NodeHandler extends DefaultHandler {
 
     private int          currentNodeType;
     private int          currentDependencyType;
-    private Attributes   currentDependencyAttributes;
+    private boolean      currentDependencyConfirmed;
     private Node         currentNode;
-    private Attributes   currentPackageAttributes;
-    private Attributes   currentClassAttributes;
-    private Attributes   currentFeatureAttributes;
-    private final StringBuffer currentName = new StringBuffer();
+    private boolean      currentNodeConfirmed;
+    private final StringBuilder currentName = new StringBuilder();
 
     private final Collection<DependencyListener> dependencyListeners = new HashSet<>();
+    private final Collection<LoadProgressListener> loadProgressListeners = new HashSet<>();
 
     public NodeHandler() {
         this(new NodeFactory());
@@ -69,25 +67,19 @@ public class NodeHandler extends DefaultHandler {
     }
 
     public void startElement(String namespaceURI, String localName, String qName, Attributes atts) throws SAXException {
-        LogManager.getLogger(getClass()).debug("qName = {}", qName);
-
-        for (int i=0; i<atts.getLength(); i++) {
-            LogManager.getLogger(getClass()).debug("    {}: {}", atts.getQName(i), atts.getValue(i));
-        }
-
-        currentName.delete(0, currentName.length());
+        currentName.setLength(0);
 
         if ("dependencies".equals(qName)) {
             fireBeginSession();
         } else if ("package".equals(qName)) {
             currentNodeType = PACKAGE;
-            currentPackageAttributes = new AttributesImpl(atts);
+            currentNodeConfirmed = isConfirmed(atts);
         } else if ("class".equals(qName)) {
             currentNodeType = CLASS;
-            currentClassAttributes = new AttributesImpl(atts);
+            currentNodeConfirmed = isConfirmed(atts);
         } else if ("feature".equals(qName)) {
             currentNodeType = FEATURE;
-            currentFeatureAttributes = new AttributesImpl(atts);
+            currentNodeConfirmed = isConfirmed(atts);
         } else if ("inbound".equals(qName) || "outbound".equals(qName)) {
             if ("package".equals(atts.getValue("type"))) {
                 currentDependencyType = PACKAGE;
@@ -96,59 +88,32 @@ public class NodeHandler extends DefaultHandler {
             } else if ("feature".equals(atts.getValue("type"))) {
                 currentDependencyType = FEATURE;
             }
-            currentDependencyAttributes = new AttributesImpl(atts);
+            currentDependencyConfirmed = isConfirmed(atts);
         }
-
-        LogManager.getLogger(getClass()).debug("    current node type: {}", currentNodeType);
-        LogManager.getLogger(getClass()).debug("    current dependency type: {}", currentDependencyType);
     }
 
     public void endElement(String namespaceURI, String localName, String qName) throws SAXException {
-        LogManager.getLogger(getClass()).debug("qName = {}", qName);
-
         if ("dependencies".equals(qName)) {
             fireEndSession();
         } else if ("name".equals(qName)) {
-            LogManager.getLogger(getClass()).debug("    Processing <name> tag:");
-            LogManager.getLogger(getClass()).debug("        current name: {}", currentName);
-            LogManager.getLogger(getClass()).debug("        current node type: {}", currentNodeType);
-
             switch (currentNodeType) {
                 case PACKAGE:
-                    currentNode = getFactory().createPackage(currentName.toString(), isConfirmed(currentPackageAttributes));
+                    currentNode = getFactory().createPackage(currentName.toString(), currentNodeConfirmed);
                     break;
                 case CLASS:
-                    currentNode = getFactory().createClass(currentName.toString(), isConfirmed(currentClassAttributes));
+                    currentNode = getFactory().createClass(currentName.toString(), currentNodeConfirmed);
                     fireBeginClass(currentNode.getName());
                     break;
                 case FEATURE:
-                    currentNode = getFactory().createFeature(currentName.toString(), isConfirmed(currentFeatureAttributes));
+                    currentNode = getFactory().createFeature(currentName.toString(), currentNodeConfirmed);
                     break;
             }
         } else if ("outbound".equals(qName)) {
-            LogManager.getLogger(getClass()).debug("    Processing <outbound> tag:");
-            LogManager.getLogger(getClass()).debug("        current_name: {}", currentName);
-            LogManager.getLogger(getClass()).debug("        current_dependency_type: {}", currentDependencyType);
-
-            Node other = switch (currentDependencyType) {
-                case PACKAGE -> getFactory().createPackage(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                case CLASS -> getFactory().createClass(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                case FEATURE -> getFactory().createFeature(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                default -> null;
-            };
+            Node other = createDependency();
             currentNode.addDependency(other);
             fireDependency(currentNode, other);
         } else if ("inbound".equals(qName)) {
-            LogManager.getLogger(getClass()).debug("    Processing <inbound> tag:");
-            LogManager.getLogger(getClass()).debug("        current_name: {}", currentName);
-            LogManager.getLogger(getClass()).debug("        current_dependency_type: {}", currentDependencyType);
-
-            Node other = switch (currentDependencyType) {
-                case PACKAGE -> getFactory().createPackage(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                case CLASS -> getFactory().createClass(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                case FEATURE -> getFactory().createFeature(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                default -> null;
-            };
+            Node other = createDependency();
             other.addDependency(currentNode);
             fireDependency(other, currentNode);
         }
@@ -156,11 +121,20 @@ public class NodeHandler extends DefaultHandler {
 
     public void characters(char[] ch, int start, int length) throws SAXException {
         currentName.append(ch, start, length);
-        LogManager.getLogger(getClass()).debug("characters: \"{}\"", () -> new String(ch, start, length));
+    }
+
+    private Node createDependency() {
+        return switch (currentDependencyType) {
+            case PACKAGE -> getFactory().createPackage(currentName.toString(), currentDependencyConfirmed);
+            case CLASS -> getFactory().createClass(currentName.toString(), currentDependencyConfirmed);
+            case FEATURE -> getFactory().createFeature(currentName.toString(), currentDependencyConfirmed);
+            default -> null;
+        };
     }
 
     private boolean isConfirmed(Attributes atts) {
-        return atts.getValue("confirmed") == null || "yes".equalsIgnoreCase(atts.getValue("confirmed"));
+        var confirmed = atts.getValue("confirmed");
+        return confirmed == null || "yes".equalsIgnoreCase(confirmed);
     }
 
     public void addDependencyListener(DependencyListener listener) {
@@ -171,6 +145,18 @@ public class NodeHandler extends DefaultHandler {
         dependencyListeners.remove(listener);
     }
 
+    boolean hasDependencyListeners() {
+        return !dependencyListeners.isEmpty();
+    }
+
+    public void addLoadProgressListener(LoadProgressListener listener) {
+        loadProgressListeners.add(listener);
+    }
+
+    public void removeLoadProgressListener(LoadProgressListener listener) {
+        loadProgressListeners.remove(listener);
+    }
+
     protected void fireBeginSession() {
         DependencyEvent event = new DependencyEvent(this);
         dependencyListeners.forEach(listener -> listener.beginSession(event));
@@ -195,4 +181,11 @@ public class NodeHandler extends DefaultHandler {
         DependencyEvent event = new DependencyEvent(this);
         dependencyListeners.forEach(listener -> listener.endSession(event));
     }
+
+    protected void fireProgress(long bytes, long totalBytes, long elements) {
+        if (!loadProgressListeners.isEmpty()) {
+            LoadProgressEvent event = new LoadProgressEvent(this, bytes, totalBytes, elements);
+            loadProgressListeners.forEach(listener -> listener.progress(event));
+        }
+    }
 }
@@ -39,11 +39,19 @@ import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
-import java.io.FileReader;
+import javax.xml.stream.XMLStreamException;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.zip.GZIPInputStream;
 
+/**
+ *  <p>Loads dependency graphs.  Without validation, it reads XML with a
+ *  {@link StreamingNodeLoader}, which also reads gzipped XML and reports
+ *  its progress to {@link LoadProgressListener}s.  With validation, it
+ *  reads XML with SAX so it can check the document against its DTD.</p>
+ */
 public class NodeLoader {
     private static final boolean DEFAULT_VALIDATE = false;
 
@@ -67,17 +75,58 @@ public class NodeLoader {
         this.validate = validate;
     }
 
+    /**
+     *  @return whether the file is a dependency graph, in XML, in gzipped
+     *          XML, or in the binary format of {@link BinaryPrinter}.
+     */
+    public static boolean isGraphFile(String filename) {
+        return filename.endsWith(".xml") || filename.endsWith(".xml.gz") || BinaryPrinter.isBinaryGraph(filename);
+    }
+
+    /**
+     *  Reads files that end in {@value BinaryPrinter#FILE_EXTENSION} with a
+     *  {@link BinaryNodeLoader}, and all others as XML.  The XML parser reads
+     *  the encoding from the document itself.
+     */
     public NodeFactory load(String filename) throws IOException, SAXException, ParserConfigurationException {
-        try (FileReader in = new FileReader(filename)) {
-            return load(in);
+        if (BinaryPrinter.isBinaryGraph(filename)) {
+            return new BinaryNodeLoader(handler).load(filename);
+        }
+
+        if (!validate) {
+            try {
+                return new StreamingNodeLoader(handler).load(filename);
+            } catch (XMLStreamException ex) {
+                throw new SAXException("Could not read " + filename + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        try (InputStream in = new FileInputStream(filename)) {
+            return load(filename.endsWith(".gz") ? new GZIPInputStream(in) : in);
         }
     }
 
     public NodeFactory load(InputStream in) throws IOException, ParserConfigurationException, SAXException {
+        if (!validate) {
+            try {
+                return new StreamingNodeLoader(handler).load(in);
+            } catch (XMLStreamException ex) {
+                throw new SAXException(ex.getMessage(), ex);
+            }
+        }
+
         return load(new InputSource(in));
     }
 
     public NodeFactory load(Reader in) throws IOException, ParserConfigurationException, SAXException {
+        if (!validate) {
+            try {
+                return new StreamingNodeLoader(handler).load(in);
+            } catch (XMLStreamException ex) {
+                throw new SAXException(ex.getMessage(), ex);
+            }
+        }
+
         return load(new InputSource(in));
     }
 
@@ -113,4 +162,12 @@ public class NodeLoader {
     public void removeDependencyListener(DependencyListener listener) {
         handler.removeDependencyListener(listener);
     }
+
+    public void addLoadProgressListener(LoadProgressListener listener) {
+        handler.addLoadProgressListener(listener);
+    }
+
+    public void removeLoadProgressListener(LoadProgressListener listener) {
+        handler.removeLoadProgressListener(listener);
+    }
 }
@@ -35,10 +35,22 @@ package com.jeantessier.dependency;
 import java.util.*;
 
 public class PackageNode extends Node {
-    private final Collection<ClassNode> classes = new HashSet<>();
+    private final Collection<ClassNode> classes;
 
     public PackageNode(String name, boolean concrete) {
-        super(name, concrete);
+        this(name, concrete, false);
+    }
+
+    // Only to be used by NodeFactory
+    PackageNode(String name, boolean concrete, boolean concurrent) {
+        super(name, concrete, concurrent);
+        this.classes = newSet(concurrent);
+    }
+
+    // Only to be used by CompactGraph
+    PackageNode(String name, boolean concrete, CompactGraph graph, int id) {
+        super(name, concrete, graph, id);
+        this.classes = null;
     }
 
     // Only to be used by NodeFactory and DeletingVisitor
@@ -47,14 +59,20 @@ public class PackageNode extends Node {
     }
 
     public void addClass(ClassNode node) {
+        checkNotFrozen();
         classes.add(node);
     }
 
     public void removeClass(ClassNode node) {
+        checkNotFrozen();
         classes.remove(node);
     }
     
     public Collection<ClassNode> getClasses() {
+        if (isFrozen()) {
+            return getGraph().getClasses(getId());
+        }
+
         return Collections.unmodifiableCollection(classes);
     }
 
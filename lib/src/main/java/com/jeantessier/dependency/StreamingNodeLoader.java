@@ -0,0 +1,282 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.zip.*;
+import javax.xml.stream.*;
+
+import org.apache.logging.log4j.*;
+
+import static javax.xml.stream.XMLStreamConstants.*;
+
+/**
+ *  <p>Reads a dependency graph in XML with a StAX pull parser.  It reads the
+ *  attributes it needs as it meets each element, instead of copying them,
+ *  and the factory keeps one copy of each name.  It fires the same events
+ *  as {@link NodeHandler}, but only builds the dependency events if there are
+ *  listeners for them.</p>
+ *
+ *  <p>It reads gzipped documents transparently, whatever their name.  It
+ *  tells {@link LoadProgressListener}s how many bytes and elements it has
+ *  read every {@value #PROGRESS_INTERVAL} elements, and once more at the
+ *  end.</p>
+ *
+ *  <p>It does not validate the document against its DTD;
+ *  {@link NodeLoader} uses SAX for that.</p>
+ */
+public class StreamingNodeLoader {
+    public static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int PACKAGE = 1;
+    private static final int CLASS   = 2;
+    private static final int FEATURE = 3;
+
+    private final NodeHandler handler;
+
+    private CountingInputStream counter;
+    private long totalBytes;
+    private long elements;
+
+    public StreamingNodeLoader() {
+        this(new NodeFactory());
+    }
+
+    public StreamingNodeLoader(NodeFactory factory) {
+        this(new NodeHandler(factory));
+    }
+
+    // Only to be used by NodeLoader, to share its factory and its listeners
+    StreamingNodeLoader(NodeHandler handler) {
+        this.handler = handler;
+    }
+
+    public NodeFactory load(String filename) throws IOException, XMLStreamException {
+        try (var in = new FileInputStream(filename)) {
+            return load(in, in.getChannel().size());
+        }
+    }
+
+    public NodeFactory load(InputStream in) throws IOException, XMLStreamException {
+        return load(in, -1);
+    }
+
+    public NodeFactory load(Reader in) throws XMLStreamException {
+        startProgress(null, -1);
+        return load(newInputFactory().createXMLStreamReader(in));
+    }
+
+    private NodeFactory load(InputStream in, long size) throws IOException, XMLStreamException {
+        var counter = new CountingInputStream(in);
+        startProgress(counter, size);
+        return load(newInputFactory().createXMLStreamReader(decompress(counter)));
+    }
+
+    private InputStream decompress(InputStream in) throws IOException {
+        var result = new BufferedInputStream(in, BUFFER_SIZE);
+
+        result.mark(2);
+        int magic = result.read() | (result.read() << 8);
+        result.reset();
+
+        if (magic == GZIPInputStream.GZIP_MAGIC) {
+            return new GZIPInputStream(result, BUFFER_SIZE);
+        }
+
+        return result;
+    }
+
+    private XMLInputFactory newInputFactory() {
+        var result = XMLInputFactory.newFactory();
+
+        // The DTD is only for validation, and fetching it would only slow us down.
+        result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return result;
+    }
+
+    private NodeFactory load(XMLStreamReader reader) throws XMLStreamException {
+        var factory = handler.getFactory();
+        boolean fireDependencies = handler.hasDependencyListeners();
+
+        int nodeType = 0;
+        boolean nodeConfirmed = false;
+        Node currentNode = null;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == START_ELEMENT) {
+                    countElement();
+
+                    switch (reader.getLocalName()) {
+                        case "dependencies" -> handler.fireBeginSession();
+                        case "package" -> {
+                            nodeType = PACKAGE;
+                            nodeConfirmed = isConfirmed(reader);
+                        }
+                        case "class" -> {
+                            nodeType = CLASS;
+                            nodeConfirmed = isConfirmed(reader);
+                        }
+                        case "feature" -> {
+                            nodeType = FEATURE;
+                            nodeConfirmed = isConfirmed(reader);
+                        }
+                        case "name" -> {
+                            currentNode = createNode(factory, nodeType, reader.getElementText(), nodeConfirmed);
+                            if (nodeType == CLASS) {
+                                handler.fireBeginClass(currentNode.getName());
+                            }
+                        }
+                        case "outbound" -> {
+                            var other = createDependency(factory, reader);
+                            if (other != null) {
+                                currentNode.addDependency(other);
+                                if (fireDependencies) {
+                                    handler.fireDependency(currentNode, other);
+                                }
+                            }
+                        }
+                        case "inbound" -> {
+                            var other = createDependency(factory, reader);
+                            if (other != null) {
+                                other.addDependency(currentNode);
+                                if (fireDependencies) {
+                                    handler.fireDependency(other, currentNode);
+                                }
+                            }
+                        }
+                    }
+                } else if (event == END_ELEMENT && "dependencies".equals(reader.getLocalName())) {
+                    handler.fireEndSession();
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        handler.fireProgress(bytes(), totalBytes, elements);
+
+        return factory;
+    }
+
+    private Node createDependency(NodeFactory factory, XMLStreamReader reader) throws XMLStreamException {
+        var type = reader.getAttributeValue(null, "type");
+        boolean confirmed = isConfirmed(reader);
+        var name = reader.getElementText();
+
+        int dependencyType = switch (type == null ? "" : type) {
+            case "package" -> PACKAGE;
+            case "class" -> CLASS;
+            case "feature" -> FEATURE;
+            default -> 0;
+        };
+
+        if (dependencyType == 0) {
+            LogManager.getLogger(getClass()).warn("Skipping dependency on \"{}\" of unknown type \"{}\"", name, type);
+            return null;
+        }
+
+        return createNode(factory, dependencyType, name, confirmed);
+    }
+
+    private Node createNode(NodeFactory factory, int type, String name, boolean confirmed) {
+        return switch (type) {
+            case PACKAGE -> factory.createPackage(name, confirmed);
+            case CLASS -> factory.createClass(name, confirmed);
+            case FEATURE -> factory.createFeature(name, confirmed);
+            default -> throw new IllegalStateException("<name> outside of <package>, <class>, or <feature>");
+        };
+    }
+
+    private boolean isConfirmed(XMLStreamReader reader) {
+        var confirmed = reader.getAttributeValue(null, "confirmed");
+        return confirmed == null || "yes".equalsIgnoreCase(confirmed);
+    }
+
+    private void startProgress(CountingInputStream counter, long totalBytes) {
+        this.counter = counter;
+        this.totalBytes = totalBytes;
+        this.elements = 0;
+    }
+
+    private void countElement() {
+        if (++elements % PROGRESS_INTERVAL == 0) {
+            handler.fireProgress(bytes(), totalBytes, elements);
+        }
+    }
+
+    private long bytes() {
+        return counter != null ? counter.getCount() : -1;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        public CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                count++;
+            }
+            return result;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result != -1) {
+                count += result;
+            }
+            return result;
+        }
+
+        public long skip(long n) throws IOException {
+            long result = super.skip(n);
+            count += result;
+            return result;
+        }
+    }
+}
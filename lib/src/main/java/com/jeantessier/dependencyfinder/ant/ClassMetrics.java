@@ -105,7 +105,7 @@ public class ClassMetrics extends Task {
 
         MetricsGatherer metrics = new MetricsGatherer();
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(AttributeParsingProfile.METRICS);
         loader.addLoadListener(verboseListener);
         loader.addLoadListener(new LoadListenerVisitorAdapter(metrics));
         loader.load(Arrays.asList(getPath().list()));
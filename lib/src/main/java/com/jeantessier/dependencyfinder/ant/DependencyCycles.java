@@ -222,7 +222,7 @@ public class DependencyCycles extends GraphTask {
             for (String filename : getSrc().list()) {
                 log("Reading graph from " + filename);
 
-                if (filename.endsWith(".xml")) {
+                if (NodeLoader.isGraphFile(filename)) {
                     NodeLoader loader = new NodeLoader(factory, getValidate());
                     loader.addDependencyListener(verboseListener);
                     loader.load(filename);
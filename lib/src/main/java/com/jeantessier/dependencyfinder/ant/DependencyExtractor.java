@@ -32,12 +32,16 @@
 
 package com.jeantessier.dependencyfinder.ant;
 
-import com.jeantessier.classreader.ClassfileLoader;
+import com.jeantessier.classreader.AttributeParsingProfile;
 import com.jeantessier.classreader.LoadListenerVisitorAdapter;
 import com.jeantessier.classreader.TransientClassfileLoader;
+import com.jeantessier.dependency.BinaryPrinter;
+import com.jeantessier.dependency.CachingDependencyCollector;
 import com.jeantessier.dependency.CodeDependencyCollector;
 import com.jeantessier.dependency.CollectionSelectionCriteria;
 import com.jeantessier.dependency.ComprehensiveSelectionCriteria;
+import com.jeantessier.dependency.ConstantPoolDependencyCollector;
+import com.jeantessier.dependency.DependencyCache;
 import com.jeantessier.dependency.LinkMaximizer;
 import com.jeantessier.dependency.LinkMinimizer;
 import com.jeantessier.dependency.NodeFactory;
@@ -76,6 +80,7 @@ public class DependencyExtractor extends Task {
     private String  dtdPrefix  = com.jeantessier.dependency.XMLPrinter.DEFAULT_DTD_PREFIX;
     private String  indentText;
     private File    destfile;
+    private File    cache;
     private Path    path;
 
     public String getFilterincludes() {
@@ -245,6 +250,14 @@ public class DependencyExtractor extends Task {
     public void setDestfile(File destfile) {
         this.destfile = destfile;
     }
+
+    public File getCache() {
+        return cache;
+    }
+
+    public void setCache(File cache) {
+        this.cache = cache;
+    }
     
     public Path createPath() {
         if (path == null) {
@@ -278,13 +291,31 @@ public class DependencyExtractor extends Task {
         VerboseListener verboseListener = new VerboseListener(this);
 
         NodeFactory factory = new NodeFactory();
-        CodeDependencyCollector collector = new CodeDependencyCollector(factory, getFilterCriteria());
-        
-        ClassfileLoader loader = new TransientClassfileLoader();
-        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+
+        TransientClassfileLoader loader = new TransientClassfileLoader(AttributeParsingProfile.DEPENDENCIES);
         loader.addLoadListener(verboseListener);
+
+        DependencyCache dependencyCache = null;
+        if (getCache() != null) {
+            log("Using dependency cache " + getCache().getAbsolutePath());
+            dependencyCache = new DependencyCache(getCache().toPath());
+            loader.setClassfileCache(dependencyCache);
+            loader.addLoadListener(new CachingDependencyCollector(factory, getFilterCriteria(), dependencyCache));
+        } else {
+            CodeDependencyCollector collector = new ConstantPoolDependencyCollector(factory, getFilterCriteria());
+            loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+        }
+
         loader.load(Arrays.asList(getPath().list()));
 
+        if (dependencyCache != null) {
+            try {
+                dependencyCache.save();
+            } catch (IOException ex) {
+                throw new BuildException(ex);
+            }
+        }
+
         if (getMinimize()) {
             LinkMinimizer minimizer = new LinkMinimizer();
             minimizer.traverseNodes(factory.getPackages().values());
@@ -296,6 +327,13 @@ public class DependencyExtractor extends Task {
         log("Saving dependency graph to " + getDestfile().getAbsolutePath());
         
         try {
+            if (BinaryPrinter.isBinaryGraph(getDestfile().getName())) {
+                try (var out = new BufferedOutputStream(new FileOutputStream(getDestfile()))) {
+                    new BinaryPrinter(out).traverseNodes(factory.getPackages().values());
+                }
+                return;
+            }
+
             PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
 
             com.jeantessier.dependency.Printer printer;
@@ -512,7 +512,7 @@ public class DependencyReporter extends GraphTask {
 
                 Collection<PackageNode> packages = Collections.emptyList();
 
-                if (filename.endsWith(".xml")) {
+                if (NodeLoader.isGraphFile(filename)) {
                     NodeLoader loader = new NodeLoader(getValidate());
                     loader.addDependencyListener(verboseListener);
                     packages = loader.load(filename).getPackages().values();
@@ -531,6 +531,13 @@ public class DependencyReporter extends GraphTask {
 
             log("Saving dependency graph to " + getDestfile().getAbsolutePath());
 
+            if (BinaryPrinter.isBinaryGraph(getDestfile().getName())) {
+                try (var out = new BufferedOutputStream(new FileOutputStream(getDestfile()))) {
+                    new BinaryPrinter(out).traverseNodes(copier.getScopeFactory().getPackages().values());
+                }
+                return;
+            }
+
             PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
 
             Printer printer;
@@ -84,7 +84,8 @@ public class ListDeprecatedElements extends Task {
             VerboseListener    verboseListener = new VerboseListener(this);
             DeprecationPrinter printer         = new DeprecationPrinter(out);
             
-            ClassfileLoader loader = new AggregatingClassfileLoader();
+            var loader = new AggregatingClassfileLoader();
+            loader.setPrefilter(DeprecationPrinter.PREFILTER);
             loader.addLoadListener(verboseListener);
             loader.addLoadListener(new LoadListenerVisitorAdapter(printer));
             loader.load(Arrays.asList(getPath().list()));
@@ -69,6 +69,12 @@ public class VerboseListener extends VerboseListenerBase implements DependencyLi
 
         task.log("Loading " + event.getClassfile() + " ...", Project.MSG_VERBOSE);
     }
+
+    public void cachedClassfile(LoadEvent event) {
+        super.cachedClassfile(event);
+
+        task.log("Loading " + event.getClassName() + " from cache ...", Project.MSG_VERBOSE);
+    }
     
     public void endFile(LoadEvent event) {
         super.endFile(event);
@@ -50,7 +50,8 @@ public class ClassFinder extends DirectoryExplorerCommand {
     public void doProcessing() throws Exception {
         ClassMatcher matcher = new ClassMatcher(getCommandLine().getMultipleSwitch("includes"), getCommandLine().getMultipleSwitch("excludes"));
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        var loader = new TransientClassfileLoader();
+        loader.setPrefilter(matcher::mayMatch);
         loader.addLoadListener(matcher);
         loader.addLoadListener(getVerboseListener());
         loader.load(getCommandLine().getParameters());
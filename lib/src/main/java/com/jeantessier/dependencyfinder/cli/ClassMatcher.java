@@ -67,6 +67,17 @@ public class ClassMatcher extends LoadListenerBase {
         }
     }
 
+    /**
+     *  A class's own name is among the class names in its constant pool,
+     *  so a class whose pool has none that match cannot match either.
+     */
+    public boolean mayMatch(ConstantPool constantPool) {
+        return constantPool.stream()
+                .filter(Class_info.class::isInstance)
+                .map(entry -> ((Class_info) entry).getName())
+                .anyMatch(this::matches);
+    }
+
     private boolean matches(String name) {
         return matches(includes, name) && !matches(excludes, name);
     }
@@ -57,7 +57,7 @@ public class ClassMetrics extends DirectoryExplorerCommand {
 
         MetricsGatherer metrics = new MetricsGatherer();
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(AttributeParsingProfile.METRICS);
         loader.addLoadListener(getVerboseListener());
         loader.addLoadListener(new LoadListenerVisitorAdapter(metrics));
         loader.load(getCommandLine().getParameters());
@@ -39,8 +39,10 @@ import com.jeantessier.commandline.CommandLineUsage;
 import com.jeantessier.commandline.ParameterStrategy;
 import com.jeantessier.commandline.Printer;
 import com.jeantessier.commandline.TextPrinter;
+import com.jeantessier.dependency.BinaryPrinter;
 import com.jeantessier.dependency.CollectionSelectionCriteria;
 import com.jeantessier.dependency.ComprehensiveSelectionCriteria;
+import com.jeantessier.dependency.Node;
 import com.jeantessier.dependency.NullSelectionCriteria;
 import com.jeantessier.dependency.RegularExpressionSelectionCriteria;
 import com.jeantessier.dependency.SelectionCriteria;
@@ -55,6 +57,7 @@ import java.util.stream.*;
 public abstract class Command {
     public static final String DEFAULT_LOGFILE = "System.out";
     public static final String DEFAULT_INCLUDES = "//";
+    public static final String DEFAULT_PARALLELISM = "1";
 
     private CommandLine commandLine;
     private CommandLineUsage commandLineUsage;
@@ -173,6 +176,24 @@ public abstract class Command {
         return exceptions;
     }
 
+    protected Collection<CommandLineException> validateCommandLineForParallelism() {
+        Collection<CommandLineException> exceptions = new ArrayList<>();
+
+        try {
+            if (getParallelism() < 1) {
+                exceptions.add(new CommandLineException("-parallelism must be at least 1"));
+            }
+        } catch (NumberFormatException ex) {
+            exceptions.add(new CommandLineException("-parallelism must be a number, got \"" + getCommandLine().getSingleSwitch("parallelism") + "\""));
+        }
+
+        return exceptions;
+    }
+
+    protected int getParallelism() {
+        return Integer.parseInt(getCommandLine().getSingleSwitch("parallelism"));
+    }
+
     private void process() throws Exception {
         startProcessing();
         doProcessing();
@@ -307,6 +328,10 @@ public abstract class Command {
         populateListCommandLineSwitches("stop");
     }
 
+    protected void populateCommandLineSwitchesForParallelism() {
+        getCommandLine().addSingleValueSwitch("parallelism", DEFAULT_PARALLELISM);
+    }
+
     protected void populateRegularExpressionCommandLineSwitches(String name, boolean addToggles, String defaultIncludes) {
         if (defaultIncludes != null) {
             getCommandLine().addMultipleValuesSwitch(name + "-includes", defaultIncludes);
@@ -448,6 +473,21 @@ public abstract class Command {
         return out;
     }
 
+    /**
+     *  @return whether <code>-out</code> names a file in the binary graph
+     *          format, which has to be written with {@link #printBinaryGraph(Collection)}
+     *          instead of through {@link #getOut()}.
+     */
+    protected boolean isBinaryGraphOut() {
+        return getCommandLine().isPresent("out") && BinaryPrinter.isBinaryGraph(getCommandLine().getSingleSwitch("out"));
+    }
+
+    protected void printBinaryGraph(Collection<? extends Node> nodes) throws IOException {
+        try (var out = new BufferedOutputStream(Files.newOutputStream(Paths.get(getCommandLine().getSingleSwitch("out"))))) {
+            new BinaryPrinter(out).traverseNodes(nodes);
+        }
+    }
+
     protected void setOut(PrintWriter out) {
         this.out = out;
     }
@@ -32,6 +32,8 @@
 
 package com.jeantessier.dependencyfinder.cli;
 
+import java.io.*;
+import java.nio.file.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
@@ -43,6 +45,10 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         super.populateCommandLineSwitches();
         populateCommandLineSwitchesForXMLOutput(com.jeantessier.dependency.XMLPrinter.DEFAULT_ENCODING, com.jeantessier.dependency.XMLPrinter.DEFAULT_DTD_PREFIX, com.jeantessier.dependency.XMLPrinter.DEFAULT_INDENT_TEXT);
         populateCommandLineSwitchesForFiltering();
+        populateCommandLineSwitchesForParallelism();
+
+        getCommandLine().addSingleValueSwitch("cache");
+        getCommandLine().addSingleValueSwitch("jdk-baseline");
 
         getCommandLine().addToggleSwitch("maximize");
         getCommandLine().addToggleSwitch("minimize");
@@ -54,6 +60,7 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         Collection<CommandLineException> exceptions = super.parseCommandLine(args);
 
         exceptions.addAll(validateCommandLineForFiltering());
+        exceptions.addAll(validateCommandLineForParallelism());
 
         if (getCommandLine().getToggleSwitch("maximize") && getCommandLine().getToggleSwitch("minimize")) {
             exceptions.add(new CommandLineException("Only one of -maximize or -minimize is allowed"));
@@ -66,12 +73,39 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         SelectionCriteria filterCriteria = getFilterCriteria();
 
         NodeFactory factory = new NodeFactory();
-        CodeDependencyCollector collector = new CodeDependencyCollector(factory, filterCriteria);
 
-        ClassfileLoader loader = new TransientClassfileLoader();
-        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+        var loader = new TransientClassfileLoader(AttributeParsingProfile.DEPENDENCIES);
+        loader.setParallelism(getParallelism());
         loader.addLoadListener(getVerboseListener());
-        loader.load(getCommandLine().getParameters());
+
+        DependencyCache cache = null;
+        LoadListener collector;
+        if (getCommandLine().isPresent("cache")) {
+            cache = new DependencyCache(Paths.get(getCommandLine().getSingleSwitch("cache")));
+            loader.setClassfileCache(cache);
+            collector = new CachingDependencyCollector(factory, filterCriteria, cache);
+        } else {
+            collector = new LoadListenerVisitorAdapter(new ConstantPoolDependencyCollector(factory, filterCriteria));
+        }
+
+        if (getParallelism() > 1) {
+            // Build the graph on its own thread while the others keep parsing.
+            collector = new AsynchronousLoadListener(collector);
+        }
+
+        loader.addLoadListener(collector);
+
+        var parameters = getCommandLine().getParameters();
+        if (getCommandLine().isPresent("jdk-baseline")) {
+            parameters = loadJdkBaseline(factory, loader, parameters);
+        }
+
+        loader.load(parameters);
+
+        if (cache != null) {
+            getVerboseListener().print("Saving the cache ...");
+            cache.save();
+        }
 
         if (getCommandLine().getToggleSwitch("minimize")) {
             LinkMinimizer minimizer = new LinkMinimizer();
@@ -83,6 +117,11 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
 
         getVerboseListener().print("Printing the graph ...");
 
+        if (isBinaryGraphOut()) {
+            printBinaryGraph(factory.getPackages().values());
+            return;
+        }
+
         com.jeantessier.dependency.Printer printer;
         if (getCommandLine().getToggleSwitch("xml")) {
             printer = new com.jeantessier.dependency.XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
@@ -97,6 +136,44 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         printer.traverseNodes(factory.getPackages().values());
     }
 
+    /**
+     *  Reads the graph for the runtime image parameters (<code>jrt:/...</code>)
+     *  from the baseline file if it exists, or extracts it and saves it there
+     *  if it does not.
+     *
+     *  @return the remaining parameters, without the runtime image ones.
+     */
+    private List<String> loadJdkBaseline(NodeFactory factory, ClassfileLoader loader, List<String> parameters) throws Exception {
+        var baseline = Paths.get(getCommandLine().getSingleSwitch("jdk-baseline"));
+
+        var runtimeImages = parameters.stream()
+                .filter(RuntimeImageClassfileLoader::isRuntimeImage)
+                .toList();
+
+        if (Files.exists(baseline)) {
+            getVerboseListener().print("Reading the JDK baseline from " + baseline + " ...");
+            new NodeLoader(factory).load(baseline.toString());
+        } else if (!runtimeImages.isEmpty()) {
+            loader.load(runtimeImages);
+
+            getVerboseListener().print("Saving the JDK baseline to " + baseline + " ...");
+            if (BinaryPrinter.isBinaryGraph(baseline.toString())) {
+                try (var out = new BufferedOutputStream(Files.newOutputStream(baseline))) {
+                    new BinaryPrinter(out).traverseNodes(factory.getPackages().values());
+                }
+            } else {
+                try (var out = new PrintWriter(Files.newBufferedWriter(baseline))) {
+                    var printer = new com.jeantessier.dependency.XMLPrinter(out, getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+                    printer.traverseNodes(factory.getPackages().values());
+                }
+            }
+        }
+
+        return parameters.stream()
+                .filter(parameter -> !RuntimeImageClassfileLoader.isRuntimeImage(parameter))
+                .toList();
+    }
+
     public static void main(String[] args) throws Exception {
         new DependencyExtractor().run(args);
     }
@@ -33,10 +33,14 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 import javax.xml.parsers.*;
 
 import org.xml.sax.*;
 
+import com.jeantessier.commandline.*;
 import com.jeantessier.dependency.*;
 
 public abstract class DependencyGraphCommand extends Command {
@@ -44,6 +48,16 @@ public abstract class DependencyGraphCommand extends Command {
         super.populateCommandLineSwitches();
 
         getCommandLine().addToggleSwitch("validate");
+
+        populateCommandLineSwitchesForParallelism();
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        exceptions.addAll(validateCommandLineForParallelism());
+
+        return exceptions;
     }
 
     protected void showSpecificUsage(PrintStream out) {
@@ -53,15 +67,21 @@ public abstract class DependencyGraphCommand extends Command {
     }
 
     protected NodeFactory loadGraph() throws IOException, SAXException, ParserConfigurationException {
-        NodeFactory result = new NodeFactory();
+        NodeFactory result;
 
         if (getCommandLine().getParameters().isEmpty()) {
+            result = new NodeFactory();
             loadGraphFromSystemIn(result);
+        } else if (getParallelism() > 1) {
+            result = mergeGraphsFromFiles();
         } else {
+            result = new NodeFactory();
             loadGraphFromFiles(result);
         }
 
-        return result;
+        getVerboseListener().print("Freezing the graph ...");
+
+        return result.freeze();
     }
 
     private void loadGraphFromSystemIn(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
@@ -74,9 +94,19 @@ public abstract class DependencyGraphCommand extends Command {
         getVerboseListener().print("Read from standard input.");
     }
 
+    /**
+     *  The first graph to come in becomes the one that the others are
+     *  merged into, instead of being copied into an empty graph.
+     */
+    private NodeFactory mergeGraphsFromFiles() throws IOException, SAXException, ParserConfigurationException {
+        var merger = new GraphMerger();
+        loadGraphsFromFiles(UnaryOperator.identity(), merger);
+        return merger.getResult();
+    }
+
     private void loadGraphFromFiles(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
         for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
+            if (NodeLoader.isGraphFile(filename)) {
                 loadGraphFromFile(factory, filename);
             } else {
                 getVerboseListener().print("Skipping \"" + filename + "\".");
@@ -93,4 +123,101 @@ public abstract class DependencyGraphCommand extends Command {
 
         getVerboseListener().print("Read \"" + filename + "\".");
     }
+
+    /**
+     *  Reads each graph file into a graph of its own, on up to
+     *  <code>-parallelism</code> threads.  Each graph goes through
+     *  <code>preparation</code> on the thread that read it, then through
+     *  <code>action</code> on this thread, in the order of the parameters.
+     *  At most <code>-parallelism</code> graphs are being read or waiting
+     *  for <code>action</code> at any time, and each one is let go once
+     *  <code>action</code> is done with it.
+     */
+    protected void loadGraphsFromFiles(UnaryOperator<NodeFactory> preparation, Consumer<NodeFactory> action) throws IOException, SAXException, ParserConfigurationException {
+        var filenames = new ArrayList<String>();
+        for (String filename : getCommandLine().getParameters()) {
+            if (NodeLoader.isGraphFile(filename)) {
+                filenames.add(filename);
+            } else {
+                getVerboseListener().print("Skipping \"" + filename + "\".");
+            }
+        }
+
+        if (getParallelism() == 1 || filenames.size() < 2) {
+            for (String filename : filenames) {
+                action.accept(preparation.apply(loadGraphFromFile(filename)));
+            }
+            return;
+        }
+
+        var parallelism = Math.min(getParallelism(), filenames.size());
+        var executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            var pending = filenames.iterator();
+            var graphs = new ArrayDeque<Future<NodeFactory>>(parallelism);
+
+            while (pending.hasNext() || !graphs.isEmpty()) {
+                while (pending.hasNext() && graphs.size() < parallelism) {
+                    var filename = pending.next();
+                    graphs.add(executor.submit(() -> preparation.apply(loadGraphFromFile(filename))));
+                }
+
+                action.accept(await(graphs.remove()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private NodeFactory loadGraphFromFile(String filename) throws IOException, SAXException, ParserConfigurationException {
+        getVerboseListener().print("Reading " + filename);
+
+        NodeLoader loader = new NodeLoader(getCommandLine().getToggleSwitch("validate"));
+        loader.addDependencyListener(getVerboseListener());
+        NodeFactory result = loader.load(filename);
+
+        getVerboseListener().print("Read \"" + filename + "\".");
+
+        return result;
+    }
+
+    private static NodeFactory await(Future<NodeFactory> graph) throws IOException, SAXException, ParserConfigurationException {
+        try {
+            return graph.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading graphs");
+        } catch (ExecutionException ex) {
+            var cause = ex.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof SAXException saxException) {
+                throw saxException;
+            } else if (cause instanceof ParserConfigurationException parserConfigurationException) {
+                throw parserConfigurationException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            } else {
+                throw new CompletionException(cause);
+            }
+        }
+    }
+
+    private static class GraphMerger implements Consumer<NodeFactory> {
+        private NodeFactory result;
+
+        public void accept(NodeFactory graph) {
+            if (result == null) {
+                result = graph;
+            } else {
+                result.merge(graph);
+            }
+        }
+
+        NodeFactory getResult() {
+            return (result != null) ? result : new NodeFactory();
+        }
+    }
 }
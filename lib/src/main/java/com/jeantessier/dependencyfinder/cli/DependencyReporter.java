@@ -133,6 +133,11 @@ public class DependencyReporter extends DependencyGraphCommand {
 
         getVerboseListener().print("Printing the graph ...");
 
+        if (isBinaryGraphOut()) {
+            printBinaryGraph(copier.getScopeFactory().getPackages().values());
+            return;
+        }
+
         Printer printer;
         if (getCommandLine().isPresent("html")) {
             printer = new HTMLPrinter(getOut(), getCommandLine().getSingleSwitch("url-format"));
@@ -172,24 +177,27 @@ public class DependencyReporter extends DependencyGraphCommand {
     }
 
     private void copyGraphFromFiles(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
-        for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
-                copyGraph(copier, loadGraphFromFile(filename));
-            } else {
-                getVerboseListener().print("Skipping \"" + filename + "\".");
-            }
-
-        }
+        // Each file is maximized or minimized on the thread that read it, but
+        // they all go through the copier on this one.
+        loadGraphsFromFiles(this::prepareGraph, graph -> copier.traverseNodes(graph.getPackages().values()));
     }
 
     private void copyGraph(Visitor copier, Collection<PackageNode> packages) {
+        prepareGraph(packages);
+        copier.traverseNodes(packages);
+    }
+
+    private NodeFactory prepareGraph(NodeFactory factory) {
+        prepareGraph(factory.getPackages().values());
+        return factory;
+    }
+
+    private void prepareGraph(Collection<PackageNode> packages) {
         if (getCommandLine().getToggleSwitch("maximize")) {
             new LinkMaximizer().traverseNodes(packages);
         } else if (getCommandLine().getToggleSwitch("minimize")) {
             new LinkMinimizer().traverseNodes(packages);
         }
-
-        copier.traverseNodes(packages);
     }
 
     private Collection<PackageNode> loadGraphFromSystemIn() throws IOException, SAXException, ParserConfigurationException {
@@ -206,20 +214,6 @@ public class DependencyReporter extends DependencyGraphCommand {
         return packages;
     }
 
-    private Collection<PackageNode> loadGraphFromFile(String filename) throws IOException, SAXException, ParserConfigurationException {
-        Collection<PackageNode> packages;
-
-        getVerboseListener().print("Reading " + filename);
-
-        NodeLoader loader = new NodeLoader(getCommandLine().getToggleSwitch("validate"));
-        loader.addDependencyListener(getVerboseListener());
-        packages = loader.load(filename).getPackages().values();
-
-        getVerboseListener().print("Read \"" + filename + "\".");
-
-        return packages;
-    }
-
     public static void main(String[] args) throws Exception {
         new DependencyReporter().run(args);
     }
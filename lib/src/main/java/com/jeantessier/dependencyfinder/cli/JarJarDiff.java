@@ -38,18 +38,26 @@ import com.jeantessier.classreader.*;
 import com.jeantessier.diff.*;
 
 public class JarJarDiff extends DiffCommand {
+    protected void populateCommandLineSwitches() {
+        super.populateCommandLineSwitches();
+
+        getCommandLine().addToggleSwitch("skeletons");
+    }
+
     protected void doProcessing() throws Exception {
         // Collecting data, first classfiles from JARs,
         // then package/class trees using NodeFactory.
 
         PackageMapper oldPackages = new PackageMapper();
-        ClassfileLoader oldJar = new AggregatingClassfileLoader();
+        AggregatingClassfileLoader oldJar = new AggregatingClassfileLoader();
+        oldJar.setSkeletonMode(getCommandLine().getToggleSwitch("skeletons"));
         oldJar.addLoadListener(oldPackages);
         oldJar.addLoadListener(getVerboseListener());
         oldJar.load(getCommandLine().getMultipleSwitch("old"));
 
         PackageMapper newPackages = new PackageMapper();
-        ClassfileLoader newJar = new AggregatingClassfileLoader();
+        AggregatingClassfileLoader newJar = new AggregatingClassfileLoader();
+        newJar.setSkeletonMode(getCommandLine().getToggleSwitch("skeletons"));
         newJar.addLoadListener(newPackages);
         newJar.addLoadListener(getVerboseListener());
         newJar.load(getCommandLine().getMultipleSwitch("new"));
@@ -38,7 +38,8 @@ public class ListDeprecatedElements extends DirectoryExplorerCommand {
     protected void doProcessing() throws Exception {
         DeprecationPrinter printer = new DeprecationPrinter(getOut());
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        var loader = new TransientClassfileLoader();
+        loader.setPrefilter(DeprecationPrinter.PREFILTER);
         loader.addLoadListener(new LoadListenerVisitorAdapter(printer));
         loader.addLoadListener(getVerboseListener());
         loader.load(getCommandLine().getParameters());
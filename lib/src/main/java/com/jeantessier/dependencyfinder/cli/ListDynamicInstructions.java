@@ -38,7 +38,8 @@ public class ListDynamicInstructions extends DirectoryExplorerCommand {
     public void doProcessing() throws Exception {
         InvokeDynamicPrinter printer = new InvokeDynamicPrinter(getOut());
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        var loader = new TransientClassfileLoader();
+        loader.setPrefilter(InvokeDynamicPrinter.PREFILTER);
         loader.addLoadListener(getVerboseListener());
         loader.addLoadListener(new LoadListenerVisitorAdapter(printer));
         loader.load(getCommandLine().getParameters());
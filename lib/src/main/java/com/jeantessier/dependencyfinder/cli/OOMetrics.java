@@ -33,7 +33,6 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import com.jeantessier.classreader.AggregatingClassfileLoader;
-import com.jeantessier.classreader.ClassfileLoader;
 import com.jeantessier.classreader.LoadListenerVisitorAdapter;
 import com.jeantessier.classreader.TransientClassfileLoader;
 import com.jeantessier.commandline.CommandLineException;
@@ -52,6 +51,7 @@ public class OOMetrics extends DirectoryExplorerCommand {
     protected void populateCommandLineSwitches() {
         super.populateCommandLineSwitches();
         populateCommandLineSwitchesForXMLOutput(XMLPrinter.DEFAULT_ENCODING, XMLPrinter.DEFAULT_DTD_PREFIX, XMLPrinter.DEFAULT_INDENT_TEXT);
+        populateCommandLineSwitchesForParallelism();
 
         getCommandLine().addSingleValueSwitch("project-name", DEFAULT_PROJECT_NAME);
         getCommandLine().addSingleValueSwitch("default-configuration", true);
@@ -79,11 +79,14 @@ public class OOMetrics extends DirectoryExplorerCommand {
         getCommandLine().addToggleSwitch("expand");
         getCommandLine().addToggleSwitch("reverse");
         getCommandLine().addToggleSwitch("enable-cross-class-measurements");
+        getCommandLine().addToggleSwitch("skeletons");
     }
 
     protected Collection<CommandLineException> parseCommandLine(String[] args) {
         Collection<CommandLineException> exceptions = super.parseCommandLine(args);
 
+        exceptions.addAll(validateCommandLineForParallelism());
+
         if (!getCommandLine().isPresent("project") && !getCommandLine().isPresent("groups") && !getCommandLine().isPresent("classes") && !getCommandLine().isPresent("methods")) {
             getCommandLine().getSwitch("project").setValue(true);
             getCommandLine().getSwitch("groups").setValue(true);
@@ -146,7 +149,9 @@ public class OOMetrics extends DirectoryExplorerCommand {
         if (getCommandLine().isPresent("enable-cross-class-measurements")) {
             LogManager.getLogger(OOMetrics.class).debug("Reading in all classes ...");
             getVerboseListener().print("Reading in all classes ...");
-            ClassfileLoader loader = new AggregatingClassfileLoader();
+            var loader = new AggregatingClassfileLoader();
+            loader.setParallelism(getParallelism());
+            loader.setSkeletonMode(getCommandLine().getToggleSwitch("skeletons"));
             loader.addLoadListener(getVerboseListener());
             loader.load(getCommandLine().getParameters());
 
@@ -154,7 +159,8 @@ public class OOMetrics extends DirectoryExplorerCommand {
             getVerboseListener().print("Computing metrics ...");
             gatherer.visitClassfiles(loader.getAllClassfiles());
         } else {
-            ClassfileLoader loader = new TransientClassfileLoader();
+            var loader = new TransientClassfileLoader();
+            loader.setParallelism(getParallelism());
             loader.addLoadListener(getVerboseListener());
             loader.addLoadListener(new LoadListenerVisitorAdapter(gatherer));
 
@@ -108,6 +108,16 @@ public class VerboseListener extends VerboseListenerBase implements DependencyLi
         getWriter().flush();
     }
 
+    public void cachedClassfile(LoadEvent event) {
+        super.cachedClassfile(event);
+
+        getWriter().print("Loading ");
+        getWriter().print(event.getClassName());
+        getWriter().print(" from cache ...");
+        getWriter().println();
+        getWriter().flush();
+    }
+
     public void endFile(LoadEvent event) {
         super.endFile(event);
 
@@ -121,10 +131,8 @@ public class VerboseListener extends VerboseListenerBase implements DependencyLi
     }
 
     public void beginClass(DependencyEvent event) {
-        getWriter().print("Getting dependencies from ");
-        getWriter().print(event.getClassName());
-        getWriter().print(" ...");
-        getWriter().println();
+        // In one piece, since graphs can be read on many threads at once.
+        getWriter().println("Getting dependencies from " + event.getClassName() + " ...");
         getWriter().flush();
     }
 
@@ -32,8 +32,8 @@
 
 package com.jeantessier.dependencyfinder.gui;
 
+import com.jeantessier.classreader.ClassfileEstimator;
 import com.jeantessier.classreader.ClassfileLoader;
-import com.jeantessier.classreader.ClassfileScanner;
 import com.jeantessier.classreader.TransientClassfileLoader;
 import com.jeantessier.dependency.LinkMaximizer;
 import com.jeantessier.dependency.LinkMinimizer;
@@ -77,10 +77,10 @@ public class DependencyExtractAction extends AbstractAction implements Runnable
         Date start = new Date();
 
         model.getStatusLine().showInfo("Scanning ...");
-        ClassfileScanner scanner = new ClassfileScanner();
-        scanner.load(model.getInputFiles());
+        ClassfileEstimator estimator = new ClassfileEstimator();
+        estimator.scan(model.getInputFiles());
 
-        model.getProgressBar().setMaximum(scanner.getNbFiles());
+        model.getProgressBar().setMaximum(estimator.getNbFiles());
 
         model.getMonitor().setClosedSession(false);
 
@@ -33,8 +33,8 @@
 package com.jeantessier.dependencyfinder.gui;
 
 import com.jeantessier.classreader.AggregatingClassfileLoader;
+import com.jeantessier.classreader.ClassfileEstimator;
 import com.jeantessier.classreader.ClassfileLoader;
-import com.jeantessier.classreader.ClassfileScanner;
 import com.jeantessier.classreader.LoadListenerVisitorAdapter;
 import com.jeantessier.classreader.TransientClassfileLoader;
 
@@ -80,10 +80,10 @@ public class MetricsExtractAction extends AbstractAction implements Runnable {
         Date start = new Date();
 
         model.getStatusLine().showInfo("Scanning ...");
-        ClassfileScanner scanner = new ClassfileScanner();
-        scanner.load(filenames);
+        ClassfileEstimator estimator = new ClassfileEstimator();
+        estimator.scan(filenames);
 
-        model.getProgressBar().setMaximum(scanner.getNbFiles() + scanner.getNbClasses());
+        model.getProgressBar().setMaximum(estimator.getNbFiles() + estimator.getNbClasses());
 
         MetricsVerboseListener verboseListener = new MetricsVerboseListener(model.getStatusLine(), model.getProgressBar());
 
@@ -46,6 +46,14 @@ public class MetricsVerboseListener extends VerboseListener implements MetricsLi
         // Do nothing, cancel behavior from superclass.
     }
 
+    /**
+     *  The progress bar also counts classes, so assume the entries of a
+     *  nested archive are mostly classes.
+     */
+    protected void extendProgress(int nbFiles) {
+        super.extendProgress(2 * nbFiles);
+    }
+
     public void beginClass(MetricsEvent event) {
         getStatusLine().showInfo("Computing metrics for " + event.getClassfile() + " ...");
     }
@@ -63,9 +63,24 @@ public class VerboseListener extends VerboseListenerBase {
     }
 
     public void beginGroup(LoadEvent event) {
+        var nested = getCurrentGroup() != null;
+
         super.beginGroup(event);
 
         getStatusLine().showInfo("Loading from " + event.getGroupName() + " ...");
+
+        if (nested && event.getSize() > 0) {
+            extendProgress(event.getSize());
+        }
+    }
+
+    /**
+     *  The initial maximum of the progress bar only counts nested archives
+     *  as single files, so it grows by the size of each nested group as
+     *  loading reaches it.
+     */
+    protected void extendProgress(int nbFiles) {
+        getProgressBar().setMaximum(getProgressBar().getMaximum() + nbFiles);
     }
 
     public void beginFile(LoadEvent event) {
@@ -70,8 +70,8 @@ public class APIDifferenceStrategy extends DifferenceStrategyDecorator {
                 .map(Feature_info::getName)
                 .distinct()
                 .anyMatch(name -> isFieldDifferent(
-                        oldClass.getField(field -> field.getName().equals(name)),
-                        newClass.getField(field -> field.getName().equals(name))));
+                        oldClass.getField(name),
+                        newClass.getField(name)));
     }
 
     private boolean checkForDifferentMethods(Classfile oldClass, Classfile newClass) {
@@ -81,8 +81,8 @@ public class APIDifferenceStrategy extends DifferenceStrategyDecorator {
                 .map(Feature_info::getSignature)
                 .distinct()
                 .anyMatch(signature -> isMethodDifferent(
-                        oldClass.getMethod(method -> method.getSignature().equals(signature)),
-                        newClass.getMethod(method -> method.getSignature().equals(signature))));
+                        oldClass.getMethod(signature),
+                        newClass.getMethod(signature)));
     }
 
     public boolean isFieldDifferent(Field_info oldField, Field_info newField) {
@@ -33,7 +33,6 @@
 package com.jeantessier.diff;
 
 import java.util.*;
-import java.util.function.*;
 import java.util.stream.*;
 
 import org.apache.logging.log4j.*;
@@ -143,9 +142,8 @@ public class DifferencesFactory {
             LogManager.getLogger(getClass()).debug("      Diff'ing fields ...");
 
             fieldLevel.forEach((fieldName, fullSignature) -> {
-                Predicate<Field_info> predicate = field -> field.getSignature().equals(fieldName);
-                Field_info oldField = oldClass.getField(predicate);
-                Field_info newField = newClass.getField(predicate);
+                Field_info oldField = oldClass.getField(fieldName);
+                Field_info newField = newClass.getField(fieldName);
 
                 if (strategy.isFieldDifferent(oldField, newField)) {
                     classDifferences.getFeatureDifferences().add(createFeatureDifferences(fullSignature, oldField, newField));
@@ -161,9 +159,8 @@ public class DifferencesFactory {
             LogManager.getLogger(getClass()).debug("      Diff'ing methods ...");
 
             methodLevel.forEach((signature, fullSignature) -> {
-                Predicate<Method_info> predicate = method -> method.getSignature().equals(signature);
-                Method_info oldMethod = oldClass.getMethod(predicate);
-                Method_info newMethod = newClass.getMethod(predicate);
+                Method_info oldMethod = oldClass.getMethod(signature);
+                Method_info newMethod = newClass.getMethod(signature);
 
                 if (strategy.isMethodDifferent(oldMethod, newMethod)) {
                     classDifferences.getFeatureDifferences().add(createFeatureDifferences(fullSignature, oldMethod, newMethod));
@@ -193,7 +190,7 @@ public class DifferencesFactory {
                 ((FieldDifferences) featureDifferences).setConstantValueDifference(true);
             }
 
-            if (featureDifferences.isRemoved() && newClass.locateField(field -> field.getName().equals(name)) != null) {
+            if (featureDifferences.isRemoved() && newClass.locateField(name) != null) {
                 featureDifferences.setInherited(true);
             }
         } else {
@@ -208,7 +205,7 @@ public class DifferencesFactory {
             }
 
             if (featureDifferences.isRemoved()) {
-                Method_info attempt = newClass.locateMethod(method -> method.getSignature().equals(name));
+                Method_info attempt = newClass.locateMethod(name);
                 if ((attempt != null) && (oldFeature.getClassfile().isInterface() == attempt.getClassfile().isInterface())) {
                     featureDifferences.setInherited(true);
                 }
@@ -223,7 +223,7 @@ public class MetricsGatherer extends VisitorBase {
 
             Classfile superclass = classfile.getLoader().getClassfile(classfile.getSuperclassName());
             if (superclass != null) {
-                getCurrentClass().addToMeasurement(BasicMeasurements.DEPTH_OF_INHERITANCE, computeDepthOfInheritance(superclass));
+                getCurrentClass().addToMeasurement(BasicMeasurements.DEPTH_OF_INHERITANCE, classfile.getLoader().getTypeHierarchy().getDepthOfInheritance(superclass.getClassName()));
             }
         }
 
@@ -582,17 +582,6 @@ public class MetricsGatherer extends VisitorBase {
         addClassDependencies(processDescriptor(helper.getDescriptor()));
     }
 
-    private int computeDepthOfInheritance(Classfile classfile) {
-        int result = 1;
-        
-        if (classfile != null && classfile.hasSuperclass()) {
-            Classfile superclass = classfile.getLoader().getClassfile(classfile.getSuperclassName());
-            result += computeDepthOfInheritance(superclass);
-        }
-
-        return result;
-    }
-    
     private Collection<String> processDescriptor(String str) {
         Collection<String> result = new LinkedList<>();
         
@@ -0,0 +1,138 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.text;
+
+import java.lang.ref.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>Canonicalizes strings, like {@link String#intern()} but in a table of its
+ * own, so that equal names share a single <code>String</code> instance.
+ * Class, package, and feature names get derived over and over from the same
+ * constant pool entries; interning them keeps only one copy of each while
+ * they are in use.</p>
+ *
+ * <p>The table only holds weak references, so a name is collected once
+ * nothing else uses it.  The shared instance from {@link #getInstance()} does
+ * not keep the names of every class ever parsed alive, even in long-running
+ * sessions that load many different graphs.</p>
+ *
+ * <p>All methods are thread-safe and none of them takes a lock, so parsing
+ * threads can intern names concurrently.</p>
+ */
+public class SymbolTable {
+    private static final SymbolTable instance = new SymbolTable();
+
+    private final ConcurrentMap<Symbol, Symbol> symbols = new ConcurrentHashMap<>();
+    private final ReferenceQueue<String> collected = new ReferenceQueue<>();
+
+    public static SymbolTable getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the canonical instance for <code>symbol</code>, adding it to the
+     * table if it is not there yet.
+     *
+     * @param symbol the string to canonicalize, can be <code>null</code>
+     * @return a string equal to <code>symbol</code>, always the same instance
+     *         for equal strings that are in use at the same time, or
+     *         <code>null</code> if <code>symbol</code> is <code>null</code>
+     */
+    public String intern(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+
+        expungeCollectedSymbols();
+
+        var candidate = new Symbol(symbol, collected);
+        while (true) {
+            var existing = symbols.putIfAbsent(candidate, candidate);
+            if (existing == null) {
+                return symbol;
+            }
+
+            var result = existing.get();
+            if (result != null) {
+                return result;
+            }
+
+            // Collected between the lookup and now; drop it and try again.
+            symbols.remove(existing, existing);
+        }
+    }
+
+    public int size() {
+        expungeCollectedSymbols();
+        return symbols.size();
+    }
+
+    private void expungeCollectedSymbols() {
+        Reference<? extends String> reference;
+        while ((reference = collected.poll()) != null) {
+            symbols.remove(reference);
+        }
+    }
+
+    /**
+     * A weak reference that compares by the string it refers to.  Once the
+     * string is collected, it is only equal to itself.
+     */
+    private static class Symbol extends WeakReference<String> {
+        private final int hash;
+
+        Symbol(String symbol, ReferenceQueue<String> queue) {
+            super(symbol, queue);
+            this.hash = symbol.hashCode();
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Symbol)) {
+                return false;
+            }
+
+            var symbol = get();
+            return symbol != null && symbol.equals(((Symbol) other).get());
+        }
+    }
+}
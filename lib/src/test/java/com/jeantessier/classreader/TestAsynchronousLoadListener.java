@@ -0,0 +1,209 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import junit.framework.*;
+
+public class TestAsynchronousLoadListener extends TestCase {
+    private LoadEvent testEvent;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        testEvent = new LoadEvent(this, null, 0);
+    }
+
+    public void testPreservesOrder() {
+        var delegate = new RecordingListener();
+        var sut = new AsynchronousLoadListener(delegate, 2);
+
+        sut.beginSession(testEvent);
+        sut.beginGroup(testEvent);
+        sut.beginFile(testEvent);
+        sut.beginClassfile(testEvent);
+        sut.endClassfile(testEvent);
+        sut.cachedClassfile(testEvent);
+        sut.endFile(testEvent);
+        sut.endGroup(testEvent);
+        sut.endSession(testEvent);
+
+        assertEquals(
+                List.of("beginSession", "beginGroup", "beginFile", "beginClassfile", "endClassfile", "cachedClassfile", "endFile", "endGroup", "endSession"),
+                delegate.getEvents());
+    }
+
+    public void testDeliversOnAnotherThread() {
+        var delegate = new RecordingListener();
+        var sut = new AsynchronousLoadListener(delegate);
+
+        sut.beginSession(testEvent);
+        sut.endSession(testEvent);
+
+        assertNotSame(Thread.currentThread(), delegate.getThread());
+    }
+
+    public void testFlushWaitsForPendingEvents() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var delegate = new RecordingListener() {
+            public void beginGroup(LoadEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                super.beginGroup(event);
+            }
+        };
+        var sut = new AsynchronousLoadListener(delegate);
+
+        sut.beginGroup(testEvent);
+        sut.beginFile(testEvent);
+        assertEquals("before release", 0, delegate.getEvents().size());
+
+        release.countDown();
+        sut.flush();
+
+        assertEquals(List.of("beginGroup", "beginFile"), delegate.getEvents());
+    }
+
+    public void testFlushPropagatesFailure() {
+        var failure = new IllegalStateException("test");
+        var delegate = new RecordingListener() {
+            public void beginFile(LoadEvent event) {
+                throw failure;
+            }
+        };
+        var sut = new AsynchronousLoadListener(delegate);
+
+        sut.beginSession(testEvent);
+        sut.beginFile(testEvent);
+
+        try {
+            sut.flush();
+            fail("Missing failure");
+        } catch (CompletionException ex) {
+            assertSame(failure, ex.getCause());
+        }
+    }
+
+    public void testEndSessionPropagatesFailure() {
+        var failure = new IllegalStateException("test");
+        var delegate = new RecordingListener() {
+            public void beginFile(LoadEvent event) {
+                throw failure;
+            }
+        };
+        var sut = new AsynchronousLoadListener(delegate);
+
+        sut.beginSession(testEvent);
+        sut.beginFile(testEvent);
+
+        // If the worker is fast, endFile() already sees the failure
+        CompletionException reported = null;
+        try {
+            sut.endFile(testEvent);
+        } catch (CompletionException ex) {
+            reported = ex;
+        }
+
+        try {
+            sut.endSession(testEvent);
+        } catch (CompletionException ex) {
+            assertNull("reported twice", reported);
+            reported = ex;
+        }
+
+        assertNotNull("Missing failure", reported);
+        assertSame(failure, reported.getCause());
+
+        assertEquals("events after the failure", List.of("beginSession"), delegate.getEvents());
+    }
+
+    private static class RecordingListener implements LoadListener {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile Thread thread;
+
+        List<String> getEvents() {
+            return events;
+        }
+
+        Thread getThread() {
+            return thread;
+        }
+
+        private void record(String name) {
+            thread = Thread.currentThread();
+            events.add(name);
+        }
+
+        public void beginSession(LoadEvent event) {
+            record("beginSession");
+        }
+
+        public void beginGroup(LoadEvent event) {
+            record("beginGroup");
+        }
+
+        public void beginFile(LoadEvent event) {
+            record("beginFile");
+        }
+
+        public void beginClassfile(LoadEvent event) {
+            record("beginClassfile");
+        }
+
+        public void endClassfile(LoadEvent event) {
+            record("endClassfile");
+        }
+
+        public void cachedClassfile(LoadEvent event) {
+            record("cachedClassfile");
+        }
+
+        public void endFile(LoadEvent event) {
+            record("endFile");
+        }
+
+        public void endGroup(LoadEvent event) {
+            record("endGroup");
+        }
+
+        public void endSession(LoadEvent event) {
+            record("endSession");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+
+import junit.framework.*;
+
+public class TestByteBufferDataInput extends TestCase {
+    private byte[] expectedBytes;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        var out = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(out)) {
+            data.writeInt(0xCAFEBABE);
+            data.writeShort(0xFFFE);
+            data.writeByte(0xFF);
+            data.writeLong(Long.MIN_VALUE);
+            data.writeFloat(1.5f);
+            data.writeDouble(-2.25);
+            data.writeChar('é');
+            data.writeUTF("café");
+        }
+        expectedBytes = out.toByteArray();
+    }
+
+    public void testReadsSameValuesAsDataInputStream() throws IOException {
+        DataInput expected = new DataInputStream(new ByteArrayInputStream(expectedBytes));
+        DataInput actual = new ByteBufferDataInput(expectedBytes);
+
+        assertEquals("int", expected.readInt(), actual.readInt());
+        assertEquals("unsigned short", expected.readUnsignedShort(), actual.readUnsignedShort());
+        assertEquals("byte", expected.readByte(), actual.readByte());
+        assertEquals("long", expected.readLong(), actual.readLong());
+        assertEquals("float", expected.readFloat(), actual.readFloat());
+        assertEquals("double", expected.readDouble(), actual.readDouble());
+        assertEquals("char", expected.readChar(), actual.readChar());
+        assertEquals("UTF", expected.readUTF(), actual.readUTF());
+    }
+
+    public void testPosition() throws IOException {
+        var sut = new ByteBufferDataInput(expectedBytes);
+        assertEquals("before", 0, sut.getPosition());
+
+        sut.readInt();
+        assertEquals("after int", 4, sut.getPosition());
+
+        assertEquals("skipped", 2, sut.skipBytes(2));
+        assertEquals("after skip", 6, sut.getPosition());
+    }
+
+    public void testSkipBytesPastEnd() {
+        var sut = new ByteBufferDataInput(new byte[] {1, 2, 3});
+
+        assertEquals("skipped", 3, sut.skipBytes(10));
+        assertEquals("position", 3, sut.getPosition());
+    }
+
+    public void testReadPastEnd() throws IOException {
+        var sut = new ByteBufferDataInput(new byte[] {1, 2, 3});
+
+        try {
+            sut.readInt();
+            fail("Read int from 3 bytes");
+        } catch (EOFException ex) {
+            // Expected
+        }
+
+        assertEquals("position", 0, sut.getPosition());
+    }
+
+    public void testLeavesOriginalBufferAlone() throws IOException {
+        var buffer = ByteBuffer.wrap(expectedBytes);
+
+        new ByteBufferDataInput(buffer).readInt();
+
+        assertEquals("position", 0, buffer.position());
+    }
+}
@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
 
 import junit.framework.*;
@@ -141,4 +142,89 @@ public class TestDirectoryExplorer extends TestCase {
         assertEquals("size", 1, list.size());
         assertEquals(testFile, list.get(0));
     }
+
+    public void testExploreStreamsEntries() {
+        List<Path> paths = new ArrayList<>();
+        List<Boolean> directories = new ArrayList<>();
+
+        DirectoryExplorer.explore(testDir.toPath(), 1, (path, attributes) -> {
+            paths.add(path);
+            directories.add(attributes.isDirectory());
+        });
+
+        assertEquals("size", 3, paths.size());
+        assertEquals(testDir.toPath(), paths.get(0));
+        assertEquals(List.of(true, false, false), directories);
+    }
+
+    public void testExploreInParallel() throws IOException {
+        var root = Files.createTempDirectory(getName());
+        try {
+            for (var name : List.of("a", "b", "c")) {
+                var dir = Files.createDirectories(root.resolve(name).resolve("nested"));
+                Files.createFile(root.resolve(name).resolve("file"));
+                Files.createFile(dir.resolve("file"));
+            }
+
+            assertSameWalk(root);
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    public void testExploreSameDirectoryTwiceInParallel() throws IOException {
+        var root = Files.createTempDirectory(getName());
+        try {
+            var shared = Files.createDirectory(root.resolve("shared"));
+            Files.createFile(shared.resolve("file"));
+            Files.createSymbolicLink(root.resolve("a"), shared);
+            Files.createSymbolicLink(root.resolve("b"), shared);
+
+            var actual = assertSameWalk(root);
+            assertTrue("through a", actual.contains(root.resolve("a").resolve("file")));
+            assertTrue("through b", actual.contains(root.resolve("b").resolve("file")));
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    public void testExploreLoopInParallel() throws IOException {
+        var root = Files.createTempDirectory(getName());
+        try {
+            var dir = Files.createDirectory(root.resolve("dir"));
+            Files.createFile(dir.resolve("file"));
+            Files.createSymbolicLink(dir.resolve("loop"), dir);
+
+            var actual = assertSameWalk(root);
+            assertFalse("loop", actual.contains(dir.resolve("loop")));
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    public void testExploreMissingPathInParallel() {
+        List<Path> actual = new ArrayList<>();
+        DirectoryExplorer.explore(missingFile.toPath(), 4, (path, attributes) -> actual.add(path));
+
+        assertEquals("size", 0, actual.size());
+    }
+
+    private static List<Path> assertSameWalk(Path root) {
+        List<Path> expected = new ArrayList<>();
+        DirectoryExplorer.explore(root, 1, (path, attributes) -> expected.add(path));
+
+        List<Path> actual = new ArrayList<>();
+        DirectoryExplorer.explore(root, 4, (path, attributes) -> actual.add(path));
+
+        assertEquals("same order as a sequential walk", expected, actual);
+        return actual;
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
 }
@@ -33,6 +33,8 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
 
 import org.jmock.*;
 import org.jmock.integration.junit3.*;
@@ -193,6 +195,60 @@ public class TestModifiedOnlyDispatcher extends MockObjectTestCase {
         assertEquals("repeat dispatch action", ClassfileLoaderAction.JAR, actualAction);
     }
 
+    public void testDispatchIdenticalClassFileWithAttributes() throws IOException {
+        // Given
+        createFile();
+        var attributes = Files.readAttributes(Paths.get(testFilename), BasicFileAttributes.class);
+
+        // And
+        checking(new Expectations() {{
+            exactly(2).of (delegateDispatcher).dispatch(testFilename, attributes);
+                will(returnValue(ClassfileLoaderAction.CLASS));
+        }});
+
+        // And prime the cache
+        var primingAction = sut.dispatch(testFilename, attributes);
+
+        // When
+        var actualAction = sut.dispatch(testFilename, attributes);
+
+        // Then
+        assertEquals("dispatch action", ClassfileLoaderAction.CLASS, primingAction);
+        assertEquals("repeat dispatch action", ClassfileLoaderAction.IGNORE, actualAction);
+    }
+
+    public void testDispatchNewClassEntry() {
+        // Given
+        checking(new Expectations() {{
+            oneOf (delegateDispatcher).dispatchEntry(testFilename);
+                will(returnValue(ClassfileLoaderAction.CLASS));
+        }});
+
+        // When
+        var actualAction = sut.dispatchEntry(testFilename);
+
+        // Then
+        assertEquals("dispatch action", ClassfileLoaderAction.CLASS, actualAction);
+    }
+
+    public void testDispatchIdenticalClassEntry() {
+        // Given
+        checking(new Expectations() {{
+            exactly(2).of (delegateDispatcher).dispatchEntry(testFilename);
+                will(returnValue(ClassfileLoaderAction.CLASS));
+        }});
+
+        // And prime the cache
+        var primingAction = sut.dispatchEntry(testFilename);
+
+        // When
+        var actualAction = sut.dispatchEntry(testFilename);
+
+        // Then
+        assertEquals("dispatch action", ClassfileLoaderAction.CLASS, primingAction);
+        assertEquals("repeat dispatch action", ClassfileLoaderAction.IGNORE, actualAction);
+    }
+
     private void createFile() throws IOException {
         var tempFile = File.createTempFile(getClass() + "." + getName(), ".txt");
         tempFile.deleteOnExit();
@@ -32,6 +32,10 @@
 
 package com.jeantessier.classreader;
 
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+
 import junit.framework.*;
 
 public class TestPermissiveDispatcher extends TestCase {
@@ -71,6 +75,31 @@ public class TestPermissiveDispatcher extends TestCase {
 
         assertEquals("foo.zip",        ClassfileLoaderAction.ZIP,       dispatcher.dispatch("foo.zip"));
 
+        assertEquals("jrt:/",          ClassfileLoaderAction.RUNTIME_IMAGE, dispatcher.dispatch("jrt:/"));
+        assertEquals("jrt:/java.base", ClassfileLoaderAction.RUNTIME_IMAGE, dispatcher.dispatch("jrt:/java.base"));
+        assertEquals("jrt:/java.base/java/lang/Object.class", ClassfileLoaderAction.CLASS, dispatcher.dispatch("jrt:/java.base/java/lang/Object.class"));
+
         assertEquals("foo.foo",        ClassfileLoaderAction.ZIP,       dispatcher.dispatch("foo.foo"));
     }
+
+    public void testDispatchEntry() {
+        assertEquals("foo.class",      ClassfileLoaderAction.CLASS,     dispatcher.dispatchEntry("foo.class"));
+        assertEquals("foo.jar",        ClassfileLoaderAction.JAR,       dispatcher.dispatchEntry("foo.jar"));
+        assertEquals("foo.zip",        ClassfileLoaderAction.ZIP,       dispatcher.dispatchEntry("foo.zip"));
+        assertEquals("foo.txt",        ClassfileLoaderAction.IGNORE,    dispatcher.dispatchEntry("foo.txt"));
+        assertEquals("foo/",           ClassfileLoaderAction.IGNORE,    dispatcher.dispatchEntry("foo/"));
+
+        assertEquals("src",            ClassfileLoaderAction.ZIP,       dispatcher.dispatchEntry("src"));
+        assertEquals("src/",           ClassfileLoaderAction.IGNORE,    dispatcher.dispatchEntry("src/"));
+
+        assertEquals("jrt:/java.base", ClassfileLoaderAction.RUNTIME_IMAGE, dispatcher.dispatchEntry("jrt:/java.base"));
+    }
+
+    public void testDispatchWithAttributes() throws IOException {
+        var directory = Paths.get("src");
+        var file = Paths.get("build.gradle.kts");
+
+        assertEquals("src",              ClassfileLoaderAction.DIRECTORY, dispatcher.dispatch(directory.toString(), Files.readAttributes(directory, BasicFileAttributes.class)));
+        assertEquals("build.gradle.kts", ClassfileLoaderAction.ZIP,       dispatcher.dispatch(file.toString(), Files.readAttributes(file, BasicFileAttributes.class)));
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import junit.framework.*;
+
+public class TestSuffixTrie extends TestCase {
+    private SuffixTrie<String> sut;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        sut = new SuffixTrie<String>()
+                .put(".js", "script")
+                .put(".jsp", "page")
+                .put(".tar", "archive")
+                .put(".tar.gz", "compressed archive");
+    }
+
+    public void testMatch() {
+        assertEquals("foo.js", "script", sut.match("foo.js"));
+        assertEquals("foo.jsp", "page", sut.match("foo.jsp"));
+        assertEquals(".js", "script", sut.match(".js"));
+    }
+
+    public void testNoMatch() {
+        assertNull("foo.json", sut.match("foo.json"));
+        assertNull("js", sut.match("js"));
+        assertNull("empty", sut.match(""));
+    }
+
+    public void testLongestMatch() {
+        assertEquals("foo.tar", "archive", sut.match("foo.tar"));
+        assertEquals("foo.tar.gz", "compressed archive", sut.match("foo.tar.gz"));
+        assertNull("foo.gz", sut.match("foo.gz"));
+    }
+
+    public void testReplace() {
+        sut.put(".js", "other script");
+
+        assertEquals("foo.js", "other script", sut.match("foo.js"));
+        assertEquals("foo.jsp", "page", sut.match("foo.jsp"));
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.*;
+
+import junit.framework.*;
+
+import com.jeantessier.dependency.*;
+
+public class TestSyntheticCorpus extends TestCase {
+    private Path file;
+    private SyntheticCorpus sut;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        file = Files.createTempFile(getName(), ".jar");
+
+        sut = new SyntheticCorpus();
+        sut.setNbClasses(100);
+        sut.setClassesPerPackage(10);
+        sut.setPackageFanOut(3);
+        sut.setMethodsPerClass(4);
+        sut.setDependenciesPerMethod(2);
+    }
+
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+
+        super.tearDown();
+    }
+
+    public void testPackageNames() {
+        assertEquals("nb packages", 10, sut.getNbPackages());
+        assertEquals("class 0", "synthetic.p0.C0", sut.getClassName(0));
+        assertEquals("class 29", "synthetic.p2.C29", sut.getClassName(29));
+        assertEquals("class 30", "synthetic.p1.p0.C30", sut.getClassName(30));
+        assertEquals("class 99", "synthetic.p1.p0.p0.C99", sut.getClassName(99));
+    }
+
+    public void testFlat() throws Exception {
+        // When
+        sut.generate(file);
+
+        // Then
+        var loader = load();
+        assertEquals("nb classes", 100, loader.getAllClassfiles().size());
+
+        var classfile = loader.getClassfile(sut.getClassName(42));
+        assertNotNull(sut.getClassName(42), classfile);
+        assertEquals("nb methods", 4, classfile.getAllMethods().size());
+        assertNotNull("m3()", classfile.getMethod("m3()"));
+    }
+
+    public void testDependencies() throws Exception {
+        // Given
+        sut.generate(file);
+
+        // When
+        var factory = extract();
+
+        // Then
+        var nbDependencies = factory.getFeatures().values().stream()
+                .mapToLong(feature -> feature.getOutboundDependencies().size())
+                .sum();
+        assertTrue("at most 2 per method: " + nbDependencies, nbDependencies <= 99 * 4 * 2);
+        assertTrue("some dependencies: " + nbDependencies, nbDependencies > 99 * 4);
+
+        assertTrue("C0 depends on nothing", factory.getFeatures().get("synthetic.p0.C0.m0(): void").getOutboundDependencies().isEmpty());
+    }
+
+    public void testDependencyReach() throws Exception {
+        // Given
+        sut.setDependencyReach(5);
+        sut.generate(file);
+
+        // When
+        var factory = extract();
+
+        // Then
+        for (int i=0; i<100; i++) {
+            var dependent = i;
+            var className = sut.getClassName(i);
+            factory.getClasses().get(className).getFeatures().stream()
+                    .flatMap(feature -> feature.getOutboundDependencies().stream())
+                    .map(dependable -> ((FeatureNode) dependable).getClassNode().getName())
+                    .forEach(name -> {
+                        var dependency = Integer.parseInt(name.substring(name.lastIndexOf(".C") + 2));
+                        assertTrue(className + " -> " + name, dependency < dependent && dependency >= dependent - 5);
+                    });
+        }
+    }
+
+    public void testNoCyclesByDefault() throws Exception {
+        // Given
+        sut.generate(file);
+
+        // When
+        var detector = new CycleDetector();
+        detector.traverseNodes(extract().getPackages().values());
+
+        // Then
+        assertEquals("Nb cycles", 0, detector.getCycles().size());
+    }
+
+    public void testCycles() throws Exception {
+        // Given
+        sut.setNbCycles(1);
+        sut.generate(file);
+
+        // When
+        var factory = extract();
+
+        // Then
+        var cycle = sut.getCycles().get(0);
+        var low = factory.getFeatures().get(sut.getClassName(cycle[0]) + ".m0(): void");
+        var high = factory.getFeatures().get(sut.getClassName(cycle[1]) + ".m0(): void");
+        assertTrue("low -> high", low.getOutboundDependencies().contains(high));
+        assertTrue("high -> low", high.getOutboundDependencies().contains(low));
+    }
+
+    public void testNested() throws Exception {
+        // Given
+        sut.setLayout(SyntheticCorpus.Layout.NESTED);
+
+        // When
+        sut.generate(file);
+
+        // Then
+        try (var jarfile = new JarFile(file.toFile())) {
+            assertEquals("inner JAR files", List.of("lib/part0.jar", "lib/part1.jar", "lib/part2.jar", "lib/part3.jar"), jarfile.stream().map(JarEntry::getName).filter(name -> name.endsWith(".jar")).toList());
+        }
+        assertEquals("nb classes", 100, load().getAllClassfiles().size());
+    }
+
+    public void testMultiRelease() throws Exception {
+        // Given
+        sut.setLayout(SyntheticCorpus.Layout.MULTI_RELEASE);
+
+        // When
+        sut.generate(file);
+
+        // Then
+        try (var jarfile = new JarFile(file.toFile())) {
+            assertTrue("multi-release", jarfile.isMultiRelease());
+            assertEquals("versioned classes", 10, jarfile.stream().filter(entry -> entry.getName().startsWith("META-INF/versions/17/")).count());
+        }
+        assertEquals("nb classes", 100, load().getAllClassfiles().size());
+    }
+
+    public void testSameSeedSameBytes() throws Exception {
+        var other = new SyntheticCorpus();
+        other.setNbClasses(100);
+        other.setClassesPerPackage(10);
+        other.setPackageFanOut(3);
+        other.setMethodsPerClass(4);
+        other.setDependenciesPerMethod(2);
+
+        assertTrue("same seed", Arrays.equals(sut.classfile(57), other.classfile(57)));
+
+        other.setSeed(1);
+        assertFalse("different seed", Arrays.equals(sut.classfile(57), other.classfile(57)));
+    }
+
+    private AggregatingClassfileLoader load() {
+        var loader = new AggregatingClassfileLoader();
+        loader.load(List.of(file.toString()));
+        return loader;
+    }
+
+    private NodeFactory extract() {
+        var factory = new NodeFactory();
+
+        var loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory)));
+        loader.load(List.of(file.toString()));
+
+        return factory;
+    }
+}
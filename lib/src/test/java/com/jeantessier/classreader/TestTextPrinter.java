@@ -45,7 +45,6 @@ import java.io.StringWriter;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.function.Consumer;
 
 public class TestTextPrinter extends MockObjectTestCase {
     private static final int ICONST_1_INSTRUCTION = 0x04; // iconst_1
@@ -205,9 +204,13 @@ public class TestTextPrinter extends MockObjectTestCase {
 
     public void testVisitCode_attribute_WithoutExceptionHandlers() throws IOException {
         final Code_attribute mockCode = mock(Code_attribute.class);
+        final InstructionCursor mockCursor = mock(InstructionCursor.class);
 
         checking(new Expectations() {{
-            oneOf (mockCode).forEach(with(any(Consumer.class)));
+            oneOf (mockCode).cursor();
+                will(returnValue(mockCursor));
+            oneOf (mockCursor).next();
+                will(returnValue(false));
             oneOf (mockCode).getExceptionHandlers();
                 will(returnValue(Collections.EMPTY_LIST));
         }});
@@ -221,10 +224,14 @@ public class TestTextPrinter extends MockObjectTestCase {
 
     public void testVisitCode_attribute_WithExceptionHandlers() throws IOException {
         final Code_attribute mockCode = mock(Code_attribute.class);
+        final InstructionCursor mockCursor = mock(InstructionCursor.class);
         final ExceptionHandler mockExceptionHandler = mock(ExceptionHandler.class);
 
         checking(new Expectations() {{
-            oneOf (mockCode).forEach(with(any(Consumer.class)));
+            oneOf (mockCode).cursor();
+                will(returnValue(mockCursor));
+            oneOf (mockCursor).next();
+                will(returnValue(false));
             oneOf (mockCode).getExceptionHandlers();
                 will(returnValue(Collections.singleton(mockExceptionHandler)));
             oneOf (mockExceptionHandler).accept(sut);
@@ -33,13 +33,10 @@
 package com.jeantessier.classreader;
 
 import java.util.*;
-import java.util.function.*;
 import java.util.stream.*;
 
 import org.jmock.*;
-import org.jmock.api.*;
 import org.jmock.integration.junit3.*;
-import org.jmock.lib.action.*;
 
 public class TestVisitorBase extends MockObjectTestCase {
     private VisitorBase sut;
@@ -250,14 +247,16 @@ public class TestVisitorBase extends MockObjectTestCase {
 
     public void testVisitCode_attribute() {
         final Code_attribute mockCode = mock(Code_attribute.class);
-        final Instruction mockInstruction = mock(Instruction.class);
+        final InstructionCursor mockCursor = mock(InstructionCursor.class);
         final ExceptionHandler mockExceptionHandler = mock(ExceptionHandler.class);
         final Attribute_info mockAttribute = mock(Attribute_info.class);
 
         checking(new Expectations() {{
-            oneOf (mockCode).forEach(with(any(Consumer.class)));
-                will(visitInstruction(mockInstruction));
-            oneOf (mockInstruction).accept(sut);
+            oneOf (mockCode).cursor();
+                will(returnValue(mockCursor));
+            exactly(2).of (mockCursor).next();
+                will(onConsecutiveCalls(returnValue(true), returnValue(false)));
+            oneOf (mockCursor).accept(sut);
             oneOf (mockCode).getExceptionHandlers();
                 will(returnValue(Collections.singleton(mockExceptionHandler)));
             oneOf (mockExceptionHandler).accept(sut);
@@ -1215,13 +1214,4 @@ public class TestVisitorBase extends MockObjectTestCase {
         final UninitializedVariableInfo mockUninitializedVariableInfo = mock(UninitializedVariableInfo.class);
         sut.visitUninitializedVariableInfo(mockUninitializedVariableInfo);
     }
-
-    private Action visitInstruction(Instruction instruction) {
-        return new CustomAction("Iterate over instruction") {
-            public Object invoke(Invocation invocation) {
-                ((Consumer<Instruction>) invocation.getParameter(0)).accept(instruction);
-                return null;
-            }
-        };
-    }
 }
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import com.jeantessier.classreader.AttributeParsingProfile;
+import org.junit.*;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+public class TestAttributeFactoryWithProfile {
+    private static final int LINE_NUMBER_TABLE_NAME_INDEX = 1;
+    private static final int START_PC = 2;
+    private static final int LINE_NUMBER = 42;
+
+    private ConstantPool constantPool;
+
+    @Before
+    public void setUp() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(out)) {
+            data.writeShort(2);
+            data.writeByte(ConstantPoolEntry.CONSTANT_Utf8);
+            data.writeUTF(AttributeType.LINE_NUMBER_TABLE.getAttributeName());
+        }
+
+        constantPool = new ConstantPool(null, toDataInput(out));
+    }
+
+    @Test
+    public void testFullProfileDecodesRightAway() throws IOException {
+        var sut = new AttributeFactory();
+
+        var attribute = (LineNumberTable_attribute) sut.create(constantPool, null, lineNumberTable());
+
+        assertFalse("deferred", attribute.isDeferred());
+        assertLineNumbers(attribute);
+    }
+
+    @Test
+    public void testMetricsProfileDefersDecoding() throws IOException {
+        var sut = new AttributeFactory(AttributeParsingProfile.METRICS);
+        var in = lineNumberTableFollowedBy(0x1234);
+
+        var attribute = (LineNumberTable_attribute) sut.create(constantPool, null, in);
+
+        assertTrue("deferred", attribute.isDeferred());
+        assertEquals("next value in input", 0x1234, in.readUnsignedShort());
+
+        assertLineNumbers(attribute);
+        assertFalse("still deferred", attribute.isDeferred());
+    }
+
+    @Test
+    public void testDependenciesProfileSkipsAttribute() throws IOException {
+        var sut = new AttributeFactory(AttributeParsingProfile.DEPENDENCIES);
+        var in = lineNumberTableFollowedBy(0x1234);
+
+        var attribute = sut.create(constantPool, null, in);
+
+        assertNull("skipped attribute", attribute);
+        assertEquals("next value in input", 0x1234, in.readUnsignedShort());
+    }
+
+    private void assertLineNumbers(LineNumberTable_attribute attribute) {
+        assertEquals("line numbers", 1, attribute.getLineNumbers().size());
+        var lineNumber = attribute.getLineNumbers().iterator().next();
+        assertEquals("start PC", START_PC, lineNumber.getStartPC());
+        assertEquals("line number", LINE_NUMBER, lineNumber.getLineNumber());
+        assertSame("line number table", attribute, lineNumber.getLineNumberTable());
+    }
+
+    private DataInput lineNumberTable() throws IOException {
+        return lineNumberTableFollowedBy(0);
+    }
+
+    private DataInput lineNumberTableFollowedBy(int nextValue) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(out)) {
+            data.writeShort(LINE_NUMBER_TABLE_NAME_INDEX);
+            data.writeInt(6);
+            data.writeShort(1);
+            data.writeShort(START_PC);
+            data.writeShort(LINE_NUMBER);
+            data.writeShort(nextValue);
+        }
+
+        return toDataInput(out);
+    }
+
+    private DataInput toDataInput(ByteArrayOutputStream out) {
+        return new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
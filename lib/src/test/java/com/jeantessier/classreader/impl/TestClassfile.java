@@ -33,6 +33,7 @@
 package com.jeantessier.classreader.impl;
 
 import com.jeantessier.classreader.ClassfileLoader;
+import com.jeantessier.classreader.TypeHierarchyIndex;
 import org.jmock.*;
 import org.jmock.imposters.*;
 import org.jmock.integration.junit4.*;
@@ -408,6 +409,72 @@ public class TestClassfile {
         assertNull("private method", actualMethod);
     }
 
+    @Test
+    public void testGetField_byName_indexesFieldsOnce() {
+        final Field_info expectedField = context.mock(Field_info.class, "expected field");
+        final Field_info otherField = context.mock(Field_info.class, "other field");
+
+        context.checking(new Expectations() {{
+            oneOf (expectedField).getName();
+                will(returnValue(TEST_FIELD_NAME));
+            oneOf (otherField).getName();
+                will(returnValue("bar"));
+        }});
+
+        Classfile sut = new Classfile(loader, constantPool, 0x0, 1, 2, Collections.emptyList(), List.of(otherField, expectedField), Collections.emptyList(), Collections.emptyList());
+
+        assertSame("first lookup", expectedField, sut.getField(TEST_FIELD_NAME));
+        assertSame("second lookup", expectedField, sut.getField(TEST_FIELD_NAME));
+        assertNull("missing field", sut.getField("baz"));
+    }
+
+    @Test
+    public void testGetMethod_bySignature_indexesMethodsOnce() {
+        final Method_info expectedMethod = context.mock(Method_info.class, "expected method");
+        final Method_info otherMethod = context.mock(Method_info.class, "other method");
+
+        context.checking(new Expectations() {{
+            oneOf (expectedMethod).getSignature();
+                will(returnValue(TEST_METHOD_SIGNATURE));
+            oneOf (otherMethod).getSignature();
+                will(returnValue("bar()"));
+        }});
+
+        Classfile sut = new Classfile(loader, constantPool, 0x0, 1, 2, Collections.emptyList(), Collections.emptyList(), List.of(otherMethod, expectedMethod), Collections.emptyList());
+
+        assertSame("first lookup", expectedMethod, sut.getMethod(TEST_METHOD_SIGNATURE));
+        assertSame("second lookup", expectedMethod, sut.getMethod(TEST_METHOD_SIGNATURE));
+        assertNull("missing method", sut.getMethod("baz()"));
+    }
+
+    @Test
+    public void testLocateMethod_bySignature_usesTypeHierarchy() {
+        final TypeHierarchyIndex typeHierarchy = context.mock(TypeHierarchyIndex.class);
+        final Method_info expectedMethod = context.mock(Method_info.class, "located method");
+
+        final Classfile sut = new Classfile(loader, constantPool, 0x0, 1, 2, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+        context.checking(new Expectations() {{
+            oneOf (loader).getTypeHierarchy();
+                will(returnValue(typeHierarchy));
+            oneOf (typeHierarchy).locateMethod(sut, TEST_METHOD_SIGNATURE);
+                will(returnValue(expectedMethod));
+        }});
+
+        Method_info actualMethod = (Method_info) sut.locateMethod(TEST_METHOD_SIGNATURE);
+        assertEquals("located method", actualMethod, expectedMethod);
+    }
+
+    @Test
+    public void testIsDeprecated_deprecatedAttribute_returnsTrue() {
+        final Deprecated_attribute deprecated_attribute = context.mock(Deprecated_attribute.class);
+
+        Classfile sut = new Classfile(loader, constantPool, 0x0, 1, 2, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.singleton(deprecated_attribute));
+
+        assertTrue("deprecated", sut.isDeprecated());
+        assertFalse("generic", sut.isGeneric());
+    }
+
     @Test
     public void testIsInnerClass_matchingInnerClassInfo_returnsTrue() {
         final InnerClasses_attribute innerClasses_attribute = context.mock(InnerClasses_attribute.class);
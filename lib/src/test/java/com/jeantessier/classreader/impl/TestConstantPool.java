@@ -0,0 +1,200 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import com.jeantessier.classreader.ByteBufferDataInput;
+import org.junit.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestConstantPool {
+    private byte[] bytes;
+    private ConstantPool sut;
+
+    @Before
+    public void setUp() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(out)) {
+            data.writeShort(7);
+
+            data.writeByte(ConstantPoolEntry.CONSTANT_Class);
+            data.writeShort(2);
+
+            data.writeByte(ConstantPoolEntry.CONSTANT_Utf8);
+            data.writeUTF("foo/Foo");
+
+            data.writeByte(ConstantPoolEntry.CONSTANT_Long);
+            data.writeLong(Long.MAX_VALUE);
+
+            data.writeByte(ConstantPoolEntry.CONSTANT_Utf8);
+            data.writeUTF("café \u0000 😀");
+
+            data.writeByte(ConstantPoolEntry.CONSTANT_NameAndType);
+            data.writeShort(2);
+            data.writeShort(5);
+        }
+
+        bytes = out.toByteArray();
+        sut = new ConstantPool(null, new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testReadFromByteBuffer() throws IOException {
+        var in = new ByteBufferDataInput(Arrays.copyOf(bytes, bytes.length + 1));
+
+        var pool = new ConstantPool(null, in);
+
+        assertEquals("position after pool", bytes.length, in.getPosition());
+        assertEquals("size", 7, pool.size());
+        assertEquals("name", "foo.Foo", ((Class_info) pool.get(1)).getName());
+        assertEquals("long", Long.MAX_VALUE, ((Long_info) pool.get(3)).getValue());
+        assertEquals("non-ascii", "café \u0000 😀", ((UTF8_info) pool.get(5)).getValue());
+        assertEquals("type index", 5, ((NameAndType_info) pool.get(6)).getTypeIndex());
+        assertTrue("contains", pool.containsUtf8("foo/Foo"));
+    }
+
+    @Test
+    public void testReadFromByteBufferCopiesThePool() throws IOException {
+        var buffer = bytes.clone();
+        var pool = new ConstantPool(null, new ByteBufferDataInput(buffer));
+
+        Arrays.fill(buffer, (byte) 0);
+
+        assertEquals("value", "foo/Foo", ((UTF8_info) pool.get(2)).getValue());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadTruncatedByteBuffer() throws IOException {
+        new ConstantPool(null, new ByteBufferDataInput(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals("size", 7, sut.size());
+    }
+
+    @Test
+    public void testEntryZeroIsNull() {
+        assertNull("entry 0", sut.get(0));
+    }
+
+    @Test
+    public void testClass_info() {
+        var entry = (Class_info) sut.get(1);
+
+        assertEquals("name index", 2, entry.getNameIndex());
+        assertEquals("name", "foo.Foo", entry.getName());
+        assertSame("constant pool", sut, entry.getConstantPool());
+    }
+
+    @Test
+    public void testAsciiUTF8_info() {
+        assertEquals("value", "foo/Foo", ((UTF8_info) sut.get(2)).getValue());
+    }
+
+    @Test
+    public void testNonAsciiUTF8_info() {
+        assertEquals("value", "café \u0000 😀", ((UTF8_info) sut.get(5)).getValue());
+    }
+
+    @Test
+    public void testLong_info() {
+        assertEquals("value", Long.MAX_VALUE, ((Long_info) sut.get(3)).getValue());
+    }
+
+    @Test
+    public void testUnusableEntryAfterLong_info() {
+        assertEquals("reason", "previous entry is tagged CONSTANT_Long_info", ((UnusableEntry) sut.get(4)).getReason());
+    }
+
+    @Test
+    public void testNameAndType_info() {
+        var entry = (NameAndType_info) sut.get(6);
+
+        assertEquals("name index", 2, entry.getNameIndex());
+        assertEquals("type index", 5, entry.getTypeIndex());
+    }
+
+    @Test
+    public void testEntriesAreCreatedOnlyOnce() {
+        assertSame("same entry", sut.get(1), sut.get(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPastEnd() {
+        sut.get(7);
+    }
+
+    @Test
+    public void testIteration() {
+        assertEquals("entries", 7, sut.stream().count());
+    }
+
+    @Test
+    public void testContainsUtf8() {
+        assertTrue("ascii", sut.containsUtf8("foo/Foo"));
+        assertTrue("non-ascii", sut.containsUtf8("café \u0000 😀"));
+    }
+
+    @Test
+    public void testDoesNotContainUtf8() {
+        assertFalse("prefix", sut.containsUtf8("foo/Fo"));
+        assertFalse("longer", sut.containsUtf8("foo/FooBar"));
+        assertFalse("empty", sut.containsUtf8(""));
+    }
+
+    @Test
+    public void testContainsInstanceOf() {
+        assertTrue("Class_info", sut.containsInstanceOf(com.jeantessier.classreader.Class_info.class));
+        assertTrue("Long_info", sut.containsInstanceOf(Long_info.class));
+        assertTrue("any entry", sut.containsInstanceOf(com.jeantessier.classreader.ConstantPoolEntry.class));
+    }
+
+    @Test
+    public void testDoesNotContainInstanceOf() {
+        assertFalse("InvokeDynamic_info", sut.containsInstanceOf(com.jeantessier.classreader.InvokeDynamic_info.class));
+        assertFalse("FeatureRef_info", sut.containsInstanceOf(com.jeantessier.classreader.FeatureRef_info.class));
+    }
+
+    @Test
+    public void testPoolOnItsOwn() throws IOException {
+        var pool = new ConstantPool(new DataInputStream(new ByteArrayInputStream(new byte[] {0, 1})));
+
+        assertNull("classfile", pool.getClassfile());
+        assertEquals("size", 1, pool.size());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestBinaryPrinter extends TestCase {
+    private NodeFactory factory;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+
+        factory.createFeature("a.A.a()", true).addDependency(factory.createFeature("b.B.b"));
+        factory.createClass("a.A", true).addDependency(factory.createClass("b.B"));
+        factory.createPackage("a", true).addDependency(factory.createPackage("b"));
+        factory.createFeature("a.A.été(java.lang.String): 😀", true);
+        factory.createClass("c.C", true);
+    }
+
+    private byte[] print(TraversalStrategy strategy) {
+        var out = new ByteArrayOutputStream();
+        new BinaryPrinter(strategy, out).traverseNodes(factory.getPackages().values());
+        return out.toByteArray();
+    }
+
+    private NodeFactory load(byte[] bytes) throws IOException {
+        return new BinaryNodeLoader().load(new ByteArrayInputStream(bytes));
+    }
+
+    private byte[] header(int... rest) {
+        var out = new ByteArrayOutputStream();
+        out.write(BinaryPrinter.MAGIC >>> 24);
+        out.write(BinaryPrinter.MAGIC >>> 16);
+        out.write(BinaryPrinter.MAGIC >>> 8);
+        out.write(BinaryPrinter.MAGIC);
+        out.write(BinaryPrinter.VERSION);
+        Arrays.stream(rest).forEach(out::write);
+        return out.toByteArray();
+    }
+
+    private String toXML(NodeFactory factory) {
+        var out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+
+    public void testRoundTrip() throws IOException {
+        var result = load(print(new ComprehensiveTraversalStrategy()));
+
+        assertEquals("packages", factory.getPackages().keySet(), result.getPackages().keySet());
+        assertEquals("classes", factory.getClasses().keySet(), result.getClasses().keySet());
+        assertEquals("features", factory.getFeatures().keySet(), result.getFeatures().keySet());
+        assertEquals(toXML(factory), toXML(result));
+    }
+
+    public void testConfirmed() throws IOException {
+        var result = load(print(new ComprehensiveTraversalStrategy()));
+
+        assertTrue("a.A.a()", result.getFeatures().get("a.A.a()").isConfirmed());
+        assertFalse("b.B.b", result.getFeatures().get("b.B.b").isConfirmed());
+        assertTrue("c.C", result.getClasses().get("c.C").isConfirmed());
+    }
+
+    public void testInboundFromOutsideScope() throws IOException {
+        var scope = new RegularExpressionSelectionCriteria("/^b/");
+        var result = load(print(new SelectiveTraversalStrategy(scope, new ComprehensiveSelectionCriteria())));
+
+        assertEquals("packages", Set.of("a", "b"), result.getPackages().keySet());
+        assertEquals("b.B.b inbounds", Set.of(result.getFeatures().get("a.A.a()")), new HashSet<>(result.getFeatures().get("b.B.b").getInboundDependencies()));
+        assertTrue("a.A.a() keeps confirmed", result.getFeatures().get("a.A.a()").isConfirmed());
+    }
+
+    public void testSmallerThanXML() {
+        assertTrue("binary is not smaller", print(new ComprehensiveTraversalStrategy()).length * 4 < toXML(factory).length());
+    }
+
+    public void testNotABinaryGraph() {
+        try {
+            load(toXML(factory).getBytes());
+            fail("Loaded XML as a binary graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testCorruptGraph() {
+        var bytes = print(new ComprehensiveTraversalStrategy());
+        bytes[bytes.length / 2] ^= 0x01;
+
+        try {
+            load(bytes);
+            fail("Loaded a corrupt graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testTruncatedGraph() {
+        var bytes = print(new ComprehensiveTraversalStrategy());
+
+        try {
+            load(Arrays.copyOf(bytes, bytes.length - 2));
+            fail("Loaded a truncated graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testCorruptGraphLeavesFactoryUnchanged() throws IOException {
+        var bytes = print(new ComprehensiveTraversalStrategy());
+        bytes[bytes.length - 6] ^= 0x01;
+
+        var shared = new NodeFactory();
+        shared.createClass("x.X", true);
+        var before = toXML(shared);
+
+        try {
+            new BinaryNodeLoader(shared).load(new ByteArrayInputStream(bytes));
+            fail("Loaded a corrupt graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+
+        assertEquals(before, toXML(shared));
+    }
+
+    public void testNegativeCount() {
+        try {
+            load(header(0xFF, 0xFF, 0xFF, 0xFF, 0x0F));
+            fail("Loaded a negative number of names");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testHugeCountInStream() {
+        try {
+            load(header(0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+            fail("Loaded more names than there are");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testHugeLengthInStream() {
+        try {
+            load(header(0x01, BinaryPrinter.PACKAGE, 0x00, 0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+            fail("Loaded a name longer than the graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testHugeLengthInFile() throws IOException {
+        var file = File.createTempFile("TestBinaryPrinter", BinaryPrinter.FILE_EXTENSION);
+        file.deleteOnExit();
+
+        try (var out = new FileOutputStream(file)) {
+            out.write(header(0x01, BinaryPrinter.PACKAGE, 0x00, 0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+        }
+
+        try {
+            new BinaryNodeLoader().load(file.getPath());
+            fail("Loaded a name longer than the file");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("bytes in name 0"));
+        }
+    }
+
+    public void testNodeLoaderDispatchesOnExtension() throws Exception {
+        var file = File.createTempFile("TestBinaryPrinter", BinaryPrinter.FILE_EXTENSION);
+        file.deleteOnExit();
+
+        try (var out = new FileOutputStream(file)) {
+            out.write(print(new ComprehensiveTraversalStrategy()));
+        }
+
+        assertTrue("graph file", NodeLoader.isGraphFile(file.getName()));
+        assertEquals(toXML(factory), toXML(new NodeLoader().load(file.getPath())));
+    }
+}
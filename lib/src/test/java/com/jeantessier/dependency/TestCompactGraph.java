@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestCompactGraph extends TestCase {
+    private NodeFactory factory;
+    private NodeFactory frozen;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+
+        var a_A_a = factory.createFeature("a.A.a()", true);
+        var b_B = factory.createClass("b.B", true);
+        var b_B_b = factory.createFeature("b.B.b", true);
+        var c = factory.createPackage("c");
+
+        a_A_a.addDependency(b_B_b);
+        a_A_a.getClassNode().addDependency(b_B);
+        b_B.addDependency(c);
+        a_A_a.getClassNode().addParent(b_B);
+        factory.createClass("c.C");
+
+        frozen = factory.freeze();
+    }
+
+    public void testIsFrozen() {
+        assertFalse("original", factory.isFrozen());
+        assertTrue("frozen", frozen.isFrozen());
+        assertSame("freeze again", frozen, frozen.freeze());
+    }
+
+    public void testSameNodes() {
+        assertEquals("packages", factory.getPackages().keySet(), frozen.getPackages().keySet());
+        assertEquals("classes", factory.getClasses().keySet(), frozen.getClasses().keySet());
+        assertEquals("features", factory.getFeatures().keySet(), frozen.getFeatures().keySet());
+        assertEquals("size", 8, frozen.getGraph().size());
+    }
+
+    public void testSameConfirmed() {
+        assertTrue("b.B", frozen.getClasses().get("b.B").isConfirmed());
+        assertFalse("c.C", frozen.getClasses().get("c.C").isConfirmed());
+    }
+
+    public void testDependencies() {
+        var a_A_a = frozen.getFeatures().get("a.A.a()");
+        var b_B_b = frozen.getFeatures().get("b.B.b");
+
+        assertEquals("outbounds", List.of(b_B_b), new ArrayList<>(a_A_a.getOutboundDependencies()));
+        assertEquals("inbounds", List.of(a_A_a), new ArrayList<>(b_B_b.getInboundDependencies()));
+        assertTrue("contains frozen node", a_A_a.getOutboundDependencies().contains(b_B_b));
+        assertTrue("contains original node", a_A_a.getOutboundDependencies().contains(factory.getFeatures().get("b.B.b")));
+        assertFalse("does not contain", a_A_a.getOutboundDependencies().contains(frozen.getPackages().get("c")));
+    }
+
+    public void testContents() {
+        var a = frozen.getPackages().get("a");
+        var a_A = frozen.getClasses().get("a.A");
+        var a_A_a = frozen.getFeatures().get("a.A.a()");
+
+        assertSame("package of class", a, a_A.getPackageNode());
+        assertSame("class of feature", a_A, a_A_a.getClassNode());
+        assertEquals("classes", List.of(a_A), new ArrayList<>(a.getClasses()));
+        assertEquals("features", List.of(a_A_a), new ArrayList<>(a_A.getFeatures()));
+        assertSame("getFeature", a_A_a, a_A.getFeature("a()"));
+        assertNull("getFeature from another class", a_A.getFeature("b"));
+    }
+
+    public void testInheritance() {
+        var a_A = frozen.getClasses().get("a.A");
+        var b_B = frozen.getClasses().get("b.B");
+
+        assertEquals("parents", List.of(b_B), new ArrayList<>(a_A.getParents()));
+        assertEquals("children", List.of(a_A), new ArrayList<>(b_B.getChildren()));
+    }
+
+    public void testFindExistingNode() {
+        assertSame("package", frozen.getPackages().get("c"), frozen.createPackage("c"));
+        assertSame("class", frozen.getClasses().get("b.B"), frozen.createClass("b.B", true));
+    }
+
+    public void testCannotCreateNewNode() {
+        try {
+            frozen.createPackage("d");
+            fail("Created a node in a frozen graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+
+    public void testCannotConfirmNode() {
+        try {
+            frozen.createClass("c.C", true);
+            fail("Confirmed a node in a frozen graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        try {
+            frozen.getClasses().get("c.C").setConfirmed(true);
+            fail("Confirmed a node in a frozen graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+
+    public void testCannotAddDependency() {
+        try {
+            frozen.getPackages().get("c").addDependency(frozen.getPackages().get("a"));
+            fail("Added a dependency in a frozen graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        assertTrue("outbounds", frozen.getPackages().get("c").getOutboundDependencies().isEmpty());
+    }
+
+    public void testOriginalStillMutable() {
+        factory.createPackage("d");
+
+        assertFalse("frozen picked up new node", frozen.getPackages().containsKey("d"));
+    }
+}
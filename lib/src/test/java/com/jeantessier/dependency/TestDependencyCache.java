@@ -0,0 +1,222 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestDependencyCache extends TestCase {
+    private static final String DIGEST = "0123456789abcdef0123456789abcdef01234567";
+
+    private Path file;
+    private DependencyRecord record;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        file = Files.createTempFile(getName(), ".cache");
+        Files.delete(file);
+
+        record = new DependencyRecord(
+                "a.A",
+                List.of("java.lang.Object"),
+                List.of(new DependencyRecord.Dependable("java.lang.Object", false)),
+                Map.of(
+                        "a.A.f()", List.of(
+                                new DependencyRecord.Dependable("b.B", false),
+                                new DependencyRecord.Dependable("b.B.g()", true)
+                        )
+                )
+        );
+    }
+
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+
+        super.tearDown();
+    }
+
+    public void testNewCache() {
+        // When
+        var sut = new DependencyCache(file);
+
+        // Then
+        assertEquals("size", 0, sut.size());
+        assertNull("class name", sut.getClassName(DIGEST));
+        assertNull("record", sut.get(DIGEST));
+    }
+
+    public void testPut() {
+        // Given
+        var sut = new DependencyCache(file);
+
+        // When
+        sut.put(DIGEST, record);
+
+        // Then
+        assertEquals("size", 1, sut.size());
+        assertEquals("class name", "a.A", sut.getClassName(DIGEST));
+        assertEquals("record", record, sut.get(DIGEST));
+    }
+
+    public void testSaveAndReload() throws IOException {
+        // Given
+        var sut = new DependencyCache(file);
+        sut.put(DIGEST, record);
+
+        // When
+        sut.save();
+
+        // Then
+        var reloaded = new DependencyCache(file);
+        assertEquals("size", 1, reloaded.size());
+        assertEquals("record", record, reloaded.get(DIGEST));
+    }
+
+    public void testSaveWithoutChangesDoesNotCreateFile() throws IOException {
+        // Given
+        var sut = new DependencyCache(file);
+
+        // When
+        sut.save();
+
+        // Then
+        assertFalse("created " + file, Files.exists(file));
+    }
+
+    public void testUsedRecordsAreKept() throws IOException {
+        // Given
+        var sut = new DependencyCache(file, 0);
+        sut.put(DIGEST, record);
+        sut.save();
+
+        // When
+        var reloaded = new DependencyCache(file, 0);
+        reloaded.get(DIGEST);
+        reloaded.save();
+
+        // Then
+        assertEquals("size", 1, new DependencyCache(file, 0).size());
+    }
+
+    public void testUnusedRecordsAreDroppedAfterMaximumAge() throws IOException {
+        // Given
+        var sut = new DependencyCache(file, 1);
+        sut.put(DIGEST, record);
+        sut.save();
+
+        // When
+        var firstUnusedRun = new DependencyCache(file, 1);
+        firstUnusedRun.save();
+
+        // Then
+        assertEquals("size after first unused run", 1, new DependencyCache(file, 1).size());
+
+        // When
+        var secondUnusedRun = new DependencyCache(file, 1);
+        secondUnusedRun.save();
+
+        // Then
+        assertEquals("size in memory after second unused run", 0, secondUnusedRun.size());
+        assertEquals("size after second unused run", 0, new DependencyCache(file, 1).size());
+    }
+
+    public void testUsingARecordResetsItsAge() throws IOException {
+        // Given
+        var sut = new DependencyCache(file, 1);
+        sut.put(DIGEST, record);
+        sut.save();
+        new DependencyCache(file, 1).save();
+
+        // When
+        var used = new DependencyCache(file, 1);
+        used.getClassName(DIGEST);
+        used.save();
+        new DependencyCache(file, 1).save();
+
+        // Then
+        assertEquals("size", 1, new DependencyCache(file, 1).size());
+    }
+
+    public void testUnreadableFileIsIgnored() throws IOException {
+        // Given
+        Files.writeString(file, "not a cache");
+
+        // When
+        var sut = new DependencyCache(file);
+
+        // Then
+        assertEquals("size", 0, sut.size());
+    }
+
+    public void testReplayWithComprehensiveFilter() {
+        // Given
+        var factory = new NodeFactory();
+
+        // When
+        record.replay(factory, new ComprehensiveSelectionCriteria());
+
+        // Then
+        var a = factory.getClasses().get("a.A");
+        assertTrue("a.A confirmed", a.isConfirmed());
+        assertEquals("a.A parents", Set.of(factory.getClasses().get("java.lang.Object")), Set.copyOf(a.getParents()));
+        assertEquals("a.A outbounds", Set.of(factory.getClasses().get("java.lang.Object")), Set.copyOf(a.getOutboundDependencies()));
+
+        var f = factory.getFeatures().get("a.A.f()");
+        assertTrue("a.A.f() confirmed", f.isConfirmed());
+        assertEquals("a.A.f() outbounds", Set.of(factory.getClasses().get("b.B"), factory.getFeatures().get("b.B.g()")), Set.copyOf(f.getOutboundDependencies()));
+    }
+
+    public void testReplayWithClassFilter() {
+        // Given
+        var filterCriteria = new RegularExpressionSelectionCriteria("//");
+        filterCriteria.setMatchingFeatures(false);
+        filterCriteria.setGlobalExcludes("/^java/");
+
+        // And
+        var factory = new NodeFactory();
+
+        // When
+        record.replay(factory, filterCriteria);
+
+        // Then
+        assertEquals("a.A outbounds", Set.of(), Set.copyOf(factory.getClasses().get("a.A").getOutboundDependencies()));
+        assertEquals("a.A.f() outbounds", Set.of(factory.getClasses().get("b.B")), Set.copyOf(factory.getFeatures().get("a.A.f()").getOutboundDependencies()));
+        assertFalse("b.B.g() should not have been created", factory.getFeatures().containsKey("b.B.g()"));
+        assertTrue("parent should still be there", factory.getClasses().containsKey("java.lang.Object"));
+    }
+}
@@ -131,6 +131,7 @@ public class TestFeatureResolver extends MockObjectTestCase {
         final String PARENT_TARGET_NAME = PARENT_NAME + "." + TARGET_SIMPLE_NAME;
 
         final FeatureNode mockCallerSource = mock(FeatureNode.class, "Caller.source()");
+        final ClassNode mockParent = mock(ClassNode.class, PARENT_NAME);
         final FeatureNode mockParentTarget = mock(FeatureNode.class, PARENT_TARGET_NAME);
         final ClassNode mockChild = mock(ClassNode.class, CHILD_NAME);
         final FeatureNode mockChildTarget = mock(FeatureNode.class, CHILD_TARGET_NAME);
@@ -140,16 +141,68 @@ public class TestFeatureResolver extends MockObjectTestCase {
                 will(returnValue(TARGET_SIMPLE_NAME));
             atLeast(1).of (mockChildTarget).getClassNode();
                 will(returnValue(mockChild));
-            oneOf (mockChild).getInheritedFeatures(TARGET_SIMPLE_NAME);
-                will(returnValue(Collections.singleton(mockParentTarget)));
+            oneOf (mockChild).getFeature(TARGET_SIMPLE_NAME);
+                will(returnValue(mockChildTarget));
+            oneOf (mockChild).getParents();
+                will(returnValue(Collections.singleton(mockParent)));
+            oneOf (mockParent).getFeature(TARGET_SIMPLE_NAME);
+                will(returnValue(mockParentTarget));
+            oneOf (mockParent).getParents();
+                will(returnValue(Collections.emptySet()));
             oneOf (mockChildTarget).getInboundDependencies();
                 will(returnValue(Collections.singleton(mockCallerSource)));
+            oneOf (mockCallerSource).addDependency(mockChildTarget);
             oneOf (mockCallerSource).addDependency(mockParentTarget);
         }});
 
         sut.visitFeatureNode(mockChildTarget);
     }
 
+    public void testVisitFeatureNode_SharedParentIsResolvedOnce() {
+        final String TARGET_SIMPLE_NAME = "target()";
+
+        final FeatureNode mockCallerSource = mock(FeatureNode.class, "Caller.source()");
+        final ClassNode mockParent = mock(ClassNode.class, "Parent");
+        final FeatureNode mockParentTarget = mock(FeatureNode.class, "Parent.target()");
+        final ClassNode mockChild1 = mock(ClassNode.class, "Child1");
+        final FeatureNode mockChild1Target = mock(FeatureNode.class, "Child1.target()");
+        final ClassNode mockChild2 = mock(ClassNode.class, "Child2");
+        final FeatureNode mockChild2Target = mock(FeatureNode.class, "Child2.target()");
+
+        checking(new Expectations() {{
+            allowing (mockChild1Target).getSimpleName();
+                will(returnValue(TARGET_SIMPLE_NAME));
+            allowing (mockChild1Target).getClassNode();
+                will(returnValue(mockChild1));
+            allowing (mockChild2Target).getSimpleName();
+                will(returnValue(TARGET_SIMPLE_NAME));
+            allowing (mockChild2Target).getClassNode();
+                will(returnValue(mockChild2));
+
+            oneOf (mockChild1).getFeature(TARGET_SIMPLE_NAME);
+                will(returnValue(mockChild1Target));
+            oneOf (mockChild1).getParents();
+                will(returnValue(Collections.singleton(mockParent)));
+            oneOf (mockChild2).getFeature(TARGET_SIMPLE_NAME);
+                will(returnValue(mockChild2Target));
+            oneOf (mockChild2).getParents();
+                will(returnValue(Collections.singleton(mockParent)));
+            oneOf (mockParent).getFeature(TARGET_SIMPLE_NAME);
+                will(returnValue(mockParentTarget));
+            oneOf (mockParent).getParents();
+                will(returnValue(Collections.emptySet()));
+
+            allowing (mockChild1Target).getInboundDependencies();
+                will(returnValue(Collections.singleton(mockCallerSource)));
+            allowing (mockChild2Target).getInboundDependencies();
+                will(returnValue(Collections.emptySet()));
+            allowing (mockCallerSource).addDependency(with(any(FeatureNode.class)));
+        }});
+
+        sut.visitFeatureNode(mockChild1Target);
+        sut.visitFeatureNode(mockChild2Target);
+    }
+
     public void testVisitInboundFeatureNode() {
         final FeatureNode mockFeatureNode = mock(FeatureNode.class);
         sut.visitInboundFeatureNode(mockFeatureNode);
@@ -32,6 +32,10 @@
 
 package com.jeantessier.dependency;
 
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
 import junit.framework.*;
 
 public class TestNodeFactory extends TestCase {
@@ -283,4 +287,168 @@ public class TestNodeFactory extends TestCase {
         assertTrue("Not concrete", node.getClassNode().isConfirmed());
         assertTrue("Not concrete", node.getClassNode().getPackageNode().isConfirmed());
     }
+
+    public void testParseClassNameOfField() {
+        assertEquals("a.A", NodeFactory.parseClassName("a.A.a"));
+        assertEquals("A", NodeFactory.parseClassName("A.a"));
+        assertEquals("", NodeFactory.parseClassName("a"));
+    }
+
+    public void testParseClassNameOfMethod() {
+        assertEquals("a.A", NodeFactory.parseClassName("a.A.a()"));
+        assertEquals("a.A", NodeFactory.parseClassName("a.A.a(java.lang.String, int)"));
+        assertEquals("a.A", NodeFactory.parseClassName("a.A.a(java.lang.String): java.lang.Object"));
+        assertEquals("A", NodeFactory.parseClassName("A.a(b.B)"));
+        assertEquals("", NodeFactory.parseClassName("a()"));
+    }
+
+    public void testParseClassNameOfMalformedMethod() {
+        assertEquals("a.A.a(b", NodeFactory.parseClassName("a.A.a(b.B"));
+        assertEquals("a.A.a(b.B):  c", NodeFactory.parseClassName("a.A.a(b.B):  c.C"));
+    }
+
+    public void testConcurrent() {
+        assertFalse("default", factory.isConcurrent());
+        assertTrue("concurrent", new NodeFactory(true).isConcurrent());
+    }
+
+    public void testConcurrentCreateFeature() {
+        factory = new NodeFactory(true);
+
+        FeatureNode node = factory.createFeature("a.A.a(b.B)", true);
+
+        assertEquals("name", "a.A.a(b.B)", node.getName());
+        assertEquals("class name", "a.A", node.getClassNode().getName());
+        assertEquals("package name", "a", node.getClassNode().getPackageNode().getName());
+        assertTrue("confirmed", node.getClassNode().getPackageNode().isConfirmed());
+        assertSame("lookup", node, factory.createFeature("a.A.a(b.B)"));
+    }
+
+    public void testConcurrentGraphFromManyThreads() throws Exception {
+        factory = new NodeFactory(true);
+
+        int threadCount = 8;
+        int classCount = 200;
+
+        var executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var tasks = IntStream.range(0, threadCount)
+                    .mapToObj(thread -> (Callable<Void>) () -> {
+                        for (int i = 0; i < classCount; i++) {
+                            var source = factory.createFeature("p" + (i % 10) + ".C" + i + ".m" + thread + "()", true);
+                            var target = factory.createFeature("q.Target.f");
+                            source.addDependency(target);
+                            source.getClassNode().addDependency(target.getClassNode());
+                            source.getClassNode().addParent(factory.createClass("q.Base"));
+                        }
+                        return null;
+                    })
+                    .toList();
+
+            for (var result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("packages", 11, factory.getPackages().size());
+        assertEquals("classes", classCount + 2, factory.getClasses().size());
+        assertEquals("features", classCount * threadCount + 1, factory.getFeatures().size());
+
+        var target = factory.getFeatures().get("q.Target.f");
+        assertEquals("inbound features", classCount * threadCount, target.getInboundDependencies().size());
+        assertEquals("inbound classes", classCount, target.getClassNode().getInboundDependencies().size());
+        assertEquals("children", classCount, factory.getClasses().get("q.Base").getChildren().size());
+
+        var c0 = factory.getClasses().get("p0.C0");
+        assertEquals("features of p0.C0", threadCount, c0.getFeatures().size());
+        assertEquals("classes of p0", classCount / 10, c0.getPackageNode().getClasses().size());
+        assertEquals("outbounds of p0.C0", Set.of(target.getClassNode()), new HashSet<>(c0.getOutboundDependencies()));
+    }
+
+    public void testMergeNodes() {
+        factory.createFeature("a.A.a");
+
+        var other = new NodeFactory();
+        other.createFeature("b.B.b");
+        other.createPackage("c");
+
+        assertSame("merge returns", factory, factory.merge(other));
+
+        assertEquals("packages", Set.of("a", "b", "c"), factory.getPackages().keySet());
+        assertEquals("classes", Set.of("a.A", "b.B"), factory.getClasses().keySet());
+        assertEquals("features", Set.of("a.A.a", "b.B.b"), factory.getFeatures().keySet());
+        assertSame("b.B.b in b.B", factory.getClasses().get("b.B"), factory.getFeatures().get("b.B.b").getClassNode());
+        assertNotSame("copied", other.getFeatures().get("b.B.b"), factory.getFeatures().get("b.B.b"));
+    }
+
+    public void testMergeOrsConfirmed() {
+        factory.createClass("a.A", true);
+        factory.createClass("b.B", false);
+        factory.createClass("c.C", false);
+
+        var other = new NodeFactory();
+        other.createClass("a.A", false);
+        other.createClass("b.B", true);
+        other.createClass("c.C", false);
+
+        factory.merge(other);
+
+        assertTrue("a.A", factory.getClasses().get("a.A").isConfirmed());
+        assertTrue("b.B", factory.getClasses().get("b.B").isConfirmed());
+        assertTrue("b", factory.getPackages().get("b").isConfirmed());
+        assertFalse("c.C", factory.getClasses().get("c.C").isConfirmed());
+    }
+
+    public void testMergeDependencies() {
+        factory.createFeature("a.A.a").addDependency(factory.createFeature("b.B.b"));
+
+        var other = new NodeFactory();
+        other.createFeature("a.A.a").addDependency(other.createFeature("c.C.c"));
+        other.createClass("a.A").addDependency(other.createClass("c.C"));
+        other.createPackage("a").addDependency(other.createPackage("c"));
+
+        factory.merge(other);
+
+        var a_A_a = factory.getFeatures().get("a.A.a");
+        assertEquals("a.A.a outbounds", Set.of(factory.getFeatures().get("b.B.b"), factory.getFeatures().get("c.C.c")), new HashSet<>(a_A_a.getOutboundDependencies()));
+        assertEquals("c.C.c inbounds", Set.of(a_A_a), new HashSet<>(factory.getFeatures().get("c.C.c").getInboundDependencies()));
+        assertEquals("a.A outbounds", Set.of(factory.getClasses().get("c.C")), new HashSet<>(factory.getClasses().get("a.A").getOutboundDependencies()));
+        assertEquals("a outbounds", Set.of(factory.getPackages().get("c")), new HashSet<>(factory.getPackages().get("a").getOutboundDependencies()));
+    }
+
+    public void testMergeParents() {
+        var other = new NodeFactory();
+        other.createClass("a.A").addParent(other.createClass("b.B"));
+
+        factory.merge(other);
+
+        assertEquals("parents", Set.of(factory.getClasses().get("b.B")), new HashSet<>(factory.getClasses().get("a.A").getParents()));
+        assertEquals("children", Set.of(factory.getClasses().get("a.A")), new HashSet<>(factory.getClasses().get("b.B").getChildren()));
+    }
+
+    public void testMergeSeveral() {
+        var other1 = new NodeFactory();
+        other1.createFeature("a.A.a").addDependency(other1.createFeature("b.B.b"));
+
+        var other2 = new NodeFactory();
+        other2.createFeature("a.A.a", true);
+
+        factory.merge(other1, other2, factory);
+
+        assertEquals("features", Set.of("a.A.a", "b.B.b"), factory.getFeatures().keySet());
+        assertTrue("a.A.a confirmed", factory.getFeatures().get("a.A.a").isConfirmed());
+        assertEquals("a.A.a outbounds", 1, factory.getFeatures().get("a.A.a").getOutboundDependencies().size());
+    }
+
+    public void testMergeFrozen() {
+        var other = new NodeFactory();
+        other.createFeature("a.A.a").addDependency(other.createFeature("b.B.b"));
+
+        factory.merge(other.freeze());
+
+        assertEquals("a.A.a outbounds", Set.of(factory.getFeatures().get("b.B.b")), new HashSet<>(factory.getFeatures().get("a.A.a").getOutboundDependencies()));
+        assertFalse("b.B.b frozen", factory.getFeatures().get("b.B.b").isFrozen());
+    }
 }
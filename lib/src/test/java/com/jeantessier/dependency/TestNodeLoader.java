@@ -36,8 +36,16 @@ import junit.framework.TestCase;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 public class TestNodeLoader extends TestCase {
     private static final String MY_PACKAGE_NAME = "mypackage";
@@ -47,7 +55,9 @@ public class TestNodeLoader extends TestCase {
     private static final String OTHER_CLASS_NAME = "otherpackage.OtherClass";
     private static final String OTHER_FEATURE_NAME = "otherpackage.OtherClass.otherFeature";
     
-    public void testReadDocument() throws IOException, ParserConfigurationException, SAXException {
+    private static final int NB_ELEMENTS = 19;
+
+    private String createDocument() {
         StringBuilder xml = new StringBuilder();
 
         xml.append("<?xml version=\"1.0\" encoding=\"utf-8\" ?>\n");
@@ -81,9 +91,131 @@ public class TestNodeLoader extends TestCase {
         xml.append("    </package>\n");
         xml.append("</dependencies>\n");
 
+        return xml.toString();
+    }
+
+    public void testReadDocument() throws IOException, ParserConfigurationException, SAXException {
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(new StringReader(createDocument()));
+
+        assertGraph(factory);
+    }
+
+    public void testReadStream() throws IOException, ParserConfigurationException, SAXException {
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(new ByteArrayInputStream(createDocument().getBytes(StandardCharsets.UTF_8)));
+
+        assertGraph(factory);
+    }
+
+    public void testReadGzippedStream() throws IOException, ParserConfigurationException, SAXException {
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(new ByteArrayInputStream(gzip(createDocument())));
+
+        assertGraph(factory);
+    }
+
+    public void testReadGzippedFile() throws IOException, ParserConfigurationException, SAXException {
+        File file = File.createTempFile("TestNodeLoader", ".xml.gz");
+        file.deleteOnExit();
+        Files.write(file.toPath(), gzip(createDocument()));
+
+        assertTrue("graph file", NodeLoader.isGraphFile(file.getPath()));
+
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(file.getPath());
+
+        assertGraph(factory);
+    }
+
+    public void testDependencyEvents() throws IOException, ParserConfigurationException, SAXException {
+        List<String> events = new ArrayList<>();
+
+        NodeLoader loader = new NodeLoader();
+        loader.addDependencyListener(new DependencyListener() {
+            public void beginSession(DependencyEvent event) {
+                events.add("beginSession");
+            }
+
+            public void beginClass(DependencyEvent event) {
+                events.add("beginClass " + event.getClassName());
+            }
+
+            public void dependency(DependencyEvent event) {
+                events.add(event.getDependent() + " --> " + event.getDependable());
+            }
+
+            public void endSession(DependencyEvent event) {
+                events.add("endSession");
+            }
+        });
+        loader.load(new StringReader(createDocument()));
+
+        assertEquals("events", List.of(
+                "beginSession",
+                MY_PACKAGE_NAME + " --> " + OTHER_PACKAGE_NAME,
+                "beginClass " + MY_CLASS_NAME,
+                MY_CLASS_NAME + " --> " + OTHER_CLASS_NAME,
+                MY_FEATURE_NAME + " --> " + OTHER_FEATURE_NAME,
+                MY_PACKAGE_NAME + " --> " + OTHER_PACKAGE_NAME,
+                "beginClass " + OTHER_CLASS_NAME,
+                MY_CLASS_NAME + " --> " + OTHER_CLASS_NAME,
+                MY_FEATURE_NAME + " --> " + OTHER_FEATURE_NAME,
+                "endSession"), events);
+    }
+
+    public void testProgress() throws IOException, ParserConfigurationException, SAXException {
+        byte[] gzipped = gzip(createDocument());
+        File file = File.createTempFile("TestNodeLoader", ".xml.gz");
+        file.deleteOnExit();
+        Files.write(file.toPath(), gzipped);
+
+        List<LoadProgressEvent> events = new ArrayList<>();
+
         NodeLoader loader = new NodeLoader();
-        NodeFactory factory = loader.load(new StringReader(xml.toString()));
+        loader.addLoadProgressListener(events::add);
+        loader.load(file.getPath());
+
+        assertEquals("nb events", 1, events.size());
+        assertEquals("bytes", gzipped.length, events.get(0).getBytes());
+        assertEquals("total bytes", gzipped.length, events.get(0).getTotalBytes());
+        assertEquals("percentage", 100, events.get(0).getPercentage());
+        assertEquals("elements", NB_ELEMENTS, events.get(0).getElements());
+    }
+
+    public void testProgressWithoutSize() throws IOException, ParserConfigurationException, SAXException {
+        List<LoadProgressEvent> events = new ArrayList<>();
+
+        NodeLoader loader = new NodeLoader();
+        loader.addLoadProgressListener(events::add);
+        loader.load(new StringReader(createDocument()));
+
+        assertEquals("nb events", 1, events.size());
+        assertEquals("total bytes", -1, events.get(0).getTotalBytes());
+        assertEquals("percentage", -1, events.get(0).getPercentage());
+        assertEquals("elements", NB_ELEMENTS, events.get(0).getElements());
+    }
+
+    public void testMalformedDocument() throws IOException, ParserConfigurationException {
+        NodeLoader loader = new NodeLoader();
+
+        try {
+            loader.load(new StringReader("<dependencies><package>"));
+            fail("Loaded malformed document");
+        } catch (SAXException ex) {
+            // Expected
+        }
+    }
+
+    private byte[] gzip(String document) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(document.getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
 
+    private void assertGraph(NodeFactory factory) {
         assertEquals("nb packages", 2, factory.getPackages().size());
         assertNotNull("missing package", factory.getPackages().get(MY_PACKAGE_NAME));
         assertTrue("package is inferred", factory.getPackages().get(MY_PACKAGE_NAME).isConfirmed());
@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.text;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import junit.framework.*;
+
+public class TestSymbolTable extends TestCase {
+    public void testInternReturnsSameInstance() {
+        var table = new SymbolTable();
+
+        var first = table.intern(new String("java.lang.Object"));
+        var second = table.intern(new String("java.lang.Object"));
+
+        assertEquals("java.lang.Object", first);
+        assertSame(first, second);
+    }
+
+    public void testInternNull() {
+        assertNull(new SymbolTable().intern(null));
+    }
+
+    public void testUnusedSymbolsAreCollected() throws InterruptedException {
+        var table = new SymbolTable();
+
+        table.intern(new String("java.lang.Object"));
+        for (int i = 0; i < 50 && table.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals("size after collection", 0, table.size());
+    }
+
+    public void testConcurrentIntern() throws Exception {
+        var table = new SymbolTable();
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> table.intern(new String("java.lang.Object"))));
+            }
+
+            var first = results.get(0).get();
+            for (var result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testSize() {
+        var table = new SymbolTable();
+
+        assertEquals("empty", 0, table.size());
+
+        table.intern("foo");
+        assertEquals("add one", 1, table.size());
+
+        table.intern(new String("foo"));
+        assertEquals("add same again", 1, table.size());
+
+        table.intern("bar");
+        assertEquals("add another", 2, table.size());
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.*;
+import java.util.zip.*;
+
+/**
+ *  <p>Writes JAR files full of generated classes, for tests and benchmarks
+ *  that need codebases much larger than the hand-written samples.  The
+ *  classes are written directly as bytecode, so nothing gets compiled and
+ *  nothing gets downloaded.</p>
+ *
+ *  <p>Class <i>i</i> is named <code>synthetic.p</code>...<code>.C</code><i>i</i>
+ *  (see {@link #getClassName(int)}) and has {@link #getMethodsPerClass()}
+ *  static methods <code>m0()</code>, <code>m1()</code>, and so on.  Each
+ *  method calls {@link #getDependenciesPerMethod()} methods in classes with
+ *  lower numbers, picked at random (see {@link #setDependencyReach(int)}),
+ *  so the dependency graph has no cycles
+ *  unless {@link #setNbCycles(int)} asks for some.  The same settings and
+ *  seed always produce the same classes.</p>
+ */
+public class SyntheticCorpus {
+    public enum Layout {
+        /** All classes directly in the JAR file. */
+        FLAT,
+
+        /** Inner JAR files, each with the classes of {@link #getPackageFanOut()} packages. */
+        NESTED,
+
+        /** A multi-release JAR file with a copy of every tenth class under <code>META-INF/versions/17/</code>. */
+        MULTI_RELEASE,
+    }
+
+    public static final String ROOT_PACKAGE = "synthetic";
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int JAVA_8 = 52;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int RETURN = 0xB1;
+
+    private static final int VERSIONED_EVERY = 10;
+    private static final int RELEASE = 17;
+
+    private int nbClasses = 1_000;
+    private int classesPerPackage = 50;
+    private int packageFanOut = 10;
+    private int methodsPerClass = 5;
+    private int dependenciesPerMethod = 3;
+    private int dependencyReach = 0;
+    private int nbCycles = 0;
+    private Layout layout = Layout.FLAT;
+    private long seed = 0;
+
+    private Map<Integer, List<int[]>> cycleEdges;
+
+    public int getNbClasses() {
+        return nbClasses;
+    }
+
+    public void setNbClasses(int nbClasses) {
+        this.nbClasses = nbClasses;
+    }
+
+    public int getClassesPerPackage() {
+        return classesPerPackage;
+    }
+
+    public void setClassesPerPackage(int classesPerPackage) {
+        this.classesPerPackage = classesPerPackage;
+    }
+
+    /**
+     *  Packages form a tree: <code>synthetic.p1</code> has subpackages
+     *  <code>synthetic.p1.p0</code> to <code>synthetic.p1.p</code><i>n-1</i>,
+     *  where <i>n</i> is the fan-out.
+     */
+    public int getPackageFanOut() {
+        return packageFanOut;
+    }
+
+    public void setPackageFanOut(int packageFanOut) {
+        this.packageFanOut = packageFanOut;
+    }
+
+    public int getMethodsPerClass() {
+        return methodsPerClass;
+    }
+
+    public void setMethodsPerClass(int methodsPerClass) {
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    public int getDependenciesPerMethod() {
+        return dependenciesPerMethod;
+    }
+
+    public void setDependenciesPerMethod(int dependenciesPerMethod) {
+        this.dependenciesPerMethod = dependenciesPerMethod;
+    }
+
+    public int getDependencyReach() {
+        return dependencyReach;
+    }
+
+    /**
+     *  Limits dependencies to the <code>dependencyReach</code> classes just
+     *  below the calling class.  With the default of 0, a method can call
+     *  any class with a lower number, so packages depend on more and more
+     *  packages as the corpus grows.  A fixed reach keeps the shape of the
+     *  graph the same at every size.
+     */
+    public void setDependencyReach(int dependencyReach) {
+        this.dependencyReach = dependencyReach;
+    }
+
+    /**
+     *  Each cycle is a pair of classes whose <code>m0()</code> methods call
+     *  each other.  The two classes are usually in different packages, so
+     *  the cycle also shows at the package level.
+     */
+    public int getNbCycles() {
+        return nbCycles;
+    }
+
+    public void setNbCycles(int nbCycles) {
+        this.nbCycles = nbCycles;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(Layout layout) {
+        this.layout = layout;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getNbPackages() {
+        return (nbClasses + classesPerPackage - 1) / classesPerPackage;
+    }
+
+    public String getPackageName(int classIndex) {
+        var packageIndex = classIndex / classesPerPackage;
+
+        var digits = new LinkedList<Integer>();
+        do {
+            digits.addFirst(packageIndex % packageFanOut);
+            packageIndex /= packageFanOut;
+        } while (packageIndex > 0);
+
+        var result = new StringBuilder(ROOT_PACKAGE);
+        digits.forEach(digit -> result.append(".p").append(digit));
+        return result.toString();
+    }
+
+    public String getClassName(int classIndex) {
+        return getPackageName(classIndex) + ".C" + classIndex;
+    }
+
+    /**
+     *  @return the classes that {@link #setNbCycles(int)} put in cycles,
+     *          in pairs.
+     */
+    public List<int[]> getCycles() {
+        var result = new ArrayList<int[]>();
+
+        var random = new Random(seed);
+        for (int i=0; i<nbCycles && nbClasses > 1; i++) {
+            var low = random.nextInt(nbClasses - 1);
+            var high = low + 1 + random.nextInt(nbClasses - low - 1);
+            result.add(new int[] {low, high});
+        }
+
+        return result;
+    }
+
+    /**
+     *  Writes the JAR file, replacing <code>file</code> if it exists.
+     *
+     *  @return <code>file</code>
+     */
+    public Path generate(Path file) throws IOException {
+        cycleEdges = new HashMap<>();
+        for (var cycle : getCycles()) {
+            cycleEdges.computeIfAbsent(cycle[0], k -> new ArrayList<>()).add(new int[] {cycle[1], 0});
+            cycleEdges.computeIfAbsent(cycle[1], k -> new ArrayList<>()).add(new int[] {cycle[0], 0});
+        }
+
+        try (var out = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), manifest())) {
+            out.setLevel(Deflater.BEST_SPEED);
+
+            switch (layout) {
+                case FLAT -> writeClasses(out, "", 0, nbClasses);
+                case NESTED -> writeNestedJars(out);
+                case MULTI_RELEASE -> {
+                    writeClasses(out, "", 0, nbClasses);
+                    writeVersionedClasses(out);
+                }
+            }
+        } finally {
+            cycleEdges = null;
+        }
+
+        return file;
+    }
+
+    private Manifest manifest() {
+        var result = new Manifest();
+
+        result.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (layout == Layout.MULTI_RELEASE) {
+            result.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+        }
+
+        return result;
+    }
+
+    private void writeClasses(ZipOutputStream out, String prefix, int from, int to) throws IOException {
+        for (int i=from; i<to; i++) {
+            writeClass(out, prefix, i);
+        }
+    }
+
+    private void writeVersionedClasses(ZipOutputStream out) throws IOException {
+        for (int i=0; i<nbClasses; i+=VERSIONED_EVERY) {
+            writeClass(out, "META-INF/versions/" + RELEASE + "/", i);
+        }
+    }
+
+    /**
+     *  Packages are numbered in order, so each inner JAR file gets the
+     *  classes of as many consecutive packages as the package fan-out.
+     */
+    private void writeNestedJars(ZipOutputStream out) throws IOException {
+        var classesPerJar = classesPerPackage * packageFanOut;
+
+        for (int from=0, part=0; from<nbClasses; from+=classesPerJar, part++) {
+            var buffer = new ByteArrayOutputStream();
+            try (var inner = new JarOutputStream(buffer, manifest())) {
+                inner.setLevel(Deflater.BEST_SPEED);
+                writeClasses(inner, "", from, Math.min(from + classesPerJar, nbClasses));
+            }
+
+            out.putNextEntry(new ZipEntry("lib/part" + part + ".jar"));
+            buffer.writeTo(out);
+            out.closeEntry();
+        }
+    }
+
+    private int dependency(Random random, int classIndex) {
+        if (dependencyReach > 0 && dependencyReach < classIndex) {
+            return classIndex - 1 - random.nextInt(dependencyReach);
+        }
+
+        return random.nextInt(classIndex);
+    }
+
+    private void writeClass(ZipOutputStream out, String prefix, int classIndex) throws IOException {
+        out.putNextEntry(new ZipEntry(prefix + getClassName(classIndex).replace('.', '/') + ".class"));
+        out.write(classfile(classIndex));
+        out.closeEntry();
+    }
+
+    byte[] classfile(int classIndex) throws IOException {
+        var random = new Random(seed * 31 + classIndex);
+
+        var constantPool = new ConstantPool();
+        var thisClass = constantPool.classInfo(internalName(classIndex));
+        var superClass = constantPool.classInfo("java/lang/Object");
+        var descriptor = constantPool.utf8("()V");
+        var code = constantPool.utf8("Code");
+
+        var methods = new ByteArrayOutputStream();
+        var methodsOut = new DataOutputStream(methods);
+        for (int m=0; m<methodsPerClass; m++) {
+            var calls = new ArrayList<int[]>();
+            for (int d=0; classIndex > 0 && d<dependenciesPerMethod; d++) {
+                calls.add(new int[] {dependency(random, classIndex), random.nextInt(methodsPerClass)});
+            }
+            if (m == 0) {
+                calls.addAll(cycleEdges == null ? List.of() : cycleEdges.getOrDefault(classIndex, List.of()));
+            }
+
+            methodsOut.writeShort(ACC_PUBLIC | ACC_STATIC);
+            methodsOut.writeShort(constantPool.utf8("m" + m));
+            methodsOut.writeShort(descriptor);
+            methodsOut.writeShort(1);
+
+            methodsOut.writeShort(code);
+            methodsOut.writeInt(2 + 2 + 4 + calls.size() * 3 + 1 + 2 + 2);
+            methodsOut.writeShort(0); // max_stack
+            methodsOut.writeShort(0); // max_locals
+            methodsOut.writeInt(calls.size() * 3 + 1);
+            for (var call : calls) {
+                methodsOut.writeByte(INVOKESTATIC);
+                methodsOut.writeShort(constantPool.methodref(internalName(call[0]), "m" + call[1], "()V"));
+            }
+            methodsOut.writeByte(RETURN);
+            methodsOut.writeShort(0); // exception_table_length
+            methodsOut.writeShort(0); // attributes_count
+        }
+
+        var result = new ByteArrayOutputStream();
+        var resultOut = new DataOutputStream(result);
+        resultOut.writeInt(MAGIC);
+        resultOut.writeShort(0);
+        resultOut.writeShort(JAVA_8);
+        constantPool.writeTo(resultOut);
+        resultOut.writeShort(ACC_PUBLIC | ACC_SUPER);
+        resultOut.writeShort(thisClass);
+        resultOut.writeShort(superClass);
+        resultOut.writeShort(0); // interfaces_count
+        resultOut.writeShort(0); // fields_count
+        resultOut.writeShort(methodsPerClass);
+        methods.writeTo(resultOut);
+        resultOut.writeShort(0); // attributes_count
+        resultOut.flush();
+
+        return result.toByteArray();
+    }
+
+    private String internalName(int classIndex) {
+        return getClassName(classIndex).replace('.', '/');
+    }
+
+    private static class ConstantPool {
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_METHODREF = 10;
+        private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(entries);
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            var index = indices.get("U" + value);
+            if (index == null) {
+                out.writeByte(CONSTANT_UTF8);
+                out.writeUTF(value);
+                index = add("U" + value);
+            }
+            return index;
+        }
+
+        int classInfo(String internalName) throws IOException {
+            var index = indices.get("C" + internalName);
+            if (index == null) {
+                var nameIndex = utf8(internalName);
+                out.writeByte(CONSTANT_CLASS);
+                out.writeShort(nameIndex);
+                index = add("C" + internalName);
+            }
+            return index;
+        }
+
+        int methodref(String owner, String name, String descriptor) throws IOException {
+            var key = "M" + owner + "." + name + descriptor;
+            var index = indices.get(key);
+            if (index == null) {
+                var classIndex = classInfo(owner);
+                var nameAndTypeIndex = nameAndType(name, descriptor);
+                out.writeByte(CONSTANT_METHODREF);
+                out.writeShort(classIndex);
+                out.writeShort(nameAndTypeIndex);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            var key = "N" + name + ":" + descriptor;
+            var index = indices.get(key);
+            if (index == null) {
+                var nameIndex = utf8(name);
+                var descriptorIndex = utf8(descriptor);
+                out.writeByte(CONSTANT_NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int add(String key) {
+            indices.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream classfile) throws IOException {
+            classfile.writeShort(count);
+            out.flush();
+            entries.writeTo(classfile);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2001-2024, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Describes nodes as sorted strings, so tests can compare graphs built in
+ *  different ways and get a readable difference when they do not match.</p>
+ *
+ *  <p>Each node is described by whether it is confirmed, the names of its
+ *  outbound and inbound dependencies, and for classes, the names of their
+ *  parents.</p>
+ */
+public class GraphDescription {
+    public static Map<String, String> describe(Map<String, ? extends Node> nodes) {
+        var result = new TreeMap<String, String>();
+
+        nodes.forEach((name, node) -> {
+            var description = new StringBuilder();
+            description.append(node.isConfirmed());
+            description.append(" --> ").append(names(node.getOutboundDependencies()));
+            description.append(" <-- ").append(names(node.getInboundDependencies()));
+            if (node instanceof ClassNode classNode) {
+                description.append(" extends ").append(names(classNode.getParents()));
+            }
+            result.put(name, description.toString());
+        });
+
+        return result;
+    }
+
+    public static SortedSet<String> names(Collection<? extends Node> nodes) {
+        var result = new TreeSet<String>();
+
+        nodes.forEach(node -> result.add(node.getName()));
+
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 rootProject.name = "DependencyFinder"
 
 include(":lib")
+include(":benchmarks")
 include(":integration-tests")
 include(":integration-tests:jarjardiff")
 include(":integration-tests:jarjardiff:new")
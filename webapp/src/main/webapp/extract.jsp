@@ -1,4 +1,4 @@
-<%@ page import="java.io.*, java.text.*, java.util.*, org.apache.oro.text.perl.*, com.jeantessier.classreader.*, com.jeantessier.dependency.*, com.jeantessier.dependencyfinder.*" %>
+<%@ page import="java.io.*, java.nio.file.*, java.text.*, java.util.*, org.apache.oro.text.perl.*, com.jeantessier.classreader.*, com.jeantessier.dependency.*, com.jeantessier.dependencyfinder.*" %>
 <%@ page errorPage="errorpage.jsp" %>
 
 <!--
@@ -93,6 +93,21 @@
             }
         }
 
+        public void cachedClassfile(LoadEvent event) {
+            super.cachedClassfile(event);
+
+            classCount++;
+
+            try {
+                out.print("\t\tGetting dependencies from ");
+                out.print(event.getClassName());
+                out.print(" from cache ...");
+                out.println();
+            } catch (IOException ex) {
+                // Ignore
+            }
+        }
+
         public void endFile(LoadEvent event) {
             super.endFile(event);
 
@@ -298,23 +313,38 @@
             factory = new NodeFactory();
         }
 
+        DependencyCache cache = (DependencyCache) application.getAttribute("cache");
+        String cacheFile = application.getInitParameter("cache");
+        if (cache == null && cacheFile != null && !cacheFile.isBlank()) {
+            cache = new DependencyCache(Paths.get(cacheFile));
+        }
+
         Monitor monitor = (Monitor) application.getAttribute("monitor");
         if (monitor == null || request.getParameter("update") == null) {
             RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria();
             filterCriteria.setGlobalIncludes(application.getInitParameter("filterIncludes"));
             filterCriteria.setGlobalExcludes(application.getInitParameter("filterExcludes"));
 
-            CodeDependencyCollector collector = new CodeDependencyCollector(factory, filterCriteria);
             DeletingVisitor deletingVisitor = new DeletingVisitor(factory);
 
-            monitor = new Monitor(collector, deletingVisitor);
+            if (cache != null) {
+                monitor = new Monitor(new CachingDependencyCollector(factory, filterCriteria, cache), deletingVisitor);
+            } else {
+                CodeDependencyCollector collector = new CodeDependencyCollector(factory, filterCriteria);
+                monitor = new Monitor(collector, deletingVisitor);
+            }
         }
 
-        ClassfileLoader loader = new TransientClassfileLoader(dispatcher);
+        TransientClassfileLoader loader = new TransientClassfileLoader(AttributeParsingProfile.DEPENDENCIES, dispatcher);
+        loader.setClassfileCache(cache);
         loader.addLoadListener(listener);
         loader.addLoadListener(monitor);
         loader.load(sources);
 
+        if (cache != null) {
+            cache.save();
+        }
+
         if ("maximize".equalsIgnoreCase(application.getInitParameter("mode"))) {
             out.println("Maximizing ...");
             new LinkMaximizer().traverseNodes(factory.getPackages().values());
@@ -331,6 +361,9 @@
         application.setAttribute("dispatcher", dispatcher);
         application.setAttribute("factory",    factory);
         application.setAttribute("monitor",    monitor);
+        if (cache != null) {
+            application.setAttribute("cache",      cache);
+        }
 
         if (request.getParameter("update") == null) {
             application.setAttribute("extractStart",    formatter.format(start));
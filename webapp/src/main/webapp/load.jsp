@@ -35,13 +35,19 @@
 <jsp:useBean id="version" class="com.jeantessier.dependencyfinder.Version" scope="application"/>
 
 <%!
-    private class VerboseListener implements DependencyListener {
+    private class VerboseListener implements DependencyListener, LoadProgressListener {
         private final JspWriter out;
 
+        private int lastPercentage;
+
         public VerboseListener(JspWriter out) {
             this.out = out;
         }
 
+        public void beginSession(DependencyEvent event) {
+            lastPercentage = 0;
+        }
+
         public void beginClass(DependencyEvent event) {
             try {
                 out.print("Loading dependencies for ");
@@ -52,6 +58,26 @@
                 // Ignore
             }
         }
+
+        public void progress(LoadProgressEvent event) {
+            int percentage = event.getPercentage();
+            if (percentage == -1 || percentage / 10 > lastPercentage / 10) {
+                lastPercentage = percentage;
+
+                try {
+                    if (percentage == -1) {
+                        out.print("Read " + event.getBytes() + " bytes");
+                    } else {
+                        out.print("Read " + percentage + "% of " + event.getTotalBytes() + " bytes");
+                    }
+                    out.print(", " + event.getElements() + " elements ...");
+                    out.println();
+                    out.flush();
+                } catch (IOException ex) {
+                    // Ignore
+                }
+            }
+        }
     }
 %>
 
@@ -202,11 +228,12 @@
         NodeFactory factory = new NodeFactory();
         NodeLoader loader = new NodeLoader(factory);
         loader.addDependencyListener(listener);
+        loader.addLoadProgressListener(listener);
 
         for (String filename : files) {
             try {
                 loader.load(filename);
-            } catch (SAXException | FileNotFoundException ex) {
+            } catch (SAXException | IOException ex) {
                 out.println("<i class=\"error\">Could not load graph from file \"" + filename + "\": " + ex.getMessage() + "</i>");
             }
         }